@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+/**
+ * What the backend in use can do beyond the basics, see {@link PureJavaHidApi#getCapabilities()}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public enum BackendCapability {
+    /** {@link HidDevice#setOutputReportAsync} is pipelined by the I/O loop of the device, not a pool thread */
+    ASYNC_WRITE,
+    /** a {@link BatchInputReportListener} gets several reports per wakeup */
+    BATCH_READ,
+    /** the timestamps of the input reports are taken right after the operating system delivered them */
+    TIMESTAMPS,
+    /** {@link OpenOptions#syncRead()} */
+    SYNC_READ,
+    /** {@link OpenOptions#withBusyPoll(Backoff)} */
+    BUSY_POLL,
+    /** the scheduling and affinity of {@link OpenOptions#withThreadOptions(ThreadOptions)} */
+    THREAD_OPTIONS
+}
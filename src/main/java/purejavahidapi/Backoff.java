@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * What a busy-polling reader does when a non-blocking read finds nothing.
+ * <p>
+ * After each empty read the reader goes one step further down the ladder:
+ * first it spins, then it spins with {@link Thread#onSpinWait()}, then it
+ * {@link Thread#yield()}s and at last it parks, every report read starts the
+ * ladder over. The longer a step the more CPU is spent to take the next
+ * report sooner.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ * @see OpenOptions#withBusyPoll(Backoff)
+ */
+public final class Backoff {
+
+    private final int m_Spins;
+    private final int m_SpinWaits;
+    private final int m_Yields;
+    private final long m_ParkNanos;
+
+    private Backoff(int spins, int spinWaits, int yields, long parkNanos) {
+        if (spins < 0 || spinWaits < 0 || yields < 0 || parkNanos < 0)
+            throw new IllegalArgumentException("negative backoff");
+        m_Spins = spins;
+        m_SpinWaits = spinWaits;
+        m_Yields = yields;
+        m_ParkNanos = parkNanos;
+    }
+
+    /**
+     * @param spins     the number of empty reads retried at once
+     * @param spinWaits the number of empty reads after that retried after {@link Thread#onSpinWait()}
+     * @param yields    the number of empty reads after that retried after {@link Thread#yield()}
+     * @param parkNanos how long to park after every later empty read, 0 to keep spinning
+     */
+    public static Backoff of(int spins, int spinWaits, int yields, long parkNanos) {
+        return new Backoff(spins, spinWaits, yields, parkNanos);
+    }
+
+    /** @return never gives the core away, the lowest latency at the cost of a whole core */
+    public static Backoff spin() {
+        return new Backoff(Integer.MAX_VALUE, 0, 0, 0);
+    }
+
+    /** @return spins for about tens of microseconds, yields a little, then parks for 50 microseconds at a time */
+    public static Backoff defaults() {
+        return new Backoff(100, 10_000, 100, 50_000);
+    }
+
+    /**
+     * Called by the reader after an empty read.
+     *
+     * @param idle the number of empty reads in a row before this one
+     */
+    public void idle(int idle) {
+        if (idle < m_Spins)
+            return;
+        idle -= m_Spins;
+        if (idle < m_SpinWaits) {
+            Thread.onSpinWait();
+            return;
+        }
+        idle -= m_SpinWaits;
+        if (idle < m_Yields) {
+            Thread.yield();
+            return;
+        }
+        if (m_ParkNanos > 0)
+            LockSupport.parkNanos(this, m_ParkNanos);
+        else
+            Thread.onSpinWait();
+    }
+
+    public int getSpins() {
+        return m_Spins;
+    }
+
+    public int getSpinWaits() {
+        return m_SpinWaits;
+    }
+
+    public int getYields() {
+        return m_Yields;
+    }
+
+    public long getParkNanos() {
+        return m_ParkNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Backoff{spins=" + m_Spins + ", spinWaits=" + m_SpinWaits + ", yields=" + m_Yields + ", parkNanos=" + m_ParkNanos + "}";
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+
+/**
+ * A BatchInputReportListener gets called from background thread attached to a {@link HidDevice}
+ * with all the input reports that were pending when the device became readable.
+ * <p>
+ * On Linux the reader drains the hidraw queue with non-blocking reads until
+ * there is nothing left and passes everything it got in one call, which
+ * saves a poll and a callback per report under load. The other backends
+ * receive reports one by one and deliver batches of one.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@FunctionalInterface
+public interface BatchInputReportListener {
+
+    /**
+     * This method gets called when input reports are received.
+     * <p>
+     * The batch is re-used for the next call, so do not keep a reference
+     * to it, instead process the data as quickly as possible and inside this call.
+     *
+     * @param source the HidDevice object that called this method
+     * @param batch  the reports in the order they were received
+     */
+    void onInputReports(HidDevice source, ReportBatch batch);
+}
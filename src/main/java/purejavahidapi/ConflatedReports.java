@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Keeps the latest report per report id, "latest value wins".
+ * <p>
+ * Every report id has a double-buffered slot that is published with a sequence
+ * counter (a seqlock). The single writer is the thread that reads the device, it
+ * fills the buffer that is not the current one and then bumps the sequence, so
+ * any number of readers can copy a consistent snapshot whenever they like
+ * without locks. A reader only retries if the writer went round both buffers
+ * while it was copying.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+final class ConflatedReports {
+
+    private static final class Slot {
+
+        final ByteBuffer[] m_Buffers = new ByteBuffer[2];
+        final int[] m_Lengths = new int[2];
+        final long[] m_Timestamps = new long[2];
+        final int m_Size;
+        /** the sequence number the writer is writing */
+        volatile long m_Started;
+        /** the sequence number of the latest complete report, 0 if none */
+        volatile long m_Sequence;
+
+        Slot(int size) {
+            m_Size = Math.max(size, 1);
+            m_Buffers[0] = ByteBuffer.allocateDirect(m_Size);
+            m_Buffers[1] = ByteBuffer.allocateDirect(m_Size);
+        }
+    }
+
+    private final HidDevice m_Device;
+    private final AtomicReferenceArray<Slot> m_Slots = new AtomicReferenceArray<>(256);
+
+    /** @param device the slots are sized by {@link HidDevice#getInputReportLength(int)} */
+    ConflatedReports(HidDevice device) {
+        m_Device = device;
+    }
+
+    /** Called by the reader stage, replaces the latest report of the id. */
+    void publish(int reportId, ByteBuffer report, long timestamp) {
+        int index = reportId & 0xff;
+        Slot slot = m_Slots.get(index);
+        if (slot == null) {
+            // the first report of this id, the only allocation
+            slot = new Slot(Math.max(m_Device.getInputReportLength(index), report.remaining()));
+            m_Slots.set(index, slot);
+        }
+        long sequence = slot.m_Sequence + 1;
+        slot.m_Started = sequence;
+        VarHandle.releaseFence(); // no data store before the start mark
+        int i = (int) sequence & 1;
+        int length = Math.min(report.remaining(), slot.m_Size);
+        slot.m_Buffers[i].put(0, report, report.position(), length);
+        slot.m_Lengths[i] = length;
+        slot.m_Timestamps[i] = timestamp;
+        slot.m_Sequence = sequence;
+    }
+
+    /** @return the sequence number of the latest report of the id, 0 if none arrived yet */
+    long getSequence(int reportId) {
+        Slot slot = m_Slots.get(reportId & 0xff);
+        return slot != null ? slot.m_Sequence : 0;
+    }
+
+    /**
+     * Copies the latest report of the id into dst.
+     *
+     * @param timestamp receives the timestamp of the copied report at index 0, may be null
+     * @return the sequence number of the copied report, 0 if none arrived yet
+     */
+    long read(int reportId, ByteBuffer dst, long[] timestamp) {
+        Slot slot = m_Slots.get(reportId & 0xff);
+        if (slot == null)
+            return 0;
+        int position = dst.position();
+        while (true) {
+            long sequence = slot.m_Sequence;
+            if (sequence == 0)
+                return 0;
+            int i = (int) sequence & 1;
+            int length = Math.min(Math.min(slot.m_Lengths[i], slot.m_Size), dst.remaining());
+            dst.put(position, slot.m_Buffers[i], 0, length);
+            long time = slot.m_Timestamps[i];
+            VarHandle.acquireFence(); // no data load after the check
+            if (slot.m_Started - sequence < 2) {
+                // the writer has not come back to this buffer, the copy is consistent
+                dst.position(position + length);
+                if (timestamp != null)
+                    timestamp[0] = time;
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
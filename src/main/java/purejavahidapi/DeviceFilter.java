@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.util.Objects;
+
+
+/**
+ * Which devices {@link PureJavaHidApi#enumerateDevices(DeviceFilter)} returns.
+ * <p>
+ * A device matches if it matches every predicate set, {@link #any()} has none.
+ * Backends that can check a predicate while enumerating do so before the
+ * rest of the device is looked up, the others filter the full list.
+ * <p>
+ * Instances are immutable.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class DeviceFilter {
+
+    /** the bus type of usb devices, see {@link HidDeviceInfo#getBusType()} */
+    public static final int BUS_USB = 0x03;
+    /** the bus type of bluetooth devices, see {@link HidDeviceInfo#getBusType()} */
+    public static final int BUS_BLUETOOTH = 0x05;
+
+    private static final int ANY = -1;
+
+    private static final DeviceFilter ANY_DEVICE = new DeviceFilter(ANY, ANY, ANY, ANY, ANY, null, null);
+
+    private final int m_VendorId;
+    private final int m_ProductId;
+    private final int m_UsagePage;
+    private final int m_UsageId;
+    private final int m_BusType;
+    private final String m_SerialNumber;
+    private final String m_PathGlob;
+
+    private DeviceFilter(int vendorId, int productId, int usagePage, int usageId, int busType, String serialNumber, String pathGlob) {
+        m_VendorId = vendorId;
+        m_ProductId = productId;
+        m_UsagePage = usagePage;
+        m_UsageId = usageId;
+        m_BusType = busType;
+        m_SerialNumber = serialNumber;
+        m_PathGlob = pathGlob;
+    }
+
+    /** @return the filter matching every device, what {@link PureJavaHidApi#enumerateDevices()} uses */
+    public static DeviceFilter any() {
+        return ANY_DEVICE;
+    }
+
+    /** @return a copy of this filter that also requires the 16 bit vendor id */
+    public DeviceFilter withVendorId(int vendorId) {
+        return new DeviceFilter(vendorId & 0xffff, m_ProductId, m_UsagePage, m_UsageId, m_BusType, m_SerialNumber, m_PathGlob);
+    }
+
+    /** @return a copy of this filter that also requires the 16 bit product id */
+    public DeviceFilter withProductId(int productId) {
+        return new DeviceFilter(m_VendorId, productId & 0xffff, m_UsagePage, m_UsageId, m_BusType, m_SerialNumber, m_PathGlob);
+    }
+
+    /**
+     * @param usagePage the usage page of the top level collection, e.g. 1 for generic desktop
+     * @return a copy of this filter that also requires the usage page, with any usage
+     */
+    public DeviceFilter withUsagePage(int usagePage) {
+        return new DeviceFilter(m_VendorId, m_ProductId, usagePage & 0xffff, ANY, m_BusType, m_SerialNumber, m_PathGlob);
+    }
+
+    /**
+     * @param usagePage the usage page of the top level collection, e.g. 1 for generic desktop
+     * @param usageId   the usage of the top level collection, e.g. 5 for game pad
+     * @return a copy of this filter that also requires the usage page and the usage
+     */
+    public DeviceFilter withUsage(int usagePage, int usageId) {
+        return new DeviceFilter(m_VendorId, m_ProductId, usagePage & 0xffff, usageId & 0xffff, m_BusType, m_SerialNumber, m_PathGlob);
+    }
+
+    /**
+     * @param busType e.g. {@link #BUS_USB}, devices whose backend does not know the bus never match
+     * @return a copy of this filter that also requires the bus type
+     */
+    public DeviceFilter withBusType(int busType) {
+        return new DeviceFilter(m_VendorId, m_ProductId, m_UsagePage, m_UsageId, busType & 0xffff, m_SerialNumber, m_PathGlob);
+    }
+
+    /** @return a copy of this filter that also requires the serial number to be equal */
+    public DeviceFilter withSerialNumber(String serialNumber) {
+        return new DeviceFilter(m_VendorId, m_ProductId, m_UsagePage, m_UsageId, m_BusType, Objects.requireNonNull(serialNumber), m_PathGlob);
+    }
+
+    /**
+     * @param glob matched against the whole {@link HidDeviceInfo#getPath()}, '*' is any
+     *             number of characters, '?' one character, e.g. "/sys/devices/pci0000:00/*"
+     * @return a copy of this filter that also requires the path to match
+     */
+    public DeviceFilter withPath(String glob) {
+        return new DeviceFilter(m_VendorId, m_ProductId, m_UsagePage, m_UsageId, m_BusType, m_SerialNumber, Objects.requireNonNull(glob));
+    }
+
+    /** @return true if every device matches */
+    public boolean isAny() {
+        return m_VendorId == ANY && m_ProductId == ANY && m_UsagePage == ANY && m_UsageId == ANY && m_BusType == ANY &&
+                m_SerialNumber == null && m_PathGlob == null;
+    }
+
+    /** @return true if the device matches every predicate of this filter */
+    public boolean matches(HidDeviceInfo info) {
+        return matchesBusType(info.getBusType()) &&
+                matchesIds(info.getVendorId(), info.getProductId()) &&
+                matchesUsage(info.getUsagePage(), info.getUsageId()) &&
+                matchesSerialNumber(info.getSerialNumberString()) &&
+                matchesPath(info.getPath());
+    }
+
+    /** for the backends, checks the bus type alone */
+    public boolean matchesBusType(int busType) {
+        return m_BusType == ANY || m_BusType == (busType & 0xffff);
+    }
+
+    /** for the backends, checks the vendor and the product id alone */
+    public boolean matchesIds(int vendorId, int productId) {
+        return (m_VendorId == ANY || m_VendorId == (vendorId & 0xffff)) &&
+                (m_ProductId == ANY || m_ProductId == (productId & 0xffff));
+    }
+
+    /** for the backends, checks the top level usage alone */
+    public boolean matchesUsage(int usagePage, int usageId) {
+        return (m_UsagePage == ANY || m_UsagePage == (usagePage & 0xffff)) &&
+                (m_UsageId == ANY || m_UsageId == (usageId & 0xffff));
+    }
+
+    /** for the backends, checks the serial number alone */
+    public boolean matchesSerialNumber(String serialNumber) {
+        return m_SerialNumber == null || m_SerialNumber.equals(serialNumber);
+    }
+
+    /** for the backends, checks the path alone */
+    public boolean matchesPath(String path) {
+        return m_PathGlob == null || (path != null && glob(m_PathGlob, 0, path, 0));
+    }
+
+    /** '*' and '?' only, no escapes, no brackets */
+    private static boolean glob(String glob, int g, String s, int i) {
+        while (g < glob.length()) {
+            char c = glob.charAt(g);
+            if (c == '*') {
+                while (g < glob.length() && glob.charAt(g) == '*')
+                    g++;
+                if (g == glob.length())
+                    return true;
+                for (int j = i; j <= s.length(); j++) {
+                    if (glob(glob, g, s, j))
+                        return true;
+                }
+                return false;
+            }
+            if (i == s.length() || (c != '?' && c != s.charAt(i)))
+                return false;
+            g++;
+            i++;
+        }
+        return i == s.length();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DeviceFilter{");
+        if (m_VendorId != ANY)
+            sb.append(String.format("vendorId=0x%04x, ", m_VendorId));
+        if (m_ProductId != ANY)
+            sb.append(String.format("productId=0x%04x, ", m_ProductId));
+        if (m_UsagePage != ANY)
+            sb.append(String.format("usagePage=0x%04x, ", m_UsagePage));
+        if (m_UsageId != ANY)
+            sb.append(String.format("usageId=0x%04x, ", m_UsageId));
+        if (m_BusType != ANY)
+            sb.append(String.format("busType=0x%04x, ", m_BusType));
+        if (m_SerialNumber != null)
+            sb.append("serialNumber=").append(m_SerialNumber).append(", ");
+        if (m_PathGlob != null)
+            sb.append("path=").append(m_PathGlob).append(", ");
+        if (sb.charAt(sb.length() - 1) == ' ')
+            sb.setLength(sb.length() - 2);
+        return sb.append('}').toString();
+    }
+}
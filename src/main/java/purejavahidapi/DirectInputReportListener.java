@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * A DirectInputReportListener gets called from background thread attached to a {@link HidDevice}
+ * every time an input report is received, like {@link InputReportListener} but
+ * without copying the report into a heap array.
+ * <p>
+ * The report is a read-only view of the buffer the backend read the report into,
+ * it is positioned at the first data byte (after the report id if numbered reports
+ * are used) and its limit is the end of the report.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@FunctionalInterface
+public interface DirectInputReportListener {
+
+    /**
+     * This method gets called when an input report is received.
+     * <p>
+     * The buffer is re-used for the next report, so do not keep a reference
+     * to it, instead process the data as quickly as possible and inside this call.
+     *
+     * @param source   the HidDevice object that called this method
+     * @param reportId the report id number if used or zero
+     * @param report   a read-only view of the report data between position and limit
+     */
+    void onInputReport(HidDevice source, int reportId, ByteBuffer report);
+
+    /**
+     * This method is what the {@link HidDevice} calls, by default it drops the
+     * timestamp and calls {@link #onInputReport(HidDevice, int, ByteBuffer)}.
+     * Implement {@link TimestampedDirectInputReportListener} to get the time the
+     * report was read.
+     *
+     * @param source    the HidDevice object that called this method
+     * @param reportId  the report id number if used or zero
+     * @param report    a read-only view of the report data between position and limit
+     * @param timestamp the {@link System#nanoTime()} taken right after the report was read from the operating system
+     */
+    default void onInputReport(HidDevice source, int reportId, ByteBuffer report, long timestamp) {
+        onInputReport(source, reportId, report);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * The two stage delivery of input reports.
+ * <p>
+ * The reader stage ({@link #offer}) only copies the report into one of a fixed
+ * number of preallocated slots and returns, the dispatcher stage takes the
+ * reports out one by one in order and calls the listeners of the device, either
+ * on a dedicated thread or as a task on an {@link Executor}. There is never more
+ * than one dispatcher task running, so the listeners are called serially.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+final class DispatchStage implements Runnable {
+
+    private static final Logger logger = Logger.getLogger(DispatchStage.class.getName());
+
+    private final HidDevice m_Device;
+    private final OverflowPolicy m_Policy;
+    private final Executor m_Executor;
+    private final int m_Capacity;
+    private final int m_SlotSize;
+    private final ByteBuffer m_Slots;
+    private final int[] m_ReportIds;
+    private final int[] m_Lengths;
+    private final long[] m_Timestamps;
+    /** sequence number of the queued report per report id, {@link OverflowPolicy#CONFLATE} only */
+    private final long[] m_QueuedByReportId = new long[256];
+    /** the dispatcher's own copy of the report being delivered */
+    private final ByteBuffer m_Delivery;
+    private final ByteBuffer m_DeliveryView;
+    private long m_DeliveryTimestamp;
+    private final ReentrantLock m_Lock = new ReentrantLock();
+    private final Condition m_NotEmpty = m_Lock.newCondition();
+    private final Condition m_NotFull = m_Lock.newCondition();
+    private final Thread m_Thread;
+    /** the thread running {@link #run()} on the executor, null while no task runs */
+    private volatile Thread m_Dispatcher;
+    private long m_Head;
+    private long m_Tail;
+    private boolean m_Scheduled;
+    private boolean m_Closed;
+
+    private long m_Queued;
+    private long m_Delivered;
+    private long m_Blocked;
+    private long m_DroppedOldest;
+    private long m_DroppedNewest;
+    private long m_Conflated;
+
+    /**
+     * @param device   the device whose listeners are called
+     * @param capacity the number of slots
+     * @param slotSize the number of bytes per slot, longer reports are truncated
+     * @param policy   what to do when all slots are taken
+     * @param executor runs the dispatcher, null for a dedicated thread
+     */
+    DispatchStage(HidDevice device, int capacity, int slotSize, OverflowPolicy policy, Executor executor) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity: " + capacity);
+        m_Device = device;
+        m_Policy = policy;
+        m_Executor = executor;
+        m_Capacity = capacity;
+        m_SlotSize = Math.max(slotSize, 1);
+        m_Slots = ByteBuffer.allocateDirect(m_Capacity * m_SlotSize);
+        m_ReportIds = new int[m_Capacity];
+        m_Lengths = new int[m_Capacity];
+        m_Timestamps = new long[m_Capacity];
+        m_Delivery = ByteBuffer.allocateDirect(m_SlotSize);
+        m_DeliveryView = m_Delivery.asReadOnlyBuffer();
+        Arrays.fill(m_QueuedByReportId, -1);
+
+        if (executor == null) {
+            HidDeviceInfo info = device.getHidDeviceInfo();
+            m_Thread = new Thread(this::runDispatcher, "dispatcher " + (info != null ? info.getPath() : ""));
+            m_Thread.setDaemon(true);
+            m_Thread.start();
+        } else {
+            m_Thread = null;
+        }
+    }
+
+    /** Called by the reader stage for every report. */
+    void offer(int reportId, ByteBuffer report, long timestamp) {
+        boolean schedule = false;
+        m_Lock.lock();
+        try {
+            if (m_Closed)
+                return;
+            if (m_Policy == OverflowPolicy.CONFLATE) {
+                long queued = m_QueuedByReportId[reportId & 0xff];
+                if (queued >= m_Head) {
+                    copyIn((int) (queued % m_Capacity), reportId, report, timestamp);
+                    m_Conflated++;
+                    return;
+                }
+            }
+            if (m_Tail - m_Head >= m_Capacity) {
+                switch (m_Policy) {
+                case BLOCK:
+                    m_Blocked++;
+                    try {
+                        while (m_Tail - m_Head >= m_Capacity && !m_Closed)
+                            m_NotFull.await();
+                    } catch (InterruptedException e) {
+                        // the reader is being stopped, the report is dropped
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (m_Closed)
+                        return;
+                    break;
+                case DROP_NEWEST:
+                    m_DroppedNewest++;
+                    return;
+                case DROP_OLDEST:
+                case CONFLATE:
+                    m_Head++;
+                    m_DroppedOldest++;
+                    break;
+                }
+            }
+            copyIn((int) (m_Tail % m_Capacity), reportId, report, timestamp);
+            if (m_Policy == OverflowPolicy.CONFLATE)
+                m_QueuedByReportId[reportId & 0xff] = m_Tail;
+            m_Tail++;
+            m_Queued++;
+            if (m_Executor == null) {
+                m_NotEmpty.signal();
+            } else if (!m_Scheduled) {
+                m_Scheduled = true;
+                schedule = true;
+            }
+        } finally {
+            m_Lock.unlock();
+        }
+        if (schedule) {
+            try {
+                m_Executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                m_Lock.lock();
+                try {
+                    m_Scheduled = false;
+                } finally {
+                    m_Lock.unlock();
+                }
+                logger.log(Level.WARNING, "dispatcher rejected", e);
+            }
+        }
+    }
+
+    /** must be called while holding {@link #m_Lock} */
+    private void copyIn(int slot, int reportId, ByteBuffer report, long timestamp) {
+        int length = Math.min(report.remaining(), m_SlotSize);
+        m_Slots.put(slot * m_SlotSize, report, report.position(), length);
+        m_ReportIds[slot] = reportId;
+        m_Lengths[slot] = length;
+        m_Timestamps[slot] = timestamp;
+    }
+
+    /**
+     * must be called while holding {@link #m_Lock}, copies the oldest report
+     * into {@link #m_Delivery} and its timestamp into {@link #m_DeliveryTimestamp}
+     *
+     * @return the report id
+     */
+    private int takeOut() {
+        int slot = (int) (m_Head % m_Capacity);
+        int length = m_Lengths[slot];
+        m_Delivery.put(0, m_Slots, slot * m_SlotSize, length);
+        m_DeliveryView.clear().limit(length);
+        m_DeliveryTimestamp = m_Timestamps[slot];
+        m_Head++;
+        m_Delivered++;
+        m_NotFull.signal();
+        return m_ReportIds[slot];
+    }
+
+    private void deliver(int reportId) {
+        try {
+            m_Device.deliverInputReport(reportId, m_DeliveryView, m_DeliveryTimestamp);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "listener failed", e);
+        }
+    }
+
+    /** the executor task, drains the queue and ends */
+    @Override
+    public void run() {
+        m_Dispatcher = Thread.currentThread();
+        try {
+            while (true) {
+                int reportId;
+                m_Lock.lock();
+                try {
+                    if (m_Head == m_Tail || m_Closed) {
+                        m_Scheduled = false;
+                        return;
+                    }
+                    reportId = takeOut();
+                } finally {
+                    m_Lock.unlock();
+                }
+                deliver(reportId);
+            }
+        } finally {
+            m_Dispatcher = null;
+        }
+    }
+
+    /** @return true if the current thread is the one calling the listeners */
+    boolean isDispatcherThread() {
+        Thread current = Thread.currentThread();
+        return current == m_Thread || current == m_Dispatcher;
+    }
+
+    /** the dedicated thread */
+    private void runDispatcher() {
+        while (true) {
+            int reportId;
+            m_Lock.lock();
+            try {
+                while (m_Head == m_Tail && !m_Closed)
+                    m_NotEmpty.awaitUninterruptibly();
+                if (m_Closed)
+                    return;
+                reportId = takeOut();
+            } finally {
+                m_Lock.unlock();
+            }
+            deliver(reportId);
+        }
+    }
+
+    DispatchStatistics getStatistics() {
+        m_Lock.lock();
+        try {
+            return new DispatchStatistics(m_Policy, m_Queued, m_Delivered, m_Blocked, m_DroppedOldest, m_DroppedNewest, m_Conflated);
+        } finally {
+            m_Lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the dispatcher, reports still queued are discarded. A reader waiting
+     * for a free slot with {@link OverflowPolicy#BLOCK} returns at once, so
+     * backends call this before they wait for their reader to stop.
+     */
+    void close() {
+        m_Lock.lock();
+        try {
+            m_Closed = true;
+            m_NotEmpty.signalAll();
+            m_NotFull.signalAll();
+        } finally {
+            m_Lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+/**
+ * A snapshot of the counters of a dispatch stage.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ * @see HidDevice#getDispatchStatistics()
+ */
+public final class DispatchStatistics {
+
+    private final OverflowPolicy m_Policy;
+    private final long m_Queued;
+    private final long m_Delivered;
+    private final long m_Blocked;
+    private final long m_DroppedOldest;
+    private final long m_DroppedNewest;
+    private final long m_Conflated;
+
+    DispatchStatistics(OverflowPolicy policy, long queued, long delivered, long blocked, long droppedOldest, long droppedNewest, long conflated) {
+        m_Policy = policy;
+        m_Queued = queued;
+        m_Delivered = delivered;
+        m_Blocked = blocked;
+        m_DroppedOldest = droppedOldest;
+        m_DroppedNewest = droppedNewest;
+        m_Conflated = conflated;
+    }
+
+    /** @return the overflow policy of the stage */
+    public OverflowPolicy getPolicy() {
+        return m_Policy;
+    }
+
+    /** @return the number of reports the reader stage put into the queue */
+    public long getQueued() {
+        return m_Queued;
+    }
+
+    /** @return the number of reports passed to the listeners */
+    public long getDelivered() {
+        return m_Delivered;
+    }
+
+    /** @return the number of times the reader had to wait for a free slot, {@link OverflowPolicy#BLOCK} */
+    public long getBlocked() {
+        return m_Blocked;
+    }
+
+    /** @return the number of queued reports discarded to make room, {@link OverflowPolicy#DROP_OLDEST} and {@link OverflowPolicy#CONFLATE} */
+    public long getDroppedOldest() {
+        return m_DroppedOldest;
+    }
+
+    /** @return the number of reports discarded because the queue was full, {@link OverflowPolicy#DROP_NEWEST} */
+    public long getDroppedNewest() {
+        return m_DroppedNewest;
+    }
+
+    /** @return the number of queued reports overwritten by a newer one with the same id, {@link OverflowPolicy#CONFLATE} */
+    public long getConflated() {
+        return m_Conflated;
+    }
+
+    @Override
+    public String toString() {
+        return m_Policy + " [queued=" + m_Queued + ", delivered=" + m_Delivered + ", blocked=" + m_Blocked +
+                ", droppedOldest=" + m_DroppedOldest + ", droppedNewest=" + m_DroppedNewest + ", conflated=" + m_Conflated + "]";
+    }
+}
@@ -30,6 +30,19 @@
 
 package purejavahidapi;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import purejavahidapi.shared.DeviceCounters;
+import purejavahidapi.shared.Histogram;
+import purejavahidapi.shared.OutputReportQueue;
+import purejavahidapi.shared.ReportDescriptor;
 
 /**
  * Instances of HidDevice represent a single physical USB HID device that has
@@ -42,21 +55,105 @@ package purejavahidapi;
  * Each HidDevice instance creates an internal background thread to perform some
  * work in the background. This thread may keep an application that uses
  * PureJavaHidApi from exiting if the device is not closed before the
- * application tries to exit.
+ * application tries to exit. A device opened with {@link OpenOptions#syncRead()}
+ * has no such thread, it is read with {@link #read(ByteBuffer, long)}.
  * <p>
  *
  * @author nyholku
  */
 abstract public class HidDevice {
 
-    protected boolean m_Open;
+    protected volatile boolean m_Open;
     protected InputReportListener m_InputReportListener;
+    protected DirectInputReportListener m_DirectInputReportListener;
+    protected BatchInputReportListener m_BatchInputReportListener;
+    /** {@link #m_InputReportListener} layered on the direct dispatch path */
+    private InputReportListenerAdapter m_InputReportListenerAdapter;
+    /** wraps single reports for {@link #m_BatchInputReportListener} */
+    private final ReportBatch m_SingleReportBatch = new ReportBatch(1);
     protected DeviceRemovalListener m_DeviceRemovalListener;
     protected HidDeviceInfo m_HidDeviceInfo;
+    /** the longest input report in bytes not including the report id, 0 if unknown */
+    protected int m_MaxInputReportLength;
+    /** the parsed report descriptor, null if the backend does not read it */
+    protected ReportDescriptor m_ReportDescriptor;
+    /** the pull mode queue, created by {@link #setReportRingCapacity(int)} or the first read */
+    private volatile ReportRing m_ReportRing;
+    /** the decoupled listener stage, null if the listeners are called by the reader */
+    private volatile DispatchStage m_DispatchStage;
+    /** the latest report per report id, null if conflation is off */
+    private volatile ConflatedReports m_ConflatedReports;
+    /** the I/O counters, updated by this class and the backends */
+    protected final DeviceCounters m_Counters = new DeviceCounters(this);
+    /** whether the thread options could be applied to the reader thread */
+    protected volatile ThreadSetupResult m_ThreadSetupResult = ThreadSetupResult.NONE;
+    /** null if the latency is not recorded */
+    private volatile LatencyHistograms m_LatencyHistograms;
+
+    /** the queue of {@link #setOutputReportAsync}, created by the first call */
+    private volatile OutputReportQueue m_OutputReportQueue;
+    /** the copy of a ByteBuffer report for the platforms that only take arrays, grows to the longest report */
+    private byte[] m_ReportData = new byte[0];
+
+    /** the number of output reports {@link #setOutputReportAsync} queues per device */
+    protected static final int OUTPUT_REPORT_QUEUE_CAPACITY = 32;
+
+    /**
+     * writes the queued output reports of every device, one writer at a time per device, so that
+     * neither a reader thread nor a shared reactor thread waits for a slow device
+     */
+    private static final Executor m_OutputReportWriter = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "purejavahidapi-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** runs {@link #close()} for the backends that cannot close without blocking */
+    private static final Executor m_Closer = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "purejavahidapi-closer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** the report ring capacity used if the first read comes before {@link #setReportRingCapacity(int)} */
+    private static final int DEFAULT_REPORT_RING_CAPACITY = 64;
 
     /** @see #m_Open */
     public abstract void open();
 
+    /**
+     * This method tells whether the scheduling policy and the cpu affinity of
+     * {@link ThreadOptions} could be applied to the thread that reads this
+     * device, for a device read by a shared reactor that is the reactor thread.
+     * Only the Linux backend applies them, the others always tell
+     * {@link ThreadSetupResult.Outcome#NOT_REQUESTED}.
+     *
+     * @return the outcome, known once {@link #open()} has returned
+     */
+    public ThreadSetupResult getThreadSetupResult() {
+        return m_ThreadSetupResult;
+    }
+
+    /**
+     * This method reads one input report on the calling thread, the equivalent
+     * of hidapi#hid_read_timeout.
+     * <p>
+     * Only devices opened with {@link OpenOptions#syncRead()} can be read this
+     * way, the listeners of such devices are never called. The data is what the
+     * device sent, preceded with the report number if numbered reports are used.
+     * A report longer than the remaining space is truncated.
+     * <p>
+     * The device must not be closed while another thread is in this method.
+     *
+     * @param data          receives the report from its position, the position is advanced past it
+     * @param timeoutMillis how long to wait for a report, 0 does not wait, negative waits forever
+     * @return the number of bytes put into data, 0 if there was no report in time, -1 if the read failed
+     * @throws IllegalStateException if the device is not open or not opened with {@link OpenOptions#syncRead()}
+     */
+    public int read(ByteBuffer data, long timeoutMillis) {
+        throw new IllegalStateException("device not opened with OpenOptions.syncRead()");
+    }
+
     /**
      * This method sets the input report listener for this device.
      * <p>
@@ -76,6 +173,7 @@ abstract public class HidDevice {
      */
     public void setInputReportListener(InputReportListener listener) {
         m_InputReportListener = listener;
+        m_InputReportListenerAdapter = listener != null ? new InputReportListenerAdapter(listener, m_MaxInputReportLength) : null;
     }
 
     /**
@@ -87,6 +185,501 @@ abstract public class HidDevice {
         return m_InputReportListener;
     }
 
+    /**
+     * This method returns the length of the longest input report of this device.
+     * <p>
+     * On Linux this is derived from the Input items of the report descriptor, on
+     * the other platforms it is what the operating system reports.
+     *
+     * @return the length in bytes not including the report id or 0 if unknown
+     */
+    public int getMaxInputReportLength() {
+        return m_MaxInputReportLength;
+    }
+
+    /**
+     * This method returns the length of the input report with the given id.
+     * <p>
+     * If the backend does not know the lengths per report id the length of the
+     * longest report is returned.
+     *
+     * @param reportId the report id, 0 if numbered reports are not used
+     * @return the length in bytes not including the report id or 0 if unknown
+     */
+    public int getInputReportLength(int reportId) {
+        if (m_ReportDescriptor != null) {
+            int length = m_ReportDescriptor.getReportLength(ReportDescriptor.INPUT, reportId);
+            if (length > 0)
+                return length;
+        }
+        return m_MaxInputReportLength;
+    }
+
+    /**
+     * This method sets the direct input report listener for this device.
+     * <p>
+     * The direct listener receives a read-only view of the buffer the report was
+     * read into instead of a heap copy. It is called before the
+     * {@link InputReportListener} if both are set.
+     * <p>
+     * Like the {@link InputReportListener} it is called from an internal
+     * background thread.
+     *
+     * @param listener the listener object or null to un-set
+     */
+    public void setDirectInputReportListener(DirectInputReportListener listener) {
+        m_DirectInputReportListener = listener;
+    }
+
+    /**
+     * This method returns the direct input report listener for this device
+     *
+     * @return the direct input report listener
+     */
+    public DirectInputReportListener getDirectInputReportListener() {
+        return m_DirectInputReportListener;
+    }
+
+    /**
+     * This method sets the batch input report listener for this device.
+     * <p>
+     * On Linux setting a batch listener switches the reader to batch-drain mode,
+     * every wakeup reads all pending reports and passes them in one call.
+     * The other listeners still get the reports one by one after the batch
+     * listener returns.
+     *
+     * @param listener the listener object or null to un-set
+     */
+    public void setBatchInputReportListener(BatchInputReportListener listener) {
+        m_BatchInputReportListener = listener;
+    }
+
+    /**
+     * This method returns the batch input report listener for this device
+     *
+     * @return the batch input report listener
+     */
+    public BatchInputReportListener getBatchInputReportListener() {
+        return m_BatchInputReportListener;
+    }
+
+    /**
+     * This method puts a dispatch stage between the internal background thread
+     * that reads the device and the listeners.
+     * <p>
+     * With a dispatch stage the reader only copies each report into one of
+     * capacity preallocated slots and goes back to reading, the listeners are
+     * called on a dedicated thread or by tasks run on the given executor, so a
+     * slow listener does not keep the reader from emptying the operating system
+     * buffer. The listeners are still called one report at a time in the order the
+     * reports were received. The {@link BatchInputReportListener} gets batches of one.
+     * <p>
+     * To deliver on virtual threads pass {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     * <p>
+     * The report ring of {@link #readReport} is filled by the reader as before.
+     *
+     * @param capacity the number of reports that can be queued, 0 to remove the stage
+     * @param policy   what to do with a report when the queue is full
+     * @param executor runs the listeners, null for a dedicated thread
+     * @see #getDispatchStatistics()
+     */
+    public void setDispatchStage(int capacity, OverflowPolicy policy, Executor executor) {
+        DispatchStage old = m_DispatchStage;
+        m_DispatchStage = capacity > 0 ? new DispatchStage(this, capacity, getMaxInputReportLength(), policy, executor) : null;
+        if (old != null)
+            old.close();
+    }
+
+    /**
+     * Backends that wait for their background thread in {@link #close()} must
+     * not do so on a thread the listeners are called on by the dispatch stage.
+     *
+     * @return true if the current thread is the dispatcher of the dispatch stage
+     */
+    protected boolean isDispatcherThread() {
+        DispatchStage stage = m_DispatchStage;
+        return stage != null && stage.isDispatcherThread();
+    }
+
+    /**
+     * This method returns the counters of the dispatch stage.
+     *
+     * @return a snapshot of the counters or null if there is no dispatch stage
+     */
+    public DispatchStatistics getDispatchStatistics() {
+        DispatchStage stage = m_DispatchStage;
+        return stage != null ? stage.getStatistics() : null;
+    }
+
+    /**
+     * Backends call this method for every input report they receive.
+     * <p>
+     * The report is passed as it is to the {@link DirectInputReportListener}
+     * and copied once for the {@link InputReportListener}.
+     *
+     * @param reportId  the report id number if used or zero
+     * @param report    the report data between position and limit, without the report id
+     * @param timestamp the {@link System#nanoTime()} taken right after the report was read from the operating system
+     */
+    protected void dispatchInputReport(int reportId, ByteBuffer report, long timestamp) {
+        m_Counters.reportRead(report.remaining());
+        ReportRing ring = m_ReportRing;
+        if (ring != null)
+            ring.offer(reportId, report, timestamp);
+        ConflatedReports conflated = m_ConflatedReports;
+        if (conflated != null)
+            conflated.publish(reportId, report, timestamp);
+        DispatchStage stage = m_DispatchStage;
+        if (stage != null)
+            stage.offer(reportId, report, timestamp);
+        else
+            deliverInputReport(reportId, report, timestamp);
+    }
+
+    /**
+     * Backends that read several reports per wakeup call this method instead
+     * of {@link #dispatchInputReport(int, ByteBuffer, long)}.
+     *
+     * @param batch the reports in the order they were received
+     */
+    protected void dispatchInputReports(ReportBatch batch) {
+        for (int i = 0; i < batch.size(); i++)
+            m_Counters.reportRead(batch.getReport(i).remaining());
+        ReportRing ring = m_ReportRing;
+        ConflatedReports conflated = m_ConflatedReports;
+        DispatchStage stage = m_DispatchStage;
+        if (ring != null || conflated != null || stage != null) {
+            for (int i = 0; i < batch.size(); i++) {
+                int reportId = batch.getReportId(i);
+                ByteBuffer report = batch.getReport(i);
+                long timestamp = batch.getTimestamp(i);
+                if (ring != null)
+                    ring.offer(reportId, report, timestamp);
+                if (conflated != null)
+                    conflated.publish(reportId, report, timestamp);
+                if (stage != null)
+                    stage.offer(reportId, report, timestamp);
+            }
+            if (stage != null)
+                return;
+        }
+        LatencyHistograms histograms = m_LatencyHistograms;
+        long start = 0;
+        if (histograms != null) {
+            start = System.nanoTime();
+            for (int i = 0; i < batch.size(); i++)
+                histograms.getReadToListener().record(start - batch.getTimestamp(i));
+        }
+        BatchInputReportListener batchListener = m_BatchInputReportListener;
+        if (batchListener != null) {
+            batchListener.onInputReports(this, batch);
+            if (histograms != null)
+                start = recordSince(histograms.getBatchListener(), start);
+        }
+        boolean reportListeners = m_DirectInputReportListener != null || m_InputReportListenerAdapter != null;
+        for (int i = 0; i < batch.size(); i++) {
+            dispatchToReportListeners(batch.getReportId(i), batch.getReport(i), batch.getTimestamp(i));
+            // every call on its own, an average over the batch would hide a slow one
+            if (histograms != null && reportListeners)
+                start = recordSince(histograms.getListener(), start);
+        }
+    }
+
+    /** @return now, the start of the next measurement */
+    private static long recordSince(Histogram histogram, long start) {
+        long now = System.nanoTime();
+        histogram.record(now - start);
+        return now;
+    }
+
+    /** calls the listeners for one report, on the reader or on the dispatcher */
+    void deliverInputReport(int reportId, ByteBuffer report, long timestamp) {
+        LatencyHistograms histograms = m_LatencyHistograms;
+        long start = 0;
+        if (histograms != null) {
+            start = System.nanoTime();
+            histograms.getReadToListener().record(start - timestamp);
+        }
+        BatchInputReportListener batchListener = m_BatchInputReportListener;
+        if (batchListener != null) {
+            m_SingleReportBatch.clear();
+            m_SingleReportBatch.add(reportId, report, timestamp);
+            batchListener.onInputReports(this, m_SingleReportBatch);
+            if (histograms != null)
+                start = recordSince(histograms.getBatchListener(), start);
+        }
+        dispatchToReportListeners(reportId, report, timestamp);
+        if (histograms != null && (m_DirectInputReportListener != null || m_InputReportListenerAdapter != null))
+            recordSince(histograms.getListener(), start);
+    }
+
+    private void dispatchToReportListeners(int reportId, ByteBuffer report, long timestamp) {
+        DirectInputReportListener directListener = m_DirectInputReportListener;
+        InputReportListenerAdapter adapter = m_InputReportListenerAdapter;
+        if (directListener != null) {
+            int position = report.position();
+            int limit = report.limit();
+            directListener.onInputReport(this, reportId, report, timestamp);
+            report.limit(limit).position(position);
+        }
+        if (adapter != null)
+            adapter.onInputReport(this, reportId, report, timestamp);
+    }
+
+    /**
+     * This method sets up the report ring used by {@link #readReport} and {@link #pollReport}.
+     * <p>
+     * The ring is filled by the internal background thread next to the listeners,
+     * it holds the given number of reports of {@link #getMaxInputReportLength()}
+     * bytes each. When it is full newer reports are dropped and counted, see
+     * {@link #getReportRingOverruns()}.
+     * <p>
+     * Reports queued in a previous ring are discarded.
+     *
+     * @param capacity the number of reports, a power of two up to 2<sup>20</sup>, or 0 to remove the ring
+     * @throws IllegalArgumentException if the capacity is not a power of two or is too large
+     */
+    public void setReportRingCapacity(int capacity) {
+        ReportRing old = m_ReportRing;
+        m_ReportRing = capacity > 0 ? new ReportRing(capacity, getMaxInputReportLength()) : null;
+        if (old != null)
+            old.close();
+    }
+
+    /**
+     * This method returns the capacity of the report ring
+     *
+     * @return the number of reports the ring holds or 0 if there is no ring
+     */
+    public int getReportRingCapacity() {
+        ReportRing ring = m_ReportRing;
+        return ring != null ? ring.capacity() : 0;
+    }
+
+    /**
+     * This method returns the number of reports dropped because the report ring was full.
+     *
+     * @return the number of dropped reports since the ring was set up
+     */
+    public long getReportRingOverruns() {
+        ReportRing ring = m_ReportRing;
+        return ring != null ? ring.getOverruns() : 0;
+    }
+
+    /**
+     * This method takes the oldest report from the report ring, waiting up to
+     * the timeout for one to arrive.
+     * <p>
+     * This is the pull alternative to the listeners, the report ring is created
+     * with a capacity of 64 reports on the first call if
+     * {@link #setReportRingCapacity(int)} has not been called, reports received
+     * before that are not available.
+     * <p>
+     * Only one thread at a time may read from the ring. No locks are taken and
+     * nothing is allocated per report.
+     * <p>
+     * The report data without the report id is copied into dst starting at its
+     * position which is advanced by the number of bytes copied, if dst has less
+     * remaining space than the report the rest of the report is discarded.
+     *
+     * @param dst     the buffer to copy the report data into
+     * @param timeout the time to wait, zero or negative not to wait at all
+     * @param unit    the unit of the timeout
+     * @return the report id number if used or zero, -1 if no report arrived in time or the device was closed while waiting
+     * @throws InterruptedException if the calling thread was interrupted while waiting
+     * @throws IllegalStateException if the device is not open
+     */
+    public int readReport(ByteBuffer dst, long timeout, TimeUnit unit) throws InterruptedException {
+        return getReportRing().take(dst, unit.toNanos(timeout));
+    }
+
+    /**
+     * This method takes the oldest report from the report ring without waiting.
+     *
+     * @param dst the buffer to copy the report data into
+     * @return the report id number if used or zero, -1 if there was no report
+     * @throws IllegalStateException if the device is not open
+     * @see #readReport(ByteBuffer, long, TimeUnit)
+     */
+    public int pollReport(ByteBuffer dst) {
+        return getReportRing().poll(dst);
+    }
+
+    /**
+     * This method returns the time the report last taken by {@link #readReport}
+     * or {@link #pollReport} was read from the operating system.
+     * <p>
+     * Call it from the thread that reads the ring.
+     *
+     * @return the {@link System#nanoTime()} taken right after the report was read, 0 if none was taken yet
+     */
+    public long getLastReportTimestamp() {
+        ReportRing ring = m_ReportRing;
+        return ring != null ? ring.getLastTimestamp() : 0;
+    }
+
+    private ReportRing getReportRing() {
+        if (!m_Open)
+            throw new IllegalStateException("device not open");
+        ReportRing ring = m_ReportRing;
+        if (ring == null) {
+            synchronized (this) {
+                ring = m_ReportRing;
+                if (ring == null)
+                    m_ReportRing = ring = new ReportRing(DEFAULT_REPORT_RING_CAPACITY, getMaxInputReportLength());
+            }
+        }
+        return ring;
+    }
+
+    /**
+     * This method turns the conflating delivery mode on or off.
+     * <p>
+     * In conflating mode the internal background thread keeps only the latest
+     * report per report id, in a double-buffered slot sized from the report
+     * descriptor. Consumers copy a consistent snapshot with
+     * {@link #readLatestReport(int, ByteBuffer)} whenever they are ready, e.g.
+     * once per frame, instead of handling every report the device sends.
+     * <p>
+     * Reading never blocks the device thread and takes no locks, any number of
+     * threads may read. The listeners are called as before if they are set.
+     *
+     * @param enabled true to keep the latest reports, false to drop them
+     */
+    public void setReportConflation(boolean enabled) {
+        m_ConflatedReports = enabled ? new ConflatedReports(this) : null;
+    }
+
+    /**
+     * This method returns whether the conflating delivery mode is on.
+     *
+     * @return true if the latest reports are kept
+     */
+    public boolean isReportConflation() {
+        return m_ConflatedReports != null;
+    }
+
+    /**
+     * This method copies the latest report with the given id into dst.
+     * <p>
+     * The report data without the report id is copied starting at the position
+     * of dst which is advanced by the number of bytes copied, if dst has less
+     * remaining space than the report the rest is discarded.
+     * <p>
+     * The returned sequence number grows by one with every report of the id, so
+     * comparing it with the previous one tells whether the report is new and
+     * how many reports were conflated in between.
+     *
+     * @param reportId the report id, 0 if numbered reports are not used
+     * @param dst      the buffer to copy the report data into
+     * @return the sequence number of the report, 0 if no report with the id has arrived yet
+     * @throws IllegalStateException if conflation is off
+     * @see #setReportConflation(boolean)
+     */
+    public long readLatestReport(int reportId, ByteBuffer dst) {
+        return readLatestReport(reportId, dst, null);
+    }
+
+    /**
+     * This method copies the latest report with the given id into dst together with its timestamp.
+     *
+     * @param reportId  the report id, 0 if numbered reports are not used
+     * @param dst       the buffer to copy the report data into
+     * @param timestamp receives the {@link System#nanoTime()} taken right after the report was read
+     *                  at index 0, untouched if no report has arrived yet
+     * @return the sequence number of the report, 0 if no report with the id has arrived yet
+     * @throws IllegalStateException if conflation is off
+     * @see #readLatestReport(int, ByteBuffer)
+     */
+    public long readLatestReport(int reportId, ByteBuffer dst, long[] timestamp) {
+        ConflatedReports conflated = m_ConflatedReports;
+        if (conflated == null)
+            throw new IllegalStateException("report conflation is off");
+        return conflated.read(reportId, dst, timestamp);
+    }
+
+    /**
+     * This method returns the sequence number of the latest report with the given id.
+     *
+     * @param reportId the report id, 0 if numbered reports are not used
+     * @return the sequence number, 0 if no report with the id has arrived yet or conflation is off
+     * @see #readLatestReport(int, ByteBuffer)
+     */
+    public long getLatestReportSequence(int reportId) {
+        ConflatedReports conflated = m_ConflatedReports;
+        return conflated != null ? conflated.getSequence(reportId) : 0;
+    }
+
+    /**
+     * This method turns the recording of the input latency histograms on or off.
+     * <p>
+     * The histograms have a fixed size and recording does not allocate, it costs
+     * a few {@link System#nanoTime()} calls per report, so it may be left on.
+     * Turning it on again starts with empty histograms.
+     *
+     * @param enabled true to record the latency of every input report
+     * @see #getLatencyHistograms()
+     */
+    public void setLatencyHistograms(boolean enabled) {
+        m_LatencyHistograms = enabled ? new LatencyHistograms() : null;
+    }
+
+    /**
+     * This method returns the live input latency histograms of this device,
+     * use {@link LatencyHistograms#snapshot()} for a stable copy and
+     * {@link LatencyHistograms#toString()} to dump them.
+     *
+     * @return the histograms or null if the latency is not recorded
+     */
+    public LatencyHistograms getLatencyHistograms() {
+        return m_LatencyHistograms;
+    }
+
+    /**
+     * Backends that wait for the device to become readable call this method
+     * for every report they read after waking up.
+     *
+     * @param wakeup    the {@link System#nanoTime()} taken when the wait returned
+     * @param timestamp the {@link System#nanoTime()} taken right after the read
+     */
+    protected void recordWakeupToRead(long wakeup, long timestamp) {
+        LatencyHistograms histograms = m_LatencyHistograms;
+        if (histograms != null)
+            histograms.getWakeupToRead().record(timestamp - wakeup);
+    }
+
+    /**
+     * This method returns the I/O counters of this device.
+     * <p>
+     * The counters are also registered as an MBean
+     * {@code purejavahidapi:type=HidDevice,path=...,id=...} while the device is open.
+     *
+     * @return the counters
+     */
+    public DeviceCounters getCounters() {
+        return m_Counters;
+    }
+
+    /**
+     * Backends call this method on close to release a thread waiting in
+     * {@link #readReport}, to stop the dispatch stage and to fail the output
+     * reports still queued by {@link #setOutputReportAsync}.
+     * <p>
+     * It has to be called before waiting for the background thread, which may
+     * be waiting for the dispatch stage to take a report.
+     */
+    protected void closeDelivery() {
+        ReportRing ring = m_ReportRing;
+        if (ring != null)
+            ring.close();
+        DispatchStage stage = m_DispatchStage;
+        if (stage != null)
+            stage.close();
+        OutputReportQueue queue = m_OutputReportQueue;
+        if (queue != null)
+            queue.close();
+    }
+
     /**
      * This method sends an output report to the device.
      * <p>
@@ -115,6 +708,107 @@ abstract public class HidDevice {
      */
     abstract public int setOutputReport(byte reportID, byte[] data, int length);
 
+    /**
+     * This method sends an output report to the device like
+     * {@link #setOutputReport(byte, byte[], int)} but takes the data from a buffer.
+     * <p>
+     * Once the device has been used for a while this method allocates nothing on
+     * Linux and Windows, the data is copied into a native buffer of the device, so
+     * callers that care about garbage can keep their reports in pooled buffers,
+     * direct ones save a copy on Linux.
+     *
+     * @param reportID the report number if numbered reports are used else pass 0
+     * @param data     the report data between position and limit, the position is not changed
+     * @return number bytes actually sent or -1 if to send failed
+     */
+    synchronized public int setOutputReport(byte reportID, ByteBuffer data) {
+        int length = data.remaining();
+        return setOutputReport(reportID, toReportData(data, length), length);
+    }
+
+    /** @return {@link #m_ReportData} with the remaining bytes of data copied in, the caller holds the lock */
+    private byte[] toReportData(ByteBuffer data, int length) {
+        if (m_ReportData.length < length)
+            m_ReportData = new byte[length];
+        data.get(data.position(), m_ReportData, 0, length);
+        return m_ReportData;
+    }
+
+    /**
+     * This method queues an output report to be sent to the device and returns
+     * without waiting for it.
+     * <p>
+     * Every device has a bounded queue of preallocated slots, the reports are
+     * written one after the other in the order they were queued and the futures
+     * complete in that order. A device that does not take its reports only
+     * fills its own queue, it never blocks the caller.
+     * <p>
+     * The queues of all the devices are written by one shared pool of background
+     * writer threads, which takes up a thread only while a device has reports
+     * queued and never writes two reports of a device at the same time. Writes
+     * are synchronous on every platform, hidraw ones block up to the usb
+     * timeout, so the thread reading the device never writes. The futures are
+     * completed on the writer thread, use the async methods of the future for
+     * anything that may block.
+     *
+     * @param reportId the report number if numbered reports are used else pass 0
+     * @param data     the report data between position and limit, copied before this method returns
+     * @return completes with the number of bytes sent, exceptionally if the queue
+     *         is full, the report is too long, the device is closed or the write fails
+     */
+    public CompletableFuture<Integer> setOutputReportAsync(int reportId, ByteBuffer data) {
+        if (!m_Open)
+            return CompletableFuture.failedFuture(new IllegalStateException("device not open"));
+        OutputReportQueue queue = m_OutputReportQueue;
+        if (queue == null) {
+            synchronized (this) {
+                queue = m_OutputReportQueue;
+                if (queue == null)
+                    m_OutputReportQueue = queue = new OutputReportQueue(OUTPUT_REPORT_QUEUE_CAPACITY, getMaxOutputReportLength(),
+                            () -> m_OutputReportWriter.execute(this::writeQueuedOutputReports));
+            }
+        }
+        return queue.offer(reportId, data);
+    }
+
+    /**
+     * This method returns the queue of {@link #setOutputReportAsync} for the backends.
+     *
+     * @return null if nothing has been queued yet
+     */
+    protected OutputReportQueue getOutputReportQueue() {
+        return m_OutputReportQueue;
+    }
+
+    /** writes the queued output reports with {@link #setOutputReport} until the queue is empty */
+    private void writeQueuedOutputReports() {
+        OutputReportQueue queue = m_OutputReportQueue;
+        while (true) {
+            ByteBuffer report = queue.peek();
+            if (report == null)
+                return;
+            int result;
+            try {
+                result = setOutputReport(report.get(0), report.position(1));
+            } catch (RuntimeException e) {
+                result = -1;
+            }
+            if (!queue.complete(result))
+                return;
+        }
+    }
+
+    /**
+     * This method returns the length of the longest output report of this device.
+     *
+     * @return the length in bytes not including the report id
+     */
+    protected int getMaxOutputReportLength() {
+        if (m_ReportDescriptor != null && m_ReportDescriptor.getMaxReportLength(ReportDescriptor.OUTPUT) > 0)
+            return m_ReportDescriptor.getMaxReportLength(ReportDescriptor.OUTPUT);
+        return 4095; // HID_MAX_BUFFER_SIZE less the report id
+    }
+
     /**
      * This method sends a feature report to the device.
      * <p>
@@ -140,6 +834,20 @@ abstract public class HidDevice {
      */
     abstract public int setFeatureReport(byte reportId, byte[] data, int length);
 
+    /**
+     * This method sends a feature report to the device like
+     * {@link #setFeatureReport(byte, byte[], int)} but takes the data from a buffer,
+     * allocating nothing in the steady state as {@link #setOutputReport(byte, ByteBuffer)}.
+     *
+     * @param reportId the report ID to send
+     * @param data     the report data between position and limit, the position is not changed
+     * @return number bytes actually sent or -1 if the call failed
+     */
+    synchronized public int setFeatureReport(byte reportId, ByteBuffer data) {
+        int length = data.remaining();
+        return setFeatureReport(reportId, toReportData(data, length), length);
+    }
+
     /**
      * This method reads an input report descriptor from the device.
      * <p>
@@ -185,6 +893,26 @@ abstract public class HidDevice {
      */
     abstract public int getFeatureReport(int reportId, byte[] data, int length);
 
+    /**
+     * This method reads a feature report from the device like
+     * {@link #getFeatureReport(int, byte[], int)} but into a buffer, allocating
+     * nothing in the steady state as {@link #setOutputReport(byte, ByteBuffer)}.
+     *
+     * @param reportId the report ID to receive
+     * @param data     receives the report from its position, at most remaining bytes,
+     *                 the position is advanced past the bytes received
+     * @return the number of bytes actually received or -1 if the call failed
+     */
+    synchronized public int getFeatureReport(int reportId, ByteBuffer data) {
+        int length = data.remaining();
+        if (m_ReportData.length < length)
+            m_ReportData = new byte[length];
+        int result = getFeatureReport(reportId, m_ReportData, length);
+        if (result > 0)
+            data.put(m_ReportData, 0, Math.min(result, length));
+        return result;
+    }
+
     /**
      * This method sets the device removal listener.
      * <p>
@@ -227,9 +955,64 @@ abstract public class HidDevice {
      * After calling close no further method calls to this object must be done,
      * otherwise an IllegalStateException will be generated.
      * <p>
-     * This call may block indefinitely if the device stops sending reports.
-     * (Hopefully in the future the close method will not block under any
-     * circumstances).
+     * This call waits until the background thread has stopped, which takes as
+     * long as the listener being called at the time takes, use
+     * {@link #close(Duration)} to bound the wait. Called on a thread of the
+     * device itself, the reader, the reactor or the dispatcher, that is from a
+     * listener, it returns without waiting, as {@link #closeAsync()} does, the
+     * resources are released after the listener has returned.
      */
     abstract public void close();
+
+    /**
+     * Starts closing the device and returns at once.
+     * <p>
+     * The device is not open any more when this method returns, the handles
+     * are released when the background thread has stopped, by that thread.
+     * The default implementation runs {@link #close()} on a pool thread.
+     *
+     * @return completes when the device is closed and its resources are released
+     * @throws IllegalStateException if the device is not open
+     */
+    public CompletableFuture<Void> closeAsync() {
+        if (!m_Open)
+            throw new IllegalStateException("device not open");
+        return CompletableFuture.runAsync(this::close, m_Closer);
+    }
+
+    /**
+     * Closes the device waiting at most the timeout.
+     * <p>
+     * If the timeout elapses the device is still closed, its resources are
+     * released as soon as the background thread stops. Called from a listener
+     * it waits for itself until the timeout elapses, use {@link #closeAsync()}
+     * or {@link #close()} there.
+     *
+     * @param timeout how long to wait for the background thread
+     * @return true if the device has been closed completely in time
+     * @throws IllegalStateException if the device is not open
+     * @see #closeAsync()
+     */
+    public boolean close(Duration timeout) {
+        return await(closeAsync(), timeout);
+    }
+
+    /**
+     * @return true if the future completed in time, an exceptional completion is rethrown
+     */
+    static boolean await(CompletableFuture<?> future, Duration timeout) {
+        try {
+            future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
 }
@@ -53,6 +53,7 @@ public class HidDeviceInfo {
     protected String m_SerialNumberString;
     protected String m_ManufactureString;
     protected String m_ProductString;
+    protected short m_BusType;
 
     /**
      * This method returns a string that represents a platform dependent path that
@@ -134,6 +135,17 @@ public class HidDeviceInfo {
         return m_UsageId & 0xffff;
     }
 
+    /**
+     * This method returns the bus the device is attached to, the numbers of
+     * linux/input.h, e.g. {@link DeviceFilter#BUS_USB}, if the backend knows it,
+     * currently only the Linux one does.
+     *
+     * @return the bus type or 0 if unknown
+     */
+    public int getBusType() {
+        return m_BusType & 0xffff;
+    }
+
     /**
      * This method returns the Manufacturer String if available otherwise null is
      * returned.
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+/**
+ * How {@link PureJavaHidApi#initialize(InitOptions)} sets the library up.
+ * <p>
+ * Instances are immutable.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class InitOptions {
+
+    /**
+     * The name of the backend to use instead of the supported one with the highest
+     * priority, e.g. "simulated", see {@link purejavahidapi.shared.BackendProvider}.
+     */
+    private static final String BACKEND = System.getProperty("purejavahidapi.PureJavaHidApi.backend");
+
+    private static final InitOptions DEFAULTS = new InitOptions(BACKEND);
+
+    private final String m_Backend;
+
+    private InitOptions(String backend) {
+        m_Backend = backend;
+    }
+
+    /**
+     * @return the options the library is set up with on first use, the backend
+     *         is the one named by the system property "purejavahidapi.PureJavaHidApi.backend"
+     *         if it is set
+     */
+    public static InitOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @param backend the name of the backend, e.g. "linux" or "simulated", null for
+     *                the supported one with the highest priority
+     * @return a copy of these options with the backend replaced
+     */
+    public InitOptions withBackend(String backend) {
+        return new InitOptions(backend);
+    }
+
+    /** @return null for the supported backend with the highest priority */
+    public String getBackend() {
+        return m_Backend;
+    }
+
+    @Override
+    public String toString() {
+        return "InitOptions{backend=" + m_Backend + "}";
+    }
+}
@@ -35,7 +35,8 @@ package purejavahidapi;
  * An InputReportListener gets called from background thread attached to a {@link HidDevice}
  * every time an input report is received from the tha associated USB device.
  * <p>
- * This is the only means of receiving input reports.
+ * The report is copied into a heap array before this listener is called, use a
+ * {@link DirectInputReportListener} to receive the report without that copy.
  * <p>
  *
  * @author nyholku
@@ -58,4 +59,20 @@ public interface InputReportListener {
      * @param reportLength report length
      */
     void onInputReport(HidDevice source, byte reportID, byte[] reportData, int reportLength);
+
+    /**
+     * This method is what the {@link HidDevice} calls, by default it drops the
+     * timestamp and calls {@link #onInputReport(HidDevice, byte, byte[], int)}.
+     * Implement {@link TimestampedInputReportListener} to get the time the
+     * report was read.
+     *
+     * @param source       the HidDevice object that called this method
+     * @param reportID     the report id number if used or zero
+     * @param reportData   the report data included first byte for report id
+     * @param reportLength report length
+     * @param timestamp    the {@link System#nanoTime()} taken right after the report was read from the operating system
+     */
+    default void onInputReport(HidDevice source, byte reportID, byte[] reportData, int reportLength, long timestamp) {
+        onInputReport(source, reportID, reportData, reportLength);
+    }
 }
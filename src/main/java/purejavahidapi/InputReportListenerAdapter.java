@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Layers an {@link InputReportListener} on top of the direct dispatch path by
+ * copying each report once into a heap array that is re-used between reports.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+final class InputReportListenerAdapter implements TimestampedDirectInputReportListener {
+
+    private final InputReportListener m_Listener;
+    private byte[] m_ReportData;
+
+    InputReportListenerAdapter(InputReportListener listener, int initialLength) {
+        m_Listener = listener;
+        m_ReportData = new byte[Math.max(initialLength, 1)];
+    }
+
+    InputReportListener getListener() {
+        return m_Listener;
+    }
+
+    @Override
+    public void onInputReport(HidDevice source, int reportId, ByteBuffer report, long timestamp) {
+        int length = report.remaining();
+        if (m_ReportData.length < length)
+            m_ReportData = new byte[length];
+        report.get(report.position(), m_ReportData, 0, length);
+        m_Listener.onInputReport(source, (byte) reportId, m_ReportData, length, timestamp);
+    }
+}
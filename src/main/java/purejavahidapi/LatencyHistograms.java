@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import purejavahidapi.shared.Histogram;
+
+
+/**
+ * The input latency histograms of a {@link HidDevice}, all values in nanoseconds.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ * @see HidDevice#setLatencyHistograms(boolean)
+ */
+public final class LatencyHistograms {
+
+    private final Histogram m_WakeupToRead;
+    private final Histogram m_ReadToListener;
+    private final Histogram m_Listener;
+    private final Histogram m_BatchListener;
+
+    LatencyHistograms() {
+        this(new Histogram(), new Histogram(), new Histogram(), new Histogram());
+    }
+
+    private LatencyHistograms(Histogram wakeupToRead, Histogram readToListener, Histogram listener, Histogram batchListener) {
+        m_WakeupToRead = wakeupToRead;
+        m_ReadToListener = readToListener;
+        m_Listener = listener;
+        m_BatchListener = batchListener;
+    }
+
+    /**
+     * @return the time from the reader waking up in poll() to the read completing,
+     *         only recorded on Linux, the other backends are woken up with the report
+     */
+    public Histogram getWakeupToRead() {
+        return m_WakeupToRead;
+    }
+
+    /** @return the time from the read completing to the first listener being called, including the dispatch stage queue */
+    public Histogram getReadToListener() {
+        return m_ReadToListener;
+    }
+
+    /** @return the time the input report listeners took, one value per report */
+    public Histogram getListener() {
+        return m_Listener;
+    }
+
+    /** @return the time the {@link BatchInputReportListener} took, one value per batch */
+    public Histogram getBatchListener() {
+        return m_BatchListener;
+    }
+
+    /** @return a copy of the histograms */
+    public LatencyHistograms snapshot() {
+        return new LatencyHistograms(m_WakeupToRead.snapshot(), m_ReadToListener.snapshot(), m_Listener.snapshot(), m_BatchListener.snapshot());
+    }
+
+    /** Clears all the histograms. */
+    public void reset() {
+        m_WakeupToRead.reset();
+        m_ReadToListener.reset();
+        m_Listener.reset();
+        m_BatchListener.reset();
+    }
+
+    /** @return one line per histogram */
+    @Override
+    public String toString() {
+        return "wakeup-to-read:   " + m_WakeupToRead + "\n" +
+                "read-to-listener: " + m_ReadToListener + "\n" +
+                "listener:         " + m_Listener + "\n" +
+                "batch-listener:   " + m_BatchListener + "\n";
+    }
+}
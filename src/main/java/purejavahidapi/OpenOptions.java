@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+/**
+ * How {@link PureJavaHidApi#openDevice(HidDeviceInfo, OpenOptions)} opens a device.
+ * <p>
+ * Instances are immutable.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class OpenOptions {
+
+    private static final OpenOptions DEFAULTS = new OpenOptions(false, ThreadOptions.defaults(), null);
+
+    private final boolean m_SyncRead;
+    private final ThreadOptions m_ThreadOptions;
+    private final Backoff m_BusyPoll;
+
+    private OpenOptions(boolean syncRead, ThreadOptions threadOptions, Backoff busyPoll) {
+        m_SyncRead = syncRead;
+        m_ThreadOptions = threadOptions;
+        m_BusyPoll = busyPoll;
+    }
+
+    /**
+     * @return the options {@link PureJavaHidApi#openDevice(HidDeviceInfo)} uses,
+     *         input reports are read in the background and passed to the listeners
+     */
+    public static OpenOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * The synchronous read mode, there is no background thread, no reactor and
+     * no listener, the caller reads the input reports itself with
+     * {@link HidDevice#read(java.nio.ByteBuffer, long)} on its own thread.
+     * Only supported on Linux.
+     *
+     * @return the options for the synchronous read mode
+     */
+    public static OpenOptions syncRead() {
+        return new OpenOptions(true, DEFAULTS.m_ThreadOptions, null);
+    }
+
+    /**
+     * @param threadOptions how the reader thread of the device is created and scheduled,
+     *                      used on Linux by the per-device reader thread
+     * @return a copy of these options with the thread options replaced
+     */
+    public OpenOptions withThreadOptions(ThreadOptions threadOptions) {
+        return new OpenOptions(m_SyncRead, threadOptions != null ? threadOptions : ThreadOptions.defaults(), m_BusyPoll);
+    }
+
+    /**
+     * The busy-poll mode, the reader thread reads the non-blocking device in a
+     * loop instead of blocking in poll() and backs off as the backoff says while
+     * there is nothing to read. Reports go to the listeners, the ring and the
+     * conflation as usual. Only supported on Linux, ignored with {@link #syncRead()}.
+     * Combine with {@link ThreadOptions#withAffinity(int...)} to keep the spinning
+     * thread on a core of its own.
+     *
+     * @param backoff e.g. {@link Backoff#spin()}, null for the blocking reader
+     * @return a copy of these options with the busy-poll mode set
+     */
+    public OpenOptions withBusyPoll(Backoff backoff) {
+        return new OpenOptions(m_SyncRead, m_ThreadOptions, backoff);
+    }
+
+    /** @return true if the device is read by the caller with {@link HidDevice#read(java.nio.ByteBuffer, long)} */
+    public boolean isSyncRead() {
+        return m_SyncRead;
+    }
+
+    /** @return never null */
+    public ThreadOptions getThreadOptions() {
+        return m_ThreadOptions;
+    }
+
+    /** @return null if the reader blocks in poll() */
+    public Backoff getBusyPoll() {
+        return m_BusyPoll;
+    }
+
+    @Override
+    public String toString() {
+        return "OpenOptions{syncRead=" + m_SyncRead + ", threadOptions=" + m_ThreadOptions + ", busyPoll=" + m_BusyPoll + "}";
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+/**
+ * What the reader stage of a dispatch stage does with a report when the
+ * queue to the dispatcher is full.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ * @see HidDevice#setDispatchStage(int, OverflowPolicy, java.util.concurrent.Executor)
+ */
+public enum OverflowPolicy {
+
+    /** the reader waits until the dispatcher has freed a slot, nothing is lost but reads stall */
+    BLOCK,
+    /** the oldest queued report is discarded to make room */
+    DROP_OLDEST,
+    /** the report just read is discarded */
+    DROP_NEWEST,
+    /**
+     * a queued report with the same report id is overwritten with the new one,
+     * if there is none the oldest queued report is discarded
+     */
+    CONFLATE
+}
@@ -31,11 +31,15 @@
 package purejavahidapi;
 
 import java.io.IOException;
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
-import com.sun.jna.Platform;
 import purejavahidapi.shared.Backend;
+import purejavahidapi.shared.BackendProvider;
 
 
 /**
@@ -54,8 +58,53 @@ import purejavahidapi.shared.Backend;
 public class PureJavaHidApi {
 
     private static final Object m_Mutex = new Object();
-    final private static Backend m_Backend;
-    private static LinkedList<HidDevice> m_OpenDevices = new LinkedList<>();
+    /** null until {@link #initialize(InitOptions)} or the first use */
+    private static volatile Backend m_Backend;
+    private static String m_BackendName;
+
+    /**
+     * Sets the library up, finds and initializes the backend.
+     * <p>
+     * Calling this is optional, the first method that needs the backend does
+     * it with {@link InitOptions#defaults()}. Nothing is done on class loading,
+     * and on Linux the hotplug monitor thread is only started when a
+     * {@link DeviceRemovalListener} is set.
+     *
+     * @param options e.g. {@code InitOptions.defaults().withBackend("simulated")}
+     * @throws IllegalStateException if the library has been set up already or
+     *                               there is no backend of the name given
+     */
+    public static void initialize(InitOptions options) {
+        synchronized (m_Mutex) {
+            if (m_Backend != null)
+                throw new IllegalStateException("already initialized with " + m_BackendName);
+            BackendProvider provider = selectProvider(ServiceLoader.load(BackendProvider.class, PureJavaHidApi.class.getClassLoader()), options.getBackend());
+            if (provider == null)
+                throw new IllegalStateException("Unsupported platform");
+            Backend backend = provider.createBackend();
+            backend.init();
+            backend.getCounters().register();
+            m_BackendName = provider.getName();
+            m_Backend = backend;
+        }
+    }
+
+    /** @return true if the backend has been set up */
+    public static boolean isInitialized() {
+        return m_Backend != null;
+    }
+
+    /** @return the backend, set up with the defaults if it is not yet */
+    private static Backend backend() {
+        Backend backend = m_Backend;
+        if (backend != null)
+            return backend;
+        synchronized (m_Mutex) {
+            if (m_Backend == null)
+                initialize(InitOptions.defaults());
+            return m_Backend;
+        }
+    }
 
     /**
      * @return PureJavaHidApi library version string
@@ -65,19 +114,36 @@ public class PureJavaHidApi {
     }
 
     /**
-     * Returns a list of available USB HID devices.
-     * <p>
-     * Passing a 0 for the vendorId or productId matches everything and thus
-     * works as a wild card for matching. Passing 0 for both will return a list
-     * of all USB HID devices.
+     * Returns a list of all available USB HID devices, use
+     * {@link #enumerateDevices(DeviceFilter)} to get only some of them.
      *
-     * @return List of HidDeviceInfo objects representing the matching devices.
+     * @return List of HidDeviceInfo objects representing the devices.
      */
     public static List<HidDeviceInfo> enumerateDevices() {
+        Backend backend = backend();
         synchronized (m_Mutex) {
-            if (m_Backend == null)
-                throw new IllegalStateException("Unsupported platform");
-            return m_Backend.enumerateDevices();
+            backend.getCounters().enumeration();
+            return backend.enumerateDevices();
+        }
+    }
+
+    /**
+     * Returns a list of the available USB HID devices that match the filter,
+     * e.g. all the game pads of a vendor
+     * <pre>
+     * PureJavaHidApi.enumerateDevices(DeviceFilter.any().withVendorId(0x054c).withUsage(1, 5));
+     * </pre>
+     * The Linux backend checks the filter while enumerating, devices that do not
+     * match are dropped before the rest of their attributes are looked up.
+     *
+     * @param filter which devices to return
+     * @return List of HidDeviceInfo objects representing the matching devices.
+     */
+    public static List<HidDeviceInfo> enumerateDevices(DeviceFilter filter) {
+        Backend backend = backend();
+        synchronized (m_Mutex) {
+            backend.getCounters().enumeration();
+            return backend.enumerateDevices(filter);
         }
     }
 
@@ -91,26 +157,86 @@ public class PureJavaHidApi {
      * @see HidDeviceInfo#getPath()
      */
     public static HidDevice openDevice(HidDeviceInfo path) throws IOException {
+        return openDevice(path, OpenOptions.defaults());
+    }
+
+    /**
+     * Given a device path opens a USB device for communication the way the options say.
+     *
+     * @param path    A path obtained from a HidDeviceInfo object.
+     * @param options e.g. {@link OpenOptions#syncRead()}
+     * @return An instance of HidDevice that can be used to communicate with the
+     * HID device. nullable
+     * @throws IOException if the device cannot be opened
+     * @throws UnsupportedOperationException if the platform does not support the options
+     */
+    public static HidDevice openDevice(HidDeviceInfo path, OpenOptions options) throws IOException {
+        Backend backend = backend();
         synchronized (m_Mutex) {
-            if (m_Backend == null)
-                throw new IllegalStateException("Unsupported platform");
-            HidDevice device = m_Backend.openDevice(path);
-            if (device != null)
-                m_OpenDevices.add(device);
-            return device;
+            return backend.openDevice(path, options);
+        }
+    }
+
+    /**
+     * Closes every open device at once, for shutting down.
+     * <p>
+     * The devices are closed in parallel with {@link HidDevice#closeAsync()},
+     * so the whole takes about as long as the slowest device instead of the
+     * sum of them. Devices that have not finished in time are closed anyway,
+     * their resources are released when their background threads stop.
+     *
+     * @param timeout how long to wait for all the devices together
+     * @return true if every device has been closed completely in time
+     */
+    public static boolean closeAll(Duration timeout) {
+        Backend backend = m_Backend;
+        if (backend == null)
+            return true; // nothing has been opened
+        List<CompletableFuture<Void>> closing = new ArrayList<>();
+        for (HidDevice device : backend.getOpenDevices()) {
+            try {
+                closing.add(device.closeAsync());
+            } catch (IllegalStateException e) {
+                // closed meanwhile
+            }
         }
+        return HidDevice.await(CompletableFuture.allOf(closing.toArray(CompletableFuture<?>[]::new)), timeout);
+    }
+
+    /**
+     * @return the capabilities of the backend in use, so that callers can pick their fast paths
+     */
+    public static Set<BackendCapability> getCapabilities() {
+        return backend().getCapabilities();
     }
 
-    static {
-        if (Platform.isMac()) {
-            m_Backend = new purejavahidapi.macosx.MacOsXBackend();
-        } else if (Platform.isWindows()) {
-            m_Backend = new purejavahidapi.windows.WindowsBackend();
-        } else if (Platform.isLinux()) {
-            m_Backend = new purejavahidapi.linux.LinuxBackend();
-        } else
-            m_Backend = null;
-        if (m_Backend != null)
-            m_Backend.init();
+    /**
+     * @return the name of the backend in use, e.g. "linux"
+     */
+    public static String getBackendName() {
+        backend();
+        return m_BackendName;
+    }
+
+    /**
+     * @param name the name of the provider to use regardless of its priority, null for the
+     *             supported one with the highest non-negative priority
+     * @return null if there is none
+     * @throws IllegalStateException if there is no provider of that name
+     */
+    static BackendProvider selectProvider(Iterable<BackendProvider> providers, String name) {
+        BackendProvider selected = null;
+        for (BackendProvider provider : providers) {
+            if (name != null) {
+                if (provider.getName().equals(name))
+                    return provider;
+            } else if (provider.isSupported() && provider.getPriority() >= 0) {
+                if (selected == null || provider.getPriority() > selected.getPriority())
+                    selected = provider;
+            }
+        }
+        if (name != null)
+            throw new IllegalStateException("no backend named: " + name);
+        return selected;
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * ReportBatch is the set of input reports a backend read in one go, see
+ * {@link BatchInputReportListener}.
+ * <p>
+ * A batch and the buffers it refers to are re-used for the next batch, so do
+ * not keep references to them outside of the listener call.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class ReportBatch {
+
+    private final int[] m_ReportIds;
+    private final ByteBuffer[] m_Reports;
+    private final int[] m_Positions;
+    private final int[] m_Limits;
+    private final long[] m_Timestamps;
+    private int m_Size;
+
+    /** @param capacity the maximum number of reports in this batch */
+    public ReportBatch(int capacity) {
+        m_ReportIds = new int[capacity];
+        m_Reports = new ByteBuffer[capacity];
+        m_Positions = new int[capacity];
+        m_Limits = new int[capacity];
+        m_Timestamps = new long[capacity];
+    }
+
+    /** @return the number of reports in this batch */
+    public int size() {
+        return m_Size;
+    }
+
+    /** @return the maximum number of reports in this batch */
+    public int capacity() {
+        return m_Reports.length;
+    }
+
+    /**
+     * @param index the index of the report, 0 is the oldest
+     * @return the report id number if used or zero
+     */
+    public int getReportId(int index) {
+        checkIndex(index);
+        return m_ReportIds[index];
+    }
+
+    /**
+     * @param index the index of the report, 0 is the oldest
+     * @return a read-only view of the report data between position and limit,
+     *         every call rewinds it to the start of the report
+     */
+    public ByteBuffer getReport(int index) {
+        checkIndex(index);
+        ByteBuffer report = m_Reports[index];
+        report.limit(m_Limits[index]).position(m_Positions[index]);
+        return report;
+    }
+
+    /**
+     * @param index the index of the report, 0 is the oldest
+     * @return the {@link System#nanoTime()} taken right after the report was read from the operating system
+     */
+    public long getTimestamp(int index) {
+        checkIndex(index);
+        return m_Timestamps[index];
+    }
+
+    /** Removes all reports, used by the backends before filling the batch. */
+    public void clear() {
+        m_Size = 0;
+    }
+
+    /**
+     * Appends a report, used by the backends.
+     *
+     * @param reportId  the report id number if used or zero
+     * @param report    the report data between position and limit
+     * @param timestamp the {@link System#nanoTime()} taken right after the report was read
+     * @throws IllegalStateException if the batch is full
+     */
+    public void add(int reportId, ByteBuffer report, long timestamp) {
+        if (m_Size == m_Reports.length)
+            throw new IllegalStateException("batch full");
+        m_ReportIds[m_Size] = reportId;
+        m_Reports[m_Size] = report;
+        m_Positions[m_Size] = report.position();
+        m_Limits[m_Size] = report.limit();
+        m_Timestamps[m_Size] = timestamp;
+        m_Size++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= m_Size)
+            throw new IndexOutOfBoundsException(index);
+    }
+}
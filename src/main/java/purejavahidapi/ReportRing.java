@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * A single-producer/single-consumer ring of fixed-size report slots.
+ * <p>
+ * The producer is the thread that reads the device, the consumer is the one
+ * thread that calls {@link HidDevice#readReport} or {@link HidDevice#pollReport}.
+ * All the slots are allocated up front, neither side allocates or locks per report.
+ * <p>
+ * When the ring is full the newest report is dropped, the producer never
+ * touches a slot the consumer has not released yet.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+final class ReportRing {
+
+    /** the largest number of slots */
+    static final int MAX_CAPACITY = 1 << 20;
+
+    private final int m_Capacity;
+    private final int m_Mask;
+    private final int m_SlotSize;
+    private final ByteBuffer m_Slots;
+    private final int[] m_ReportIds;
+    private final int[] m_Lengths;
+    private final long[] m_Timestamps;
+    /** the timestamp of the report last taken, consumer only */
+    private long m_LastTimestamp;
+    /** next slot to read, written by the consumer only */
+    private volatile long m_Head;
+    /** next slot to write, written by the producer only */
+    private volatile long m_Tail;
+    /** the consumer parked in {@link #take}, null if none */
+    private volatile Thread m_Waiter;
+    private volatile boolean m_Closed;
+    /** written by the producer only */
+    private volatile long m_Overruns;
+
+    /**
+     * @param capacity the number of slots, a power of two up to {@link #MAX_CAPACITY}
+     * @param slotSize the number of bytes per slot, longer reports are truncated
+     * @throws IllegalArgumentException if the capacity is not a power of two, is too
+     *             large, or the slots do not fit in one buffer
+     */
+    ReportRing(int capacity, int slotSize) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity: " + capacity);
+        m_Capacity = capacity;
+        m_Mask = m_Capacity - 1;
+        m_SlotSize = Math.max(slotSize, 1);
+        try {
+            m_Slots = ByteBuffer.allocateDirect(Math.multiplyExact(m_Capacity, m_SlotSize));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("capacity: " + capacity + ", slot size: " + slotSize, e);
+        }
+        m_ReportIds = new int[m_Capacity];
+        m_Lengths = new int[m_Capacity];
+        m_Timestamps = new long[m_Capacity];
+    }
+
+    int capacity() {
+        return m_Capacity;
+    }
+
+    /** @return the number of reports dropped because the ring was full */
+    long getOverruns() {
+        return m_Overruns;
+    }
+
+    /**
+     * Called by the producer, copies the report into the next free slot.
+     *
+     * @return false if the ring was full and the report was dropped
+     */
+    boolean offer(int reportId, ByteBuffer report, long timestamp) {
+        long tail = m_Tail;
+        if (tail - m_Head >= m_Capacity) {
+            m_Overruns++;
+            return false;
+        }
+        int slot = (int) tail & m_Mask;
+        int length = Math.min(report.remaining(), m_SlotSize);
+        m_Slots.put(slot * m_SlotSize, report, report.position(), length);
+        m_ReportIds[slot] = reportId;
+        m_Lengths[slot] = length;
+        m_Timestamps[slot] = timestamp;
+        m_Tail = tail + 1; // publishes the slot
+        Thread waiter = m_Waiter;
+        if (waiter != null)
+            LockSupport.unpark(waiter);
+        return true;
+    }
+
+    /**
+     * Called by the consumer, copies the oldest report into dst.
+     *
+     * @return the report id or -1 if the ring is empty
+     */
+    int poll(ByteBuffer dst) {
+        long head = m_Head;
+        if (head == m_Tail)
+            return -1;
+        int slot = (int) head & m_Mask;
+        int length = Math.min(m_Lengths[slot], dst.remaining());
+        dst.put(dst.position(), m_Slots, slot * m_SlotSize, length);
+        dst.position(dst.position() + length);
+        int reportId = m_ReportIds[slot];
+        m_LastTimestamp = m_Timestamps[slot];
+        m_Head = head + 1; // releases the slot
+        return reportId;
+    }
+
+    /**
+     * Called by the consumer, waits up to nanos for a report.
+     *
+     * @return the report id or -1 if timed out or the ring was closed
+     */
+    int take(ByteBuffer dst, long nanos) throws InterruptedException {
+        int reportId = poll(dst);
+        if (reportId >= 0 || nanos <= 0)
+            return reportId;
+        long deadline = System.nanoTime() + nanos;
+        m_Waiter = Thread.currentThread();
+        try {
+            while (true) {
+                // m_Waiter is published before the re-check, so an offer() in between unparks us
+                reportId = poll(dst);
+                if (reportId >= 0 || m_Closed)
+                    return reportId;
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return -1;
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+            }
+        } finally {
+            m_Waiter = null;
+        }
+    }
+
+    /** @return the timestamp of the report last taken by {@link #poll} or {@link #take}, consumer only */
+    long getLastTimestamp() {
+        return m_LastTimestamp;
+    }
+
+    /** Wakes up a parked consumer for good. */
+    void close() {
+        m_Closed = true;
+        Thread waiter = m_Waiter;
+        if (waiter != null)
+            LockSupport.unpark(waiter);
+    }
+}
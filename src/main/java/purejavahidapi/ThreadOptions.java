@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.util.BitSet;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * How the reader thread of a device is created and scheduled.
+ * <p>
+ * Instances are immutable, the {@code with} methods return modified copies.
+ * The scheduling policy and the cpu affinity are Linux only and need
+ * privileges, e.g. CAP_SYS_NICE or an RLIMIT_RTPRIO for the real-time
+ * policies, whether they were applied is told by
+ * {@link HidDevice#getThreadSetupResult()}. They are applied by the reader
+ * thread to itself when it starts.
+ * <p>
+ * Only the per-device reader thread uses these options. The shared reactor
+ * threads are configured with the {@code purejavahidapi.linux.LinuxBackend.reactorScheduling}
+ * and {@code reactorAffinity} system properties, virtual threads cannot be
+ * configured at all.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ * @see OpenOptions#withThreadOptions(ThreadOptions)
+ */
+public final class ThreadOptions {
+
+    /** The Linux scheduling policies, see sched(7). */
+    public enum Policy {
+        /** the default time-sharing policy, SCHED_OTHER */
+        OTHER(0),
+        /** real-time first in first out, SCHED_FIFO */
+        FIFO(1),
+        /** real-time round robin, SCHED_RR */
+        RR(2);
+
+        private final int m_Value;
+
+        Policy(int value) {
+            m_Value = value;
+        }
+
+        /** @return the value sched_setscheduler() takes */
+        public int getValue() {
+            return m_Value;
+        }
+    }
+
+    private static final ThreadOptions DEFAULTS = new ThreadOptions(null, null, true, null, 0, null);
+
+    private final ThreadFactory m_ThreadFactory;
+    private final String m_Name;
+    private final boolean m_Daemon;
+    private final Policy m_Policy;
+    private final int m_Priority;
+    private final BitSet m_Affinity;
+
+    private ThreadOptions(ThreadFactory threadFactory, String name, boolean daemon, Policy policy, int priority, BitSet affinity) {
+        m_ThreadFactory = threadFactory;
+        m_Name = name;
+        m_Daemon = daemon;
+        m_Policy = policy;
+        m_Priority = priority;
+        m_Affinity = affinity;
+    }
+
+    /** @return a daemon thread named after the device path with the default scheduling */
+    public static ThreadOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /** @param threadFactory creates the reader thread, null for new Thread() */
+    public ThreadOptions withThreadFactory(ThreadFactory threadFactory) {
+        return new ThreadOptions(threadFactory, m_Name, m_Daemon, m_Policy, m_Priority, m_Affinity);
+    }
+
+    /** @param name the reader thread name, null for the device path or the name the factory gives */
+    public ThreadOptions withName(String name) {
+        return new ThreadOptions(m_ThreadFactory, name, m_Daemon, m_Policy, m_Priority, m_Affinity);
+    }
+
+    /** @param daemon false to keep the JVM alive while the device is open */
+    public ThreadOptions withDaemon(boolean daemon) {
+        return new ThreadOptions(m_ThreadFactory, m_Name, daemon, m_Policy, m_Priority, m_Affinity);
+    }
+
+    /**
+     * @param policy   the scheduling policy, null to leave it alone
+     * @param priority 1 to 99 for {@link Policy#FIFO} and {@link Policy#RR}, 0 for {@link Policy#OTHER}
+     */
+    public ThreadOptions withScheduling(Policy policy, int priority) {
+        return new ThreadOptions(m_ThreadFactory, m_Name, m_Daemon, policy, priority, m_Affinity);
+    }
+
+    /** @param cpus the cpus the reader thread may run on, none to leave the affinity alone */
+    public ThreadOptions withAffinity(int... cpus) {
+        BitSet affinity = null;
+        if (cpus.length > 0) {
+            affinity = new BitSet();
+            for (int cpu : cpus)
+                affinity.set(cpu);
+        }
+        return new ThreadOptions(m_ThreadFactory, m_Name, m_Daemon, m_Policy, m_Priority, affinity);
+    }
+
+    /** @return null for new Thread() */
+    public ThreadFactory getThreadFactory() {
+        return m_ThreadFactory;
+    }
+
+    /** @return null for the default */
+    public String getName() {
+        return m_Name;
+    }
+
+    public boolean isDaemon() {
+        return m_Daemon;
+    }
+
+    /** @return null if the scheduling is left alone */
+    public Policy getPolicy() {
+        return m_Policy;
+    }
+
+    public int getPriority() {
+        return m_Priority;
+    }
+
+    /** @return a copy of the cpu set, null if the affinity is left alone */
+    public BitSet getAffinity() {
+        return m_Affinity != null ? (BitSet) m_Affinity.clone() : null;
+    }
+
+    /**
+     * Parses the {@code policy:priority} form used by system properties, e.g. "FIFO:10".
+     *
+     * @param options the options to add the scheduling to
+     * @param value   "FIFO:10", "RR:5" or "OTHER", null or empty leaves options as they are
+     * @throws IllegalArgumentException if value is not in that form
+     */
+    public static ThreadOptions parseScheduling(ThreadOptions options, String value) {
+        if (value == null || value.isEmpty())
+            return options;
+        String[] parts = value.split(":", 2);
+        Policy policy = Policy.valueOf(parts[0].trim().toUpperCase());
+        int priority = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 0;
+        return options.withScheduling(policy, priority);
+    }
+
+    /**
+     * Parses the cpu list form used by system properties and taskset(1), e.g. "2,3" or "0-3".
+     *
+     * @param options the options to add the affinity to
+     * @param value   the cpu list, null or empty leaves options as they are
+     * @throws IllegalArgumentException if value is not a cpu list
+     */
+    public static ThreadOptions parseAffinity(ThreadOptions options, String value) {
+        if (value == null || value.isEmpty())
+            return options;
+        BitSet affinity = new BitSet();
+        for (String range : value.split(",")) {
+            String[] bounds = range.trim().split("-", 2);
+            int from = Integer.parseInt(bounds[0].trim());
+            int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+            affinity.set(from, to + 1);
+        }
+        return options.withAffinity(affinity.stream().toArray());
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadOptions{" +
+                "threadFactory=" + m_ThreadFactory +
+                ", name=" + m_Name +
+                ", daemon=" + m_Daemon +
+                ", policy=" + m_Policy +
+                ", priority=" + m_Priority +
+                ", affinity=" + m_Affinity +
+                '}';
+    }
+}
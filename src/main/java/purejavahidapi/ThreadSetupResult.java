@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+/**
+ * Whether the scheduling and the cpu affinity of {@link ThreadOptions} could be
+ * applied to a reader thread.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ * @see HidDevice#getThreadSetupResult()
+ */
+public final class ThreadSetupResult {
+
+    /** What became of one setting. */
+    public enum Outcome {
+        /** the setting was not asked for */
+        NOT_REQUESTED,
+        /** the setting is in effect */
+        APPLIED,
+        /** the kernel refused, see the errno, EPERM means e.g. no CAP_SYS_NICE */
+        DENIED,
+        /** the platform or the read mode has no such setting, e.g. virtual threads */
+        UNSUPPORTED
+    }
+
+    /** nothing asked for */
+    public static final ThreadSetupResult NONE = new ThreadSetupResult(Outcome.NOT_REQUESTED, 0, Outcome.NOT_REQUESTED, 0);
+
+    private final Outcome m_Scheduling;
+    private final int m_SchedulingErrno;
+    private final Outcome m_Affinity;
+    private final int m_AffinityErrno;
+
+    /**
+     * @param schedulingErrno the errno if the scheduling was denied else 0
+     * @param affinityErrno   the errno if the affinity was denied else 0
+     */
+    public ThreadSetupResult(Outcome scheduling, int schedulingErrno, Outcome affinity, int affinityErrno) {
+        m_Scheduling = scheduling;
+        m_SchedulingErrno = schedulingErrno;
+        m_Affinity = affinity;
+        m_AffinityErrno = affinityErrno;
+    }
+
+    public Outcome getScheduling() {
+        return m_Scheduling;
+    }
+
+    /** @return the errno sched_setscheduler() failed with, 0 if it did not */
+    public int getSchedulingErrno() {
+        return m_SchedulingErrno;
+    }
+
+    public Outcome getAffinity() {
+        return m_Affinity;
+    }
+
+    /** @return the errno sched_setaffinity() failed with, 0 if it did not */
+    public int getAffinityErrno() {
+        return m_AffinityErrno;
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadSetupResult{" +
+                "scheduling=" + m_Scheduling + (m_SchedulingErrno != 0 ? " (errno " + m_SchedulingErrno + ")" : "") +
+                ", affinity=" + m_Affinity + (m_AffinityErrno != 0 ? " (errno " + m_AffinityErrno + ")" : "") +
+                '}';
+    }
+}
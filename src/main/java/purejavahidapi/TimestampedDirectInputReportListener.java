@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * A {@link DirectInputReportListener} that gets the time each report was read.
+ * <p>
+ * It has one abstract method, so it can be a lambda, e.g.
+ * <pre>
+ * TimestampedDirectInputReportListener listener = (source, reportId, report, timestamp) -&gt; ...;
+ * device.setDirectInputReportListener(listener);
+ * </pre>
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@FunctionalInterface
+public interface TimestampedDirectInputReportListener extends DirectInputReportListener {
+
+    /**
+     * This method gets called when an input report is received.
+     *
+     * @param source    the HidDevice object that called this method
+     * @param reportId  the report id number if used or zero
+     * @param report    a read-only view of the report data between position and limit
+     * @param timestamp the {@link System#nanoTime()} taken right after the report was read from the operating system
+     * @see DirectInputReportListener#onInputReport(HidDevice, int, ByteBuffer)
+     */
+    @Override
+    void onInputReport(HidDevice source, int reportId, ByteBuffer report, long timestamp);
+
+    /**
+     * Never called by the {@link HidDevice}, only there for code calling the
+     * listener itself, it passes the current time as the timestamp.
+     */
+    @Override
+    default void onInputReport(HidDevice source, int reportId, ByteBuffer report) {
+        onInputReport(source, reportId, report, System.nanoTime());
+    }
+}
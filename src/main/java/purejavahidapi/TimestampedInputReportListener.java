@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+
+/**
+ * An {@link InputReportListener} that gets the time each report was read.
+ * <p>
+ * It has one abstract method, so it can be a lambda, e.g.
+ * <pre>
+ * TimestampedInputReportListener listener = (source, reportID, reportData, reportLength, timestamp) -&gt; ...;
+ * device.setInputReportListener(listener);
+ * </pre>
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@FunctionalInterface
+public interface TimestampedInputReportListener extends InputReportListener {
+
+    /**
+     * This method gets called when an input report is received.
+     *
+     * @param source       the HidDevice object that called this method
+     * @param reportID     the report id number if used or zero
+     * @param reportData   the report data included first byte for report id
+     * @param reportLength report length
+     * @param timestamp    the {@link System#nanoTime()} taken right after the report was read from the operating system
+     * @see InputReportListener#onInputReport(HidDevice, byte, byte[], int)
+     */
+    @Override
+    void onInputReport(HidDevice source, byte reportID, byte[] reportData, int reportLength, long timestamp);
+
+    /**
+     * Never called by the {@link HidDevice}, only there for code calling the
+     * listener itself, it passes the current time as the timestamp.
+     */
+    @Override
+    default void onInputReport(HidDevice source, byte reportID, byte[] reportData, int reportLength) {
+        onInputReport(source, reportID, reportData, reportLength, System.nanoTime());
+    }
+}
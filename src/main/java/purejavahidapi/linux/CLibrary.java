@@ -6,6 +6,8 @@ import java.util.List;
 import com.sun.jna.Library;
 import com.sun.jna.Native;
 import com.sun.jna.NativeLong;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
 import com.sun.jna.Structure;
 import purejavahidapi.linux.UdevLibrary.hidraw_report_descriptor;
 
@@ -15,9 +17,40 @@ public class CLibrary {
     static CLibraryInterface INSTANCE = Native.load("c", CLibraryInterface.class);
 
     public static short POLLIN = 0x0001;
+    public static short POLLOUT = 0x0004;
+    public static short POLLERR = 0x0008;
+    public static short POLLHUP = 0x0010;
+    public static short POLLNVAL = 0x0020;
     public static int ENOENT = 2;
     public static int EACCES = 13;
     public static int EBUSY = 16;
+    public static int EINTR = 4;
+    public static int EAGAIN = 11;
+    public static int EPERM = 1;
+    public static int EINVAL = 22;
+    public static int EIO = 5;
+    public static int ENODEV = 19;
+
+    public static final int O_NONBLOCK = 04000;
+    public static final int O_CLOEXEC = 02000000;
+
+    public static final int EPOLLIN = 0x001;
+    public static final int EPOLLOUT = 0x004;
+    public static final int EPOLLERR = 0x008;
+    public static final int EPOLLHUP = 0x010;
+    public static final int EPOLLONESHOT = 1 << 30;
+    public static final int EPOLL_CTL_ADD = 1;
+    public static final int EPOLL_CTL_DEL = 2;
+    public static final int EPOLL_CTL_MOD = 3;
+    public static final int EPOLL_CLOEXEC = O_CLOEXEC;
+    public static final int EFD_CLOEXEC = O_CLOEXEC;
+
+    /**
+     * struct epoll_event { uint32_t events; epoll_data_t data; } is packed on x86
+     * but naturally aligned everywhere else.
+     */
+    public static final int EPOLL_EVENT_SIZE = Platform.isIntel() ? 12 : 16;
+    public static final int EPOLL_EVENT_DATA_OFFSET = Platform.isIntel() ? 4 : 8;
 
     interface CLibraryInterface extends Library {
 
@@ -38,8 +71,47 @@ public class CLibrary {
         int poll(pollfd[] fds, int nfds, int timeout);
 
         int pipe(int[] fds);
+
+        int pipe2(int[] fds, int flags);
+
+        int read(int fd, Pointer data, NativeLong len);
+
+        int write(int fd, Pointer data, NativeLong len);
+
+        int epoll_create1(int flags);
+
+        int epoll_ctl(int epfd, int op, int fd, Pointer event);
+
+        int epoll_wait(int epfd, Pointer events, int maxevents, int timeout);
+
+        int eventfd(int initval, int flags);
+
+        int sched_setscheduler(int pid, int policy, int[] param);
+
+        int sched_setaffinity(int pid, NativeLong cpusetsize, long[] mask);
+    }
+
+    /**
+     * Direct mapped calls for the report paths, they take only primitives and
+     * pointers so that calling them allocates nothing, unlike {@link CLibraryInterface}
+     * which boxes its arguments and copies arrays.
+     */
+    static final class Direct {
+
+        static {
+            Native.register(Direct.class, "c");
+        }
+
+        static native int read(int fd, Pointer buf, NativeLong len);
+
+        static native int writev(int fd, Pointer iov, int iovcnt);
+
+        static native int ioctl(int fd, int cmd, Pointer p);
     }
 
+    /** the size of struct iovec { void *iov_base; size_t iov_len; } */
+    public static final int IOVEC_SIZE = Native.POINTER_SIZE + Native.SIZE_T_SIZE;
+
     static public class pollfd extends Structure {
 
         public static class ByReference extends pollfd implements Structure.ByReference {
@@ -105,4 +177,60 @@ public class CLibrary {
         return INSTANCE.pipe(fds);
     }
 
+    public static int pipe2(int[] fds, int flags) {
+        return INSTANCE.pipe2(fds, flags);
+    }
+
+    /** allocates nothing */
+    public static int read(int fd, Pointer buffer, NativeLong len) {
+        return Direct.read(fd, buffer, len);
+    }
+
+    public static int write(int fd, Pointer buffer, NativeLong len) {
+        return INSTANCE.write(fd, buffer, len);
+    }
+
+    /** allocates nothing, iov is an array of struct iovec, see {@link #IOVEC_SIZE} */
+    public static int writev(int fd, Pointer iov, int iovcnt) {
+        return Direct.writev(fd, iov, iovcnt);
+    }
+
+    /** allocates nothing */
+    public static int ioctl(int fd, int cmd, Pointer p) {
+        return Direct.ioctl(fd, cmd, p);
+    }
+
+    public static int epoll_create1(int flags) {
+        return INSTANCE.epoll_create1(flags);
+    }
+
+    public static int epoll_ctl(int epfd, int op, int fd, Pointer event) {
+        return INSTANCE.epoll_ctl(epfd, op, fd, event);
+    }
+
+    public static int epoll_wait(int epfd, Pointer events, int maxevents, int timeout) {
+        return INSTANCE.epoll_wait(epfd, events, maxevents, timeout);
+    }
+
+    public static int eventfd(int initval, int flags) {
+        return INSTANCE.eventfd(initval, flags);
+    }
+
+    /**
+     * @param pid    0 for the calling thread
+     * @param policy SCHED_OTHER 0, SCHED_FIFO 1, SCHED_RR 2
+     * @param priority struct sched_param { int sched_priority; }
+     */
+    public static int sched_setscheduler(int pid, int policy, int priority) {
+        return INSTANCE.sched_setscheduler(pid, policy, new int[] {priority});
+    }
+
+    /**
+     * @param pid  0 for the calling thread
+     * @param mask the cpu_set_t, bit n of mask[n / 64] for cpu n
+     */
+    public static int sched_setaffinity(int pid, long[] mask) {
+        return INSTANCE.sched_setaffinity(pid, new NativeLong(mask.length * 8L), mask);
+    }
+
 }
@@ -32,37 +32,68 @@ package purejavahidapi.linux;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.AccessDeniedException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+import com.sun.jna.Memory;
 import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+import purejavahidapi.Backoff;
 import purejavahidapi.DeviceRemovalListener;
-import purejavahidapi.shared.SyncPoint;
+import purejavahidapi.ReportBatch;
+import purejavahidapi.ThreadOptions;
+import purejavahidapi.shared.InputReportEvent;
+import purejavahidapi.shared.ReportCallEvent;
+import purejavahidapi.shared.ReportDescriptor;
+import purejavahidapi.shared.VirtualThreads;
 
 import static purejavahidapi.linux.CLibrary.EACCES;
+import static purejavahidapi.linux.CLibrary.EAGAIN;
+import static purejavahidapi.linux.CLibrary.EINTR;
+import static purejavahidapi.linux.CLibrary.EIO;
+import static purejavahidapi.linux.CLibrary.ENODEV;
 import static purejavahidapi.linux.CLibrary.ENOENT;
+import static purejavahidapi.linux.CLibrary.EPOLLERR;
+import static purejavahidapi.linux.CLibrary.EPOLLHUP;
+import static purejavahidapi.linux.CLibrary.EPOLLIN;
+import static purejavahidapi.linux.CLibrary.EPOLLONESHOT;
+import static purejavahidapi.linux.CLibrary.IOVEC_SIZE;
+import static purejavahidapi.linux.CLibrary.O_NONBLOCK;
+import static purejavahidapi.linux.CLibrary.POLLERR;
+import static purejavahidapi.linux.CLibrary.POLLHUP;
 import static purejavahidapi.linux.CLibrary.POLLIN;
+import static purejavahidapi.linux.CLibrary.POLLNVAL;
 import static purejavahidapi.linux.CLibrary.ioctl;
 import static purejavahidapi.linux.CLibrary.pipe;
 import static purejavahidapi.linux.CLibrary.poll;
 import static purejavahidapi.linux.CLibrary.pollfd;
-import static purejavahidapi.linux.CLibrary.read;
 import static purejavahidapi.linux.CLibrary.write;
+import static purejavahidapi.linux.CLibrary.writev;
 import static purejavahidapi.linux.HIDRAW.HIDIOCGFEATURE;
 import static purejavahidapi.linux.HIDRAW.HIDIOCSFEATURE;
 import static purejavahidapi.linux.UdevLibrary.HIDIOCGRDESC;
 import static purejavahidapi.linux.UdevLibrary.HIDIOCGRDESCSIZE;
 import static purejavahidapi.linux.UdevLibrary.O_RDWR;
 import static purejavahidapi.linux.UdevLibrary.hidraw_report_descriptor;
-import static purejavahidapi.linux.UdevLibrary.udev;
-import static purejavahidapi.linux.UdevLibrary.udev_device;
-import static purejavahidapi.linux.UdevLibrary.udev_device_get_devnode;
-import static purejavahidapi.linux.UdevLibrary.udev_device_new_from_syspath;
-import static purejavahidapi.linux.UdevLibrary.udev_new;
-import static purejavahidapi.linux.UdevLibrary.udev_unref;
 
 
 public class HidDevice extends purejavahidapi.HidDevice {
 
+    /** the largest report the kernel hid layer handles, see HID_MAX_BUFFER_SIZE in include/linux/hid.h */
+    private static final int HID_MAX_BUFFER_SIZE = 4096;
+
+    /** the number of reports hidraw buffers per open handle, see HIDRAW_BUFFER_SIZE in include/linux/hidraw.h */
+    private static final int HIDRAW_BUFFER_SIZE = 64;
+
+    /** never committed, only asked whether input report events are enabled */
+    private static final InputReportEvent INPUT_REPORT_EVENT = new InputReportEvent();
+
     private int m_DeviceHandle;
     private int m_NudgePipeReadHandle;
     private int m_NudgePipeWriteHandle;
@@ -71,20 +102,62 @@ public class HidDevice extends purejavahidapi.HidDevice {
 
     private boolean m_UsesNumberedReports;
     private Thread m_Thread;
-    private SyncPoint m_SyncStart;
-    private SyncPoint m_SyncShutdown;
-    private boolean m_StopThread;
-    private byte[] m_InputReportBytes;
-
-    /* package */ HidDevice(purejavahidapi.HidDeviceInfo deviceInfo, LinuxBackend backend) throws IOException {
+    /** counted down by the reader thread when it is up, open() waits for it */
+    private final CountDownLatch m_ReaderStarted = new CountDownLatch(1);
+    /** completed by the reader thread, or the reactor handler, when it has stopped, the handles are released after that */
+    private final CompletableFuture<Void> m_ReaderStopped = new CompletableFuture<>();
+    private volatile boolean m_StopThread;
+    /**
+     * the device has been unplugged, the reader stops rather than spin on the hangup,
+     * close() still has to be called, by the removal listener or the application
+     */
+    private volatile boolean m_Gone;
+    /** the native buffer read() writes into, so that JNA does not need to copy anything */
+    private Memory m_InputReportBuffer;
+    /** read-only view of {@link #m_InputReportBuffer} for the direct listener */
+    private ByteBuffer m_InputReportView;
+    private NativeLong m_InputReportBufferSize;
+    /** slots for the batch-drain mode, created when a batch listener shows up */
+    private Pointer[] m_BatchSlots;
+    private ByteBuffer[] m_BatchViews;
+    private ReportBatch m_ReportBatch;
+
+    /** non null when the reads are done by a shared reactor instead of {@link #m_Thread}, or it wakes up a virtual {@link #m_Thread} */
+    private Reactor m_Reactor;
+    private Reactor.Registration m_Registration;
+    /** a byte to wake the reader thread up with */
+    private static final byte[] NUDGE = new byte[1];
+    /** the nudges read back by the reader thread */
+    private final byte[] m_Nudges = new byte[64];
+    /** output and feature reports are put together here, report id first, so that sending them allocates nothing */
+    private final Memory m_ReportBuffer = new Memory(HID_MAX_BUFFER_SIZE);
+    private final ByteBuffer m_ReportBufferView = m_ReportBuffer.getByteBuffer(0, HID_MAX_BUFFER_SIZE);
+    /** a struct iovec for writev() pointing at {@link #m_ReportBuffer} */
+    private final Memory m_ReportIoVec = new Memory(IOVEC_SIZE);
+    private final ReadMode m_Mode;
+    /** what the reader does while there is nothing to read in the busy-poll mode */
+    private final Backoff m_Backoff;
+    /** the epoll events the reactor has seen for the virtual {@link #m_Thread} */
+    private final AtomicInteger m_ReadyEvents = new AtomicInteger();
+    /** the device handle for poll() in the synchronous read mode */
+    private pollfd[] m_SyncPollFd;
+    /** guards the device handle against being closed while the reactor is reading it */
+    private final Object m_ReadMutex = new Object();
+    private boolean m_Closed;
+    /** readOnReactor() is running, a listener closing the device leaves the handles to it, guarded by {@link #m_ReadMutex} */
+    private boolean m_Reading;
+
+    /* package */ HidDevice(purejavahidapi.HidDeviceInfo deviceInfo, LinuxBackend backend, Reactor reactor, ReadMode mode, ThreadOptions threadOptions, Backoff backoff) throws IOException {
         m_Backend = backend;
         m_HidDeviceInfo = deviceInfo;
-        udev udev = udev_new();
-        udev_device raw_dev = udev_device_new_from_syspath(udev, m_HidDeviceInfo.getPath());
-        String dev_path = udev_device_get_devnode(raw_dev);
-        udev_unref(udev);
-
-        m_DeviceHandle = purejavahidapi.linux.CLibrary.open(dev_path, O_RDWR);
+        m_Reactor = reactor;
+        m_Mode = mode;
+        m_Backoff = backoff;
+        String dev_path = backend.getDevNode(deviceInfo);
+
+        // reads only happen after poll() said so, the handle is non-blocking so that the batch-drain mode can
+        // read until EAGAIN and a stale event never blocks the shared reactor thread
+        m_DeviceHandle = purejavahidapi.linux.CLibrary.open(dev_path, O_RDWR | O_NONBLOCK);
         if (m_DeviceHandle <= 0) {
             int err = Native.getLastError();
             if (err == EACCES)
@@ -93,13 +166,18 @@ public class HidDevice extends purejavahidapi.HidDevice {
                 throw new FileNotFoundException(dev_path);
             throw new IOException("open() failed, errno " + err);
         }
+        try {
+            init(threadOptions);
+        } catch (IOException | RuntimeException e) {
+            CLibrary.close(m_DeviceHandle); // nobody else knows the handle yet
+            throw e;
+        }
+        // only a device whose handle is open is known to the backend, close() says goodbye
+        m_Backend.addDevice(this);
+    }
 
-        int[] pipes = new int[2];
-        int piperes = pipe(pipes);
-        if (piperes != 0)
-            throw new IOException("pipe() failed" + Native.getLastError());
-        m_NudgePipeReadHandle = pipes[0];
-        m_NudgePipeWriteHandle = pipes[1];
+    /** the part of the constructor after the handle has been opened */
+    private void init(ThreadOptions threadOptions) throws IOException {
 
         // Get the report descriptor
         int[] desc_size = {0};
@@ -117,30 +195,165 @@ public class HidDevice extends purejavahidapi.HidDevice {
         res = ioctl(m_DeviceHandle, HIDIOCGRDESC, rpt_desc);
         if (res < 0)
             throw new IOException("ioctl(...HIDIOCGRDESC..) failed");
-        // Determine if this device uses numbered reports.
-        m_UsesNumberedReports = uses_numbered_reports(rpt_desc.value, rpt_desc.size);
+        // Determine if this device uses numbered reports and how long the input reports can be.
+        m_ReportDescriptor = ReportDescriptor.parse(rpt_desc.value, rpt_desc.size);
+        m_UsesNumberedReports = m_ReportDescriptor.usesNumberedReports();
+        m_MaxInputReportLength = m_ReportDescriptor.getMaxReportLength(ReportDescriptor.INPUT);
+        if (m_MaxInputReportLength == 0)
+            m_MaxInputReportLength = HID_MAX_BUFFER_SIZE; // no usable Input items, read whatever comes
+
+        // the kernel prepends the report id to numbered reports
+        int inputReportBufferSize = m_MaxInputReportLength + (m_UsesNumberedReports ? 1 : 0);
+        m_InputReportBuffer = new Memory(inputReportBufferSize);
+        m_ReportIoVec.setPointer(0, m_ReportBuffer);
+        m_InputReportView = m_InputReportBuffer.getByteBuffer(0, inputReportBufferSize).asReadOnlyBuffer();
+        m_InputReportBufferSize = new NativeLong(inputReportBufferSize);
+
+        if (m_Mode == ReadMode.SYNC) {
+            m_SyncPollFd = (pollfd[]) (new pollfd().toArray(1));
+            m_SyncPollFd[0].fd = m_DeviceHandle;
+            m_SyncPollFd[0].events = POLLIN;
+        } else if (m_Mode == ReadMode.VIRTUAL) {
+            m_Thread = VirtualThreads.newThread(m_HidDeviceInfo.getPath(), () -> {
+                try {
+                    runReadOnVirtualThread();
+                } finally {
+                    m_ReaderStopped.complete(null);
+                }
+            });
+            m_ThreadSetupResult = ThreadSetup.unsupported(threadOptions);
+        } else if (m_Mode == ReadMode.REACTOR) {
+            m_ThreadSetupResult = m_Reactor.getThreadSetupResult();
+        } else if (m_Mode == ReadMode.SPIN) {
+            m_Thread = ThreadSetup.newThread(threadOptions, m_HidDeviceInfo.getPath(), () -> {
+                m_ThreadSetupResult = ThreadSetup.applyToCurrentThread(threadOptions);
+                try {
+                    runReadBusy();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    m_ReaderStarted.countDown();
+                    m_ReaderStopped.complete(null);
+                }
+            });
+        } else {
+            int[] pipes = new int[2];
+            int piperes = pipe(pipes);
+            if (piperes != 0)
+                throw new IOException("pipe() failed" + Native.getLastError());
+            m_NudgePipeReadHandle = pipes[0];
+            m_NudgePipeWriteHandle = pipes[1];
+
+            m_Thread = ThreadSetup.newThread(threadOptions, m_HidDeviceInfo.getPath(), () -> {
+                // applied by the thread to itself, open() waits for it
+                m_ThreadSetupResult = ThreadSetup.applyToCurrentThread(threadOptions);
+                try {
+                    runReadOnBackground();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    m_ReaderStarted.countDown();
+                    m_ReaderStopped.complete(null);
+                }
+            });
+        }
+    }
 
-        m_InputReportBytes = new byte[4096 + 1];
+    @Override
+    public void open() {
+        m_Open = true;
+        if (m_Mode == ReadMode.SYNC)
+            return;
+        if (m_Mode == ReadMode.VIRTUAL) {
+            try {
+                // one shot, the virtual thread re-arms after it has read, events that come
+                // before it has started are kept in m_ReadyEvents
+                m_Registration = m_Reactor.register(m_DeviceHandle, EPOLLIN | EPOLLONESHOT, this::wakeVirtualThread);
+            } catch (IOException e) {
+                openFailed();
+                throw new IllegalStateException(e);
+            }
+            m_Thread.start();
+            return;
+        }
+        if (m_Mode == ReadMode.REACTOR) {
+            try {
+                m_Registration = m_Reactor.register(m_DeviceHandle, EPOLLIN, this::readOnReactor);
+            } catch (IOException e) {
+                openFailed();
+                throw new IllegalStateException(e);
+            }
+            return;
+        }
+        m_Thread.start();
+        try {
+            m_ReaderStarted.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        m_SyncStart = new SyncPoint(2);
-        m_SyncShutdown = new SyncPoint(2);
+    /** the reactor took no registration, the device cannot be used, nor closed, any more */
+    private void openFailed() {
+        m_Open = false;
+        releaseHandles();
+    }
 
-        m_Thread = new Thread(() -> {
+    /** called on the reactor thread when the device handle is readable, it never writes, see {@link #setOutputReportAsync} */
+    private void readOnReactor(int events) {
+        long wakeup = System.nanoTime();
+        synchronized (m_ReadMutex) {
+            if (m_Closed)
+                return;
+            m_Reading = true;
             try {
-                runReadOnBackground();
-            } catch (Exception e) {
-                e.printStackTrace();
+                readInputReports(wakeup);
+            } finally {
+                m_Reading = false;
+            }
+            if (!m_Closed) {
+                if ((events & (EPOLLERR | EPOLLHUP)) != 0)
+                    m_Gone = true;
+                if (m_Gone)
+                    m_Reactor.deregister(m_Registration);
+                return;
             }
-        }, m_HidDeviceInfo.getPath());
-        m_Backend.addDevice(m_HidDeviceInfo.getDeviceId(), this);
+        }
+        // a listener has closed the device, the handles are released now that nothing reads them
+        releaseHandles();
+        m_ReaderStopped.complete(null);
     }
 
-    @Override
-    public void open() {
-        m_Open = true;
-        m_Thread.setDaemon(true);
-        m_Thread.start();
-        m_SyncStart.waitAndSync();
+    /** called on the reactor thread in the virtual thread mode, only hands the events over */
+    private void wakeVirtualThread(int events) {
+        m_ReadyEvents.getAndUpdate(e -> e | events);
+        LockSupport.unpark(m_Thread);
+    }
+
+    /**
+     * the virtual thread mode, parks on a java level primitive instead of blocking in
+     * poll(), which would pin the carrier thread, every call into C returns at once
+     */
+    private void runReadOnVirtualThread() {
+        while (!m_StopThread) {
+            int events = m_ReadyEvents.getAndSet(0);
+            if (events == 0) {
+                LockSupport.park(this);
+                continue;
+            }
+            long wakeup = System.nanoTime();
+            try {
+                readInputReports(wakeup);
+                if ((events & (EPOLLERR | EPOLLHUP)) != 0)
+                    m_Gone = true;
+                if (m_StopThread || m_Gone)
+                    break;
+                m_Reactor.modify(m_Registration, EPOLLIN | EPOLLONESHOT);
+            } catch (Exception e) {
+                if (!m_StopThread)
+                    e.printStackTrace();
+            }
+        }
     }
 
     private void runReadOnBackground() throws IOException {
@@ -150,54 +363,358 @@ public class HidDevice extends purejavahidapi.HidDevice {
         pfds[1].fd = m_DeviceHandle;
         pfds[1].events = POLLIN;
 
-        m_SyncStart.waitAndSync();
+        m_ReaderStarted.countDown();
 
-        while (!m_StopThread) {
+        while (!m_StopThread && !m_Gone) {
             int pollres = poll(pfds, 2, -1);
+            long wakeup = System.nanoTime();
             if (pollres < 0)
                 throw new IOException("pipe() failed" + Native.getLastError());
             if (pollres > 0) {
-                if ((pfds[1].revents & POLLIN) != 0) {
-                    // In Linux read() from a HID device we always try to read at least as many bytes as there can be in a report
-                    // the kernel will return with the actual number of bytes in the report (plus one if numbered reports are used)
-                    // and the data will be preceded with the report number if and only if numbered reports are used, which is
-                    // kind of stupid because then we need to know this and to know that it is necessary to (be able to!) read
-                    // the HID descriptor AND parse it. I like the Mac OS and Windows ways better, what a mess the world is!
-                    int bytes_read = read(m_DeviceHandle, m_InputReportBytes, m_InputReportBytes.length);
-                    if (m_InputReportListener != null) {
-                        byte reportID = 0;
-                        if (m_UsesNumberedReports) {
-                            reportID = m_InputReportBytes[0];
-                            bytes_read--;
-                            System.arraycopy(m_InputReportBytes, 1, m_InputReportBytes, 0, bytes_read);
-                        }
-                        m_InputReportListener.onInputReport(this, reportID, m_InputReportBytes, bytes_read);
-                    }
-                }
+                if ((pfds[0].revents & POLLIN) != 0 && !m_StopThread)
+                    CLibrary.read(m_NudgePipeReadHandle, m_Nudges, m_Nudges.length);
+                if ((pfds[1].revents & POLLIN) != 0)
+                    readInputReports(wakeup);
+                if ((pfds[1].revents & (POLLERR | POLLHUP | POLLNVAL)) != 0)
+                    m_Gone = true;
             }
 
         }
-        m_SyncShutdown.waitAndSync();
+    }
+
+    /**
+     * the busy-poll mode, no poll() and no nudge pipe, the handle is read until there is
+     * nothing and then the backoff decides how soon to try again
+     */
+    private void runReadBusy() {
+        m_ReaderStarted.countDown();
+        int idle = 0;
+        while (!m_StopThread && !m_Gone) {
+            long wakeup = System.nanoTime();
+            boolean read = m_BatchInputReportListener != null ? drainInputReports(wakeup) : readInputReport(wakeup);
+            if (read) {
+                idle = 0;
+            } else {
+                m_Backoff.idle(idle);
+                if (idle < Integer.MAX_VALUE)
+                    idle++;
+            }
+        }
+    }
+
+    /**
+     * reads what the device handle has to offer and passes it to the listeners
+     *
+     * @param wakeup the time poll() returned
+     */
+    private void readInputReports(long wakeup) {
+        m_Counters.pollWakeup();
+        if (m_BatchInputReportListener != null)
+            drainInputReports(wakeup);
+        else
+            readInputReport(wakeup);
+    }
+
+    /**
+     * reads one report from the device handle and passes it to the listener
+     *
+     * @return false if there was nothing to read
+     */
+    private boolean readInputReport(long wakeup) {
+        // In Linux read() from a HID device we always try to read at least as many bytes as there can be in a report
+        // the kernel will return with the actual number of bytes in the report (plus one if numbered reports are used)
+        // and the data will be preceded with the report number if and only if numbered reports are used, which is
+        // kind of stupid because then we need to know this and to know that it is necessary to (be able to!) read
+        // the HID descriptor AND parse it. I like the Mac OS and Windows ways better, what a mess the world is!
+        InputReportEvent event = beginInputReportEvent();
+        int bytes_read = CLibrary.read(m_DeviceHandle, m_InputReportBuffer, m_InputReportBufferSize);
+        long timestamp = System.nanoTime();
+        if (event != null)
+            event.end();
+        if (bytes_read <= 0) {
+            readFailed(bytes_read);
+            return false; // EAGAIN on a non-blocking handle, the next poll will tell
+        }
+        recordWakeupToRead(wakeup, timestamp);
+        // numbered reports are not shifted, the listeners just start after the report id
+        int offset = 0;
+        int reportID = 0;
+        if (m_UsesNumberedReports) {
+            reportID = m_InputReportBuffer.getByte(0) & 0xff;
+            offset = 1;
+        }
+        countShortRead(reportID, bytes_read - offset);
+        commit(event, reportID, bytes_read - offset);
+        m_InputReportView.clear().limit(bytes_read).position(offset);
+        dispatchInputReport(reportID, m_InputReportView, timestamp);
+        return true;
+    }
+
+    @Override
+    public int read(ByteBuffer data, long timeoutMillis) {
+        if (m_Mode != ReadMode.SYNC)
+            throw new IllegalStateException("device not opened with OpenOptions.syncRead()");
+        if (!m_Open)
+            throw new IllegalStateException("device not open");
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (true) {
+            // a report already queued in the kernel is taken without poll()
+            InputReportEvent event = beginInputReportEvent();
+            int bytes_read = CLibrary.read(m_DeviceHandle, m_InputReportBuffer, m_InputReportBufferSize);
+            if (event != null)
+                event.end();
+            if (bytes_read > 0) {
+                int reportID = m_UsesNumberedReports ? m_InputReportBuffer.getByte(0) & 0xff : 0;
+                int offset = m_UsesNumberedReports ? 1 : 0;
+                m_Counters.reportRead(bytes_read - offset);
+                countShortRead(reportID, bytes_read - offset);
+                commit(event, reportID, bytes_read - offset);
+                int length = Math.min(bytes_read, data.remaining());
+                data.put(data.position(), m_InputReportView, 0, length);
+                data.position(data.position() + length);
+                return length;
+            }
+            if (bytes_read < 0 && Native.getLastError() != EAGAIN) {
+                m_Counters.readError();
+                return -1;
+            }
+            int timeout = -1;
+            if (timeoutMillis >= 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    return 0;
+                timeout = (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(remaining + 999_999)); // rounded up
+            }
+            int pollres = poll(m_SyncPollFd, 1, timeout);
+            if (pollres < 0 && Native.getLastError() != EINTR) {
+                m_Counters.readError();
+                return -1;
+            }
+            if (pollres > 0)
+                m_Counters.pollWakeup();
+        }
+    }
+
+    /** counts a read that returned nothing unless it is the EAGAIN of a drained handle */
+    private void readFailed(int result) {
+        if (result >= 0)
+            return;
+        int errno = Native.getLastError();
+        if (errno == EAGAIN)
+            return;
+        m_Counters.readError();
+        if (errno == EIO || errno == ENODEV) // what hidraw says once the device is gone
+            m_Gone = true;
+    }
+
+    /** counts a report shorter than the report descriptor says */
+    private void countShortRead(int reportID, int length) {
+        if (m_ReportDescriptor != null && length < m_ReportDescriptor.getReportLength(ReportDescriptor.INPUT, reportID))
+            m_Counters.shortRead();
+    }
+
+    /**
+     * @return a begun event, null while no recording has input report events enabled,
+     *         so that the reads, the empty ones of a drained handle too, allocate nothing
+     */
+    private static InputReportEvent beginInputReportEvent() {
+        if (!INPUT_REPORT_EVENT.isEnabled())
+            return null;
+        InputReportEvent event = new InputReportEvent();
+        event.begin();
+        return event;
+    }
+
+    /** @param event null if {@link #beginInputReportEvent()} returned none */
+    private void commit(InputReportEvent event, int reportID, int length) {
+        if (event != null && event.shouldCommit()) {
+            event.path = m_HidDeviceInfo.getPath();
+            event.reportId = reportID;
+            event.length = length;
+            event.commit();
+        }
+    }
+
+    /**
+     * @param event null if {@link ReportCallEvent#beginIfEnabled()} returned none
+     * @return result
+     */
+    private int commit(ReportCallEvent event, String call, int reportId, int length, int result) {
+        if (event != null && event.shouldCommit()) {
+            event.path = m_HidDeviceInfo.getPath();
+            event.call = call;
+            event.reportId = reportId;
+            event.bytes = length;
+            event.result = result;
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * batch-drain mode, reads until EAGAIN or the hidraw queue worth of reports and passes them in one go
+     *
+     * @return false if there was nothing to read
+     */
+    private boolean drainInputReports(long wakeup) {
+        if (m_ReportBatch == null) {
+            int slotSize = m_InputReportBufferSize.intValue();
+            Memory memory = new Memory((long) slotSize * HIDRAW_BUFFER_SIZE);
+            m_BatchSlots = new Pointer[HIDRAW_BUFFER_SIZE];
+            m_BatchViews = new ByteBuffer[HIDRAW_BUFFER_SIZE];
+            for (int i = 0; i < HIDRAW_BUFFER_SIZE; i++) {
+                m_BatchSlots[i] = memory.share((long) slotSize * i, slotSize);
+                m_BatchViews[i] = memory.getByteBuffer((long) slotSize * i, slotSize).asReadOnlyBuffer();
+            }
+            m_ReportBatch = new ReportBatch(HIDRAW_BUFFER_SIZE);
+        }
+        ReportBatch batch = m_ReportBatch;
+        batch.clear();
+        while (batch.size() < batch.capacity()) {
+            int i = batch.size();
+            InputReportEvent event = beginInputReportEvent();
+            int bytes_read = CLibrary.read(m_DeviceHandle, m_BatchSlots[i], m_InputReportBufferSize);
+            long timestamp = System.nanoTime();
+            if (event != null)
+                event.end();
+            if (bytes_read <= 0) {
+                readFailed(bytes_read);
+                break; // EAGAIN, drained
+            }
+            recordWakeupToRead(wakeup, timestamp);
+            int offset = 0;
+            int reportID = 0;
+            if (m_UsesNumberedReports) {
+                reportID = m_BatchSlots[i].getByte(0) & 0xff;
+                offset = 1;
+            }
+            countShortRead(reportID, bytes_read - offset);
+            commit(event, reportID, bytes_read - offset);
+            m_BatchViews[i].clear().limit(bytes_read).position(offset);
+            batch.add(reportID, m_BatchViews[i], timestamp);
+        }
+        if (batch.size() == 0)
+            return false;
+        dispatchInputReports(batch);
+        return true;
+    }
+
+    @Override
+    protected int getMaxOutputReportLength() {
+        int length = m_ReportDescriptor.getMaxReportLength(ReportDescriptor.OUTPUT);
+        return length > 0 ? length : HID_MAX_BUFFER_SIZE - 1;
+    }
+
+    @Override
+    public void setDeviceRemovalListener(DeviceRemovalListener listener) {
+        super.setDeviceRemovalListener(listener);
+        if (listener != null)
+            m_Backend.startHotplugMonitor();
     }
 
     @Override
     public void close() {
+        CompletableFuture<Void> closed = closeAsync();
+        if (!isOwnThread()) // a listener closing the device cannot wait for itself
+            closed.join();
+    }
+
+    /**
+     * @return true on the reader thread, virtual or not, on the reactor thread, which runs the
+     *         listeners in the reactor mode, and on the dispatcher thread of this device
+     */
+    private boolean isOwnThread() {
+        return Thread.currentThread() == m_Thread || (m_Reactor != null && m_Reactor.isReactorThread()) || isDispatcherThread();
+    }
+
+    @Override
+    public CompletableFuture<Void> closeAsync() {
         if (!m_Open)
             throw new IllegalStateException("device not open");
+        m_Open = false;
+        // before the reader is waited for, it may be waiting for a free slot of the dispatch stage
+        closeDelivery();
+        if (m_Mode == ReadMode.SYNC || m_Mode == ReadMode.REACTOR) {
+            if (m_Mode == ReadMode.REACTOR) {
+                m_Reactor.deregister(m_Registration);
+                synchronized (m_ReadMutex) {
+                    m_Closed = true; // the reactor may still be in readOnReactor() for this device
+                    if (m_Reading)
+                        return m_ReaderStopped; // a listener on the reactor thread, readOnReactor() releases
+                }
+            }
+            releaseHandles();
+            return CompletableFuture.completedFuture(null);
+        }
         m_StopThread = true;
-        write(m_NudgePipeWriteHandle, new byte[1], 1);
-        m_Thread.interrupt();
-        m_SyncShutdown.waitAndSync();
-        CLibrary.close(m_DeviceHandle);
-        CLibrary.close(m_NudgePipeWriteHandle);
-        CLibrary.close(m_NudgePipeReadHandle);
-        m_Backend.removeDevice(m_HidDeviceInfo.getDeviceId());
+        if (m_Mode == ReadMode.VIRTUAL) {
+            m_Reactor.deregister(m_Registration);
+            LockSupport.unpark(m_Thread);
+        } else if (m_Mode == ReadMode.SPIN) {
+            LockSupport.unpark(m_Thread);
+        } else {
+            write(m_NudgePipeWriteHandle, NUDGE, 1);
+            m_Thread.interrupt();
+        }
+        // the handles must not be closed under the reader, the last one to get here closes them
+        return m_ReaderStopped.thenRun(this::releaseHandles);
+    }
 
-        m_Open = false;
+    /**
+     * closes the handles and says goodbye to the backend, nobody reads the device any more,
+     * the background writer of the base class writes with the device lock held, so the handle
+     * is not closed under a report it is writing, and a report it has taken already fails
+     */
+    private void releaseHandles() {
+        synchronized (this) {
+            CLibrary.close(m_DeviceHandle);
+            m_DeviceHandle = -1;
+        }
+        if (m_Mode == ReadMode.THREAD) {
+            CLibrary.close(m_NudgePipeWriteHandle);
+            CLibrary.close(m_NudgePipeReadHandle);
+        }
+        m_Backend.removeDevice(this);
     }
 
     @Override
     synchronized public int setOutputReport(byte reportID, byte[] data, int length) {
+        ReportCallEvent event = ReportCallEvent.beginIfEnabled();
+        checkReportLength(length);
+        m_ReportBufferView.put(0, reportID).put(1, data, 0, length);
+        int result = writeOutputReport(length + 1);
+        return m_Counters.outputReport(commit(event, "setOutputReport", reportID, length, result));
+    }
+
+    @Override
+    synchronized public int setOutputReport(byte reportID, ByteBuffer data) {
+        ReportCallEvent event = ReportCallEvent.beginIfEnabled();
+        int length = data.remaining();
+        checkReportLength(length);
+        m_ReportBufferView.put(0, reportID).put(1, data, data.position(), length);
+        int result = writeOutputReport(length + 1);
+        return m_Counters.outputReport(commit(event, "setOutputReport", reportID, length, result));
+    }
+
+    private void checkReportLength(int length) {
+        if (length >= HID_MAX_BUFFER_SIZE)
+            throw new IllegalArgumentException("report too long: " + length);
+    }
+
+    /** @param length the length of the report in {@link #m_ReportBuffer} including the report id */
+    private int writeOutputReport(int length) {
+        int len = writeReport(m_ReportIoVec, length);
+        if (len < 0)
+            return -1;
+        return len - 1;
+    }
+
+    /**
+     * @param ioVec  a struct iovec pointing at the report, the report id first
+     * @param length the length of the report including the report id
+     * @return what writev() returns
+     */
+    private int writeReport(Memory ioVec, int length) {
         // In Linux write() to HID device data is preceded with the report number only if numbered reports are used
         //
         // "The first byte of the buffer passed to write() should be set to the report
@@ -207,21 +724,39 @@ public class HidDevice extends purejavahidapi.HidDevice {
         // References:
         // - https://www.kernel.org/doc/Documentation/hid/hidraw.txt
         // - http://www.usb.org/developers/hidpage/HID1_11.pdf
-        byte[] temp = new byte[length + 1];
-        temp[0] = reportID;
-        System.arraycopy(data, 0, temp, 1, length);
-        int len = write(m_DeviceHandle, temp, length + 1);
-        if (len < 0)
-            return -1;
-        return len - 1;
+        //
+        // The report id and the data have to be in one buffer, hidraw has no write_iter so a writev() of
+        // them as two segments would be written as two reports. writev() with one segment is used because
+        // it is direct mapped and takes the length in memory, so that the call allocates nothing.
+        if (Native.SIZE_T_SIZE == 8)
+            ioVec.setLong(Native.POINTER_SIZE, length);
+        else
+            ioVec.setInt(Native.POINTER_SIZE, length);
+        return writev(m_DeviceHandle, ioVec, 1);
     }
 
     @Override
     synchronized public int setFeatureReport(byte reportId, byte[] data, int length) {
-        byte[] temp = new byte[length + 1];
-        temp[0] = reportId;
-        System.arraycopy(data, 0, temp, 1, length);
-        int len = ioctl(m_DeviceHandle, HIDIOCSFEATURE(length + 1), temp);
+        ReportCallEvent event = ReportCallEvent.beginIfEnabled();
+        checkReportLength(length);
+        m_ReportBufferView.put(0, reportId).put(1, data, 0, length);
+        int result = writeFeatureReport(length + 1);
+        return m_Counters.featureReportSet(commit(event, "setFeatureReport", reportId, length, result));
+    }
+
+    @Override
+    synchronized public int setFeatureReport(byte reportId, ByteBuffer data) {
+        ReportCallEvent event = ReportCallEvent.beginIfEnabled();
+        int length = data.remaining();
+        checkReportLength(length);
+        m_ReportBufferView.put(0, reportId).put(1, data, data.position(), length);
+        int result = writeFeatureReport(length + 1);
+        return m_Counters.featureReportSet(commit(event, "setFeatureReport", reportId, length, result));
+    }
+
+    /** @param length the length of the report in {@link #m_ReportBuffer} including the report id */
+    private int writeFeatureReport(int length) {
+        int len = ioctl(m_DeviceHandle, HIDIOCSFEATURE(length), m_ReportBuffer);
         if (len < 0)
             return -1;
         return len - 1;
@@ -237,75 +772,35 @@ public class HidDevice extends purejavahidapi.HidDevice {
 
     @Override
     synchronized public int getFeatureReport(int reportId, byte[] data, int length) {
-        return ioctl(m_DeviceHandle, HIDIOCGFEATURE(length), data);
+        ReportCallEvent event = ReportCallEvent.beginIfEnabled();
+        int result = readFeatureReport(reportId, length);
+        if (result > 0)
+            m_ReportBufferView.get(0, data, 0, result);
+        return m_Counters.featureReportGot(commit(event, "getFeatureReport", reportId, length, result));
     }
 
-    private static boolean uses_numbered_reports(byte[] report_descriptor, int size) {
-        final boolean debug = false;
-        if (debug) {
-            for (int i = 0; i < size; i++) {
-                System.out.printf("0x%02X, ", report_descriptor[i]);
-                if ((i & 15) == 15)
-                    System.out.println();
-            }
-            System.out.println();
-        }
-        int i = 0;
-
-        int size_code;
-        int data_len, key_size;
-
-        while (i < size) {
-            int key = report_descriptor[i] & 0xff;
-
-            // Check for the Report ID key
-            if (key == 0x85) {// Report ID
-                // This device has a Report ID, which means it uses numbered reports.
-                return true;
-            }
-
-            if (debug)
-                System.out.printf("key: %02x\n", 0xff & key);
-
-            if ((key & 0xf0) == 0xf0) {
-                /*
-                 * This is a Long Item. The next byte contains the length of the data section (value) for this key. See the HID specification, version 1.11, section 6.2.2.3, titled "Long Items."
-                 */
-                if (i + 1 < size)
-                    data_len = report_descriptor[i + 1];
-                else
-                    data_len = 0; // malformed report
-                key_size = 3;
-            } else {
-                /*
-                 * This is a Short Item. The bottom two bits of the key contain the size code for the data section (value) for this key. Refer to the HID specification, version 1.11, section 6.2.2.2, titled "Short Items."
-                 */
-                size_code = key & 0x3;
-                switch (size_code) {
-                case 0:
-                case 1:
-                case 2:
-                    data_len = size_code;
-                    break;
-                case 3:
-                    data_len = 4;
-                    break;
-                default:
-                    // Can't ever happen since size_code is & 0x3
-                    data_len = 0;
-                    break;
-                }
-                key_size = 1;
-            }
-
-            // Skip over this key and it's associated data
-            i += data_len + key_size;
+    @Override
+    synchronized public int getFeatureReport(int reportId, ByteBuffer data) {
+        ReportCallEvent event = ReportCallEvent.beginIfEnabled();
+        int length = data.remaining();
+        int result = readFeatureReport(reportId, length);
+        if (result > 0) {
+            data.put(data.position(), m_ReportBufferView, 0, result);
+            data.position(data.position() + result);
         }
+        return m_Counters.featureReportGot(commit(event, "getFeatureReport", reportId, length, result));
+    }
 
-        /*
-         * Didn't find a Report ID key. Device doesn't use numbered reports.
-         */
-        return false;
+    /**
+     * reads a feature report into {@link #m_ReportBuffer}, the first byte is the report id
+     *
+     * @param length the length of the report including the report id
+     */
+    private int readFeatureReport(int reportId, int length) {
+        checkReportLength(length - 1);
+        // HIDIOCGFEATURE takes the report id in the first byte of the buffer
+        m_ReportBufferView.put(0, (byte) reportId);
+        return Math.min(ioctl(m_DeviceHandle, HIDIOCGFEATURE(length), m_ReportBuffer), length);
     }
 
     @Override
@@ -31,104 +31,138 @@
 package purejavahidapi.linux;
 
 import java.io.IOException;
-import java.io.StringReader;
-import java.util.Properties;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 
-import purejavahidapi.linux.UdevLibrary.udev;
+import purejavahidapi.DeviceFilter;
 import purejavahidapi.linux.UdevLibrary.udev_device;
+import purejavahidapi.shared.ReportDescriptor;
 
 import static purejavahidapi.linux.UdevLibrary.BUS_BLUETOOTH;
 import static purejavahidapi.linux.UdevLibrary.BUS_USB;
 import static purejavahidapi.linux.UdevLibrary.udev_device_get_devnode;
 import static purejavahidapi.linux.UdevLibrary.udev_device_get_parent_with_subsystem_devtype;
 import static purejavahidapi.linux.UdevLibrary.udev_device_get_sysattr_value;
-import static purejavahidapi.linux.UdevLibrary.udev_device_new_from_syspath;
-import static purejavahidapi.linux.UdevLibrary.udev_device_unref;
-import static purejavahidapi.linux.UdevLibrary.udev_new;
-import static purejavahidapi.linux.UdevLibrary.udev_unref;
+import static purejavahidapi.linux.UdevLibrary.udev_device_get_syspath;
 
 
+/**
+ * Everything {@link HidDevice} needs is resolved once while enumerating,
+ * so that opening the device does not go through udev again. Made by the
+ * udev enumeration or by {@link SysfsEnumerator}.
+ */
 class HidDeviceInfo extends purejavahidapi.HidDeviceInfo {
 
-    // TODO m_UsagePage, m_UsageId
-    public HidDeviceInfo(String sysfs_path) throws IOException {
-        m_DevicePath = sysfs_path;
-        udev_device raw_dev = null;
-        udev udev = null;
-        udev_device hid_dev;
-        udev_device usb_dev;
-        try {
-            udev = udev_new();
-
-            raw_dev = udev_device_new_from_syspath(udev, sysfs_path);
-            String dev_path = udev_device_get_devnode(raw_dev);
-            hid_dev = udev_device_get_parent_with_subsystem_devtype(raw_dev, "hid", null);
-
-            if (hid_dev == null)
-                throw new IOException("hid_dev == null");
-
-            if (dev_path == null)
-                throw new IOException("dev_path == null");
-
-            usb_dev = udev_device_get_parent_with_subsystem_devtype(raw_dev, "usb", "usb_device");
-            String usb_dev_path = udev_device_get_devnode(usb_dev);
-
-
-            Properties p = new Properties();
-            p.load(new StringReader(udev_device_get_sysattr_value(hid_dev, "uevent")));
-
-            String[] hidId = ((String) p.get("HID_ID")).split(":");
-            short bus = (short) Long.parseLong(hidId[0], 16);
-            m_DeviceId = usb_dev_path;
-            m_VendorId = (short) Long.parseLong(hidId[1], 16);
-            m_ProductId = (short) Long.parseLong(hidId[2], 16);
-
-            m_ProductString = (String) p.get("HID_NAME");
-            m_SerialNumberString = (String) p.get("HID_UNIQ");
-
-            if (bus != BUS_USB && bus != BUS_BLUETOOTH)
-                throw new IOException("bus != BUS_USB && bus != BUS_BLUETOOTH ");
-
-            switch (bus) {
-            case BUS_USB:
-                // The device pointed to by raw_dev contains information
-                // about the hidraw device. In order to get information
-                // about the USB device, get the parent device with the
-                // subsystem/devtype pair of "usb"/"usb_device". This will
-                // be several levels up the tree, but the function will find
-                // it.
-                if (usb_dev == null)
-                    throw new IOException("usb_dev == null");
-
-                // Get a handle to the interface's udev node.
-                udev_device intf_dev = udev_device_get_parent_with_subsystem_devtype(raw_dev, "usb", "usb_interface");
-                if (intf_dev != null) {
-                    String str = udev_device_get_sysattr_value(intf_dev, "bInterfaceNumber");
-                    //cur_dev->interface_number = (str)?
-                    //strtol(str, NULL, 16): -1;
-                }
-
-                break;
-
-            case BUS_BLUETOOTH:
-                // Manufacturer and Product strings
-                //cur_dev->manufacturer_string = wcsdup(L"");
-                //cur_dev->product_string =
-                //utf8_to_wchar_t(product_name_utf8);
-
-                break;
-
-            default:
-                // can't happen
-                break;
+    /** the hidraw node, e.g. /dev/hidraw0 */
+    private final String m_DevNode;
+    /** the usb interface number, -1 if not usb */
+    private final int m_InterfaceNumber;
+    /** HID_PHYS, e.g. usb-0000:00:14.0-1/input2 */
+    private final String m_Phys;
+
+    HidDeviceInfo(String sysfsPath, String devNode, String deviceId, short busType, short vendorId, short productId, short releaseNumber,
+                  short usagePage, short usageId, String manufacturer, String product, String serialNumber, String phys, int interfaceNumber) {
+        m_DevicePath = sysfsPath;
+        m_DevNode = devNode;
+        m_DeviceId = deviceId;
+        m_VendorId = vendorId;
+        m_ProductId = productId;
+        m_ReleaseNumber = releaseNumber;
+        m_UsagePage = usagePage;
+        m_UsageId = usageId;
+        m_ManufactureString = manufacturer;
+        m_ProductString = product;
+        m_SerialNumberString = serialNumber;
+        m_BusType = busType;
+        m_Phys = phys;
+        m_InterfaceNumber = interfaceNumber;
+    }
+
+    /**
+     * Reads the hidraw device and its hid and usb parents.
+     *
+     * @param sysfsPath the syspath of raw_dev
+     * @param raw_dev   the hidraw device, the caller owns it and the udev context it comes from
+     * @param filter    checked as soon as what it needs is known
+     * @param uevent    reused for parsing, the caller's
+     * @return null if the device is not a usb or bluetooth hid device or does not match the filter
+     */
+    static HidDeviceInfo create(String sysfsPath, udev_device raw_dev, DeviceFilter filter, Uevent uevent) throws IOException {
+        udev_device hid_dev = udev_device_get_parent_with_subsystem_devtype(raw_dev, "hid", null);
+        if (hid_dev == null)
+            return null;
+
+        String value = udev_device_get_sysattr_value(hid_dev, "uevent");
+        if (value == null)
+            throw new IOException("no uevent");
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (!uevent.parse(bytes, bytes.length))
+            throw new IOException("no HID_ID");
+        short bus = uevent.m_Bus;
+        if (bus != BUS_USB && bus != BUS_BLUETOOTH)
+            return null;
+        short vid = uevent.m_VendorId;
+        short pid = uevent.m_ProductId;
+        if (!filter.matchesBusType(bus) || !filter.matchesIds(vid, pid) || !filter.matchesSerialNumber(uevent.m_Uniq))
+            return null;
+
+        // the top level usage, read from sysfs, udev returns attributes as strings
+        ReportDescriptor descriptor = SysfsEnumerator.readReportDescriptor(Paths.get(udev_device_get_syspath(hid_dev)));
+        short usagePage = descriptor != null ? (short) descriptor.getUsagePage() : 0;
+        short usage = descriptor != null ? (short) descriptor.getUsage() : 0;
+        if (!filter.matchesUsage(usagePage, usage))
+            return null;
+
+        String dev_path = udev_device_get_devnode(raw_dev);
+        if (dev_path == null)
+            throw new IOException("dev_path == null");
+
+        // The device pointed to by raw_dev contains information
+        // about the hidraw device. In order to get information
+        // about the USB device, get the parent device with the
+        // subsystem/devtype pair of "usb"/"usb_device". This will
+        // be several levels up the tree, but the function will find
+        // it.
+        String usb_dev_path = null;
+        String manufacturer = null;
+        short release = 0;
+        int interfaceNumber = -1;
+        if (bus == BUS_USB) {
+            udev_device usb_dev = udev_device_get_parent_with_subsystem_devtype(raw_dev, "usb", "usb_device");
+            if (usb_dev == null)
+                throw new IOException("usb_dev == null");
+            usb_dev_path = udev_device_get_devnode(usb_dev);
+            manufacturer = udev_device_get_sysattr_value(usb_dev, "manufacturer");
+            String bcdDevice = udev_device_get_sysattr_value(usb_dev, "bcdDevice");
+            if (bcdDevice != null)
+                release = (short) Integer.parseInt(bcdDevice.trim(), 16);
+
+            // Get a handle to the interface's udev node.
+            udev_device intf_dev = udev_device_get_parent_with_subsystem_devtype(raw_dev, "usb", "usb_interface");
+            if (intf_dev != null) {
+                String str = udev_device_get_sysattr_value(intf_dev, "bInterfaceNumber");
+                if (str != null)
+                    interfaceNumber = Integer.parseInt(str.trim(), 16);
             }
-        } catch (Exception e) {
-            throw new IOException(e);
-        } finally {
-            if (raw_dev != null)
-                udev_device_unref(raw_dev);
-            if (udev != null)
-                udev_unref(udev);
         }
+        // hid_dev, usb_dev and intf_dev belong to raw_dev, they are not unref()d
+
+        return new HidDeviceInfo(sysfsPath, dev_path, usb_dev_path, bus, vid, pid, release, usagePage, usage,
+                manufacturer, uevent.m_Name, uevent.m_Uniq, uevent.m_Phys, interfaceNumber);
+    }
+
+    /** @return the hidraw node open() opens, e.g. /dev/hidraw0 */
+    String getDevNode() {
+        return m_DevNode;
+    }
+
+    /** @return HID_PHYS, where the device is attached, null if unknown */
+    String getPhys() {
+        return m_Phys;
+    }
+
+    /** @return the usb interface number, -1 if unknown */
+    int getInterfaceNumber() {
+        return m_InterfaceNumber;
     }
-}
\ No newline at end of file
+}
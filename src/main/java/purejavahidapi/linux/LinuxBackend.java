@@ -30,25 +30,30 @@
 
 package purejavahidapi.linux;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.StringReader;
-import java.util.LinkedList;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
 
 import purejavahidapi.linux.CLibrary.pollfd;
+import purejavahidapi.BackendCapability;
+import purejavahidapi.DeviceFilter;
+import purejavahidapi.OpenOptions;
+import purejavahidapi.ThreadOptions;
 import purejavahidapi.shared.Backend;
+import purejavahidapi.shared.VirtualThreads;
+import purejavahidapi.shared.HotplugEvent;
 
 import static purejavahidapi.linux.CLibrary.POLLIN;
 import static purejavahidapi.linux.CLibrary.poll;
-import static purejavahidapi.linux.UdevLibrary.BUS_BLUETOOTH;
-import static purejavahidapi.linux.UdevLibrary.BUS_USB;
 import static purejavahidapi.linux.UdevLibrary.udev;
 import static purejavahidapi.linux.UdevLibrary.udev_device;
 import static purejavahidapi.linux.UdevLibrary.udev_device_get_action;
 import static purejavahidapi.linux.UdevLibrary.udev_device_get_devnode;
-import static purejavahidapi.linux.UdevLibrary.udev_device_get_parent_with_subsystem_devtype;
-import static purejavahidapi.linux.UdevLibrary.udev_device_get_sysattr_value;
 import static purejavahidapi.linux.UdevLibrary.udev_device_new_from_syspath;
 import static purejavahidapi.linux.UdevLibrary.udev_device_unref;
 import static purejavahidapi.linux.UdevLibrary.udev_enumerate;
@@ -72,8 +77,77 @@ import static purejavahidapi.linux.UdevLibrary.udev_unref;
 
 public class LinuxBackend extends Backend {
 
+    private static final Logger logger = Logger.getLogger(LinuxBackend.class.getName());
+
+    /**
+     * When "true" the input reports of all open devices are read by a small pool of
+     * shared epoll reactors instead of one thread per device.
+     */
+    private static final boolean USE_REACTOR = Boolean.parseBoolean(System.getProperty("purejavahidapi.linux.LinuxBackend.reactor", "false"));
+
+    /**
+     * When "true" and running on JDK 21 or later, every open device is read by a virtual thread
+     * that parks until a shared epoll reactor says the device is ready, the listeners are called
+     * on that virtual thread. Falls back to platform threads on older JDKs.
+     */
+    private static final boolean USE_VIRTUAL_THREADS = Boolean.parseBoolean(System.getProperty("purejavahidapi.linux.LinuxBackend.virtualThreads", "false"));
+
+    /** The number of reactor threads, devices are sharded over them round robin. */
+    private static final int REACTOR_THREADS = Integer.getInteger("purejavahidapi.linux.LinuxBackend.reactorThreads", 1);
+
+    /**
+     * The scheduling of the reactor threads, e.g. "FIFO:10", see {@link ThreadOptions#parseScheduling}.
+     * The per-device threads are configured by {@link OpenOptions#withThreadOptions(ThreadOptions)}.
+     */
+    private static final String REACTOR_SCHEDULING = System.getProperty("purejavahidapi.linux.LinuxBackend.reactorScheduling");
+
+    /** The cpus the reactor threads may run on, e.g. "2,3" or "2-3", see {@link ThreadOptions#parseAffinity}. */
+    private static final String REACTOR_AFFINITY = System.getProperty("purejavahidapi.linux.LinuxBackend.reactorAffinity");
+
+    /**
+     * "sysfs" to enumerate by walking sysfs instead of asking libudev, see {@link SysfsEnumerator}.
+     * The default is "udev".
+     */
+    private static final String ENUMERATOR = System.getProperty("purejavahidapi.linux.LinuxBackend.enumerator", "udev");
+
+    /** Where sysfs is mounted for the "sysfs" enumerator. */
+    private static final String SYSFS_ROOT = System.getProperty("purejavahidapi.linux.LinuxBackend.sysfsRoot", "/sys");
+
+    private Reactor[] m_Reactors;
+
+    /** non null when the devices are enumerated from sysfs */
+    private final SysfsEnumerator m_SysfsEnumerator = "sysfs".equals(ENUMERATOR) ? new SysfsEnumerator(Paths.get(SYSFS_ROOT), "/dev") : null;
+
+    private int m_NextReactor;
+
+    /**
+     * The udev context of the enumeration and the devnode lookups, kept for the
+     * lifetime of the backend. libudev objects are not thread-safe, the context
+     * is confined to the thread holding {@link #m_UdevMutex}. The hotplug
+     * monitor has its own, it lives on its own thread.
+     */
+    private udev m_Udev;
+
+    private final Object m_UdevMutex = new Object();
+
+    /** reused by the udev enumeration, guarded by {@link #m_UdevMutex} */
+    private final Uevent m_Uevent = new Uevent();
+
+    /** the udev monitor thread, null until a device removal listener is set */
+    private Thread m_HotplugMonitor;
+
     @Override
     public void init() {
+        // nothing to do until there is something to do, see startHotplugMonitor()
+    }
+
+    /**
+     * Starts the thread that watches udev for devices going away, once. Only
+     * needed for the removal listeners, a reader notices a device gone by itself.
+     */
+    synchronized void startHotplugMonitor() {
+        if (m_HotplugMonitor != null)
+            return;
         try {
             udev udev = udev_new();
 
@@ -106,6 +180,12 @@ public class LinuxBackend extends Backend {
                         if (pollres > 0) {
                             udev_device dev = udev_monitor_receive_device(udev_monitor);
                             String action = udev_device_get_action(dev);
+                            HotplugEvent event = new HotplugEvent();
+                            if (event.isEnabled()) {
+                                event.path = udev_device_get_devnode(dev);
+                                event.action = action;
+                                event.commit();
+                            }
                             if ("remove".equals(action))
                                 deviceRemoved(udev_device_get_devnode(dev));
                         }
@@ -114,9 +194,10 @@ public class LinuxBackend extends Backend {
                     e.printStackTrace();
                 }
 
-            });
+            }, "purejavahidapi-hotplug");
             removalHandler.setDaemon(true);
             removalHandler.start();
+            m_HotplugMonitor = removalHandler;
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -124,69 +205,152 @@ public class LinuxBackend extends Backend {
     }
 
     @Override
-    public void cleanup() {
+    public Set<BackendCapability> getCapabilities() {
+        // hidraw writes block, the queued output reports are written by the pool of the base class
+        return EnumSet.complementOf(EnumSet.of(BackendCapability.ASYNC_WRITE));
     }
 
     @Override
-    public List<purejavahidapi.HidDeviceInfo> enumerateDevices() {
+    public void cleanup() {
+        synchronized (this) {
+            if (m_Reactors != null) {
+                for (Reactor reactor : m_Reactors)
+                    reactor.shutdown();
+                m_Reactors = null;
+            }
+        }
+        synchronized (m_UdevMutex) {
+            if (m_Udev != null) {
+                udev_unref(m_Udev);
+                m_Udev = null;
+            }
+        }
+    }
 
-        List<purejavahidapi.HidDeviceInfo> list = new LinkedList<>();
+    /** @return the reactor the next device should be registered to */
+    private synchronized Reactor nextReactor() throws IOException {
+        if (m_Reactors == null) {
+            ThreadOptions options = ThreadOptions.parseAffinity(ThreadOptions.parseScheduling(ThreadOptions.defaults(), REACTOR_SCHEDULING), REACTOR_AFFINITY);
+            Reactor[] reactors = new Reactor[Math.max(1, REACTOR_THREADS)];
+            for (int i = 0; i < reactors.length; i++)
+                reactors[i] = new Reactor("purejavahidapi-reactor-" + i, options);
+            m_Reactors = reactors;
+        }
+        Reactor reactor = m_Reactors[m_NextReactor];
+        m_NextReactor = (m_NextReactor + 1) % m_Reactors.length;
+        return reactor;
+    }
 
-        udev_enumerate enumerate;
-        udev_list_entry devices;
-        udev_list_entry dev_list_entry;
-        udev udev;
+    /** @return the udev context, created on first use, only while holding {@link #m_UdevMutex} */
+    private udev udev() {
+        if (m_Udev == null) {
+            m_Udev = udev_new();
+            if (m_Udev == null)
+                throw new IllegalStateException("udev_new returned null");
+        }
+        return m_Udev;
+    }
 
-        udev = udev_new();
+    @Override
+    public List<purejavahidapi.HidDeviceInfo> enumerateDevices() {
+        return enumerateDevices(DeviceFilter.any());
+    }
 
-        enumerate = udev_enumerate_new(udev);
-        udev_enumerate_add_match_subsystem(enumerate, "hidraw");
-        udev_enumerate_scan_devices(enumerate);
-        devices = udev_enumerate_get_list_entry(enumerate);
+    /**
+     * The filter is checked as soon as what it needs is known, the path before
+     * anything is looked up, the ids, the bus and the serial number after the
+     * uevent attribute, the usage after the report descriptor, devices rejected
+     * never get their usb attributes looked up or a {@link HidDeviceInfo}.
+     */
+    @Override
+    public List<purejavahidapi.HidDeviceInfo> enumerateDevices(DeviceFilter filter) {
 
-        loop:
-        for (dev_list_entry = devices; dev_list_entry != null; dev_list_entry = udev_list_entry_get_next(dev_list_entry)) {
+        if (m_SysfsEnumerator != null) {
+            try {
+                return m_SysfsEnumerator.enumerate(filter);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
+        }
 
-            String sysfs_path = udev_list_entry_get_name(dev_list_entry);
-            udev_device raw_dev = udev_device_new_from_syspath(udev, sysfs_path);
-            udev_device hid_dev = udev_device_get_parent_with_subsystem_devtype(raw_dev, "hid", null);
+        List<purejavahidapi.HidDeviceInfo> list = new ArrayList<>();
 
-            if (hid_dev == null)
-                continue;
+        synchronized (m_UdevMutex) {
+            udev udev = udev();
 
-            try {
-                Properties p = new Properties();
-                p.load(new StringReader(udev_device_get_sysattr_value(hid_dev, "uevent")));
+            udev_enumerate enumerate = udev_enumerate_new(udev);
+            udev_enumerate_add_match_subsystem(enumerate, "hidraw");
+            udev_enumerate_scan_devices(enumerate);
+            udev_list_entry devices = udev_enumerate_get_list_entry(enumerate);
 
-                String[] hidId = ((String) p.get("HID_ID")).split(":");
-                short bus = (short) Long.parseLong(hidId[0], 16);
-                short vid = (short) Long.parseLong(hidId[1], 16);
-                short pid = (short) Long.parseLong(hidId[2], 16);
+            for (udev_list_entry dev_list_entry = devices; dev_list_entry != null; dev_list_entry = udev_list_entry_get_next(dev_list_entry)) {
 
-                if (bus != BUS_USB && bus != BUS_BLUETOOTH)
+                String sysfs_path = udev_list_entry_get_name(dev_list_entry);
+                if (!filter.matchesPath(sysfs_path))
                     continue;
+                udev_device raw_dev = udev_device_new_from_syspath(udev, sysfs_path);
+                if (raw_dev == null)
+                    continue; // gone meanwhile
 
-                HidDeviceInfo info = new HidDeviceInfo(sysfs_path);
-                list.add(info);
-
-            } catch (Exception e) {
-                e.printStackTrace();
+                try {
+                    HidDeviceInfo info = HidDeviceInfo.create(sysfs_path, raw_dev, filter, m_Uevent);
+                    if (info != null)
+                        list.add(info);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    udev_device_unref(raw_dev);
+                }
             }
-
-            udev_device_unref(raw_dev);
-            // * hid_dev, usb_dev and intf_dev can't be) unref()d. I'm not sure
-            // why.
-
+            /* Free the enumerator, the udev context is kept. */
+            udev_enumerate_unref(enumerate);
         }
-        /* Free the enumerator and udev objects. */
-        udev_enumerate_unref(enumerate);
-        udev_unref(udev);
 
         return list;
     }
 
+    /**
+     * @param deviceInfo from {@link #enumerateDevices()} or made up by the application
+     * @return the hidraw node to open, resolved through udev only if enumeration has not done it
+     */
+    String getDevNode(purejavahidapi.HidDeviceInfo deviceInfo) throws IOException {
+        if (deviceInfo instanceof HidDeviceInfo)
+            return ((HidDeviceInfo) deviceInfo).getDevNode();
+        synchronized (m_UdevMutex) {
+            udev_device raw_dev = udev_device_new_from_syspath(udev(), deviceInfo.getPath());
+            if (raw_dev == null)
+                throw new FileNotFoundException(deviceInfo.getPath());
+            try {
+                String dev_path = udev_device_get_devnode(raw_dev);
+                if (dev_path == null)
+                    throw new FileNotFoundException(deviceInfo.getPath());
+                return dev_path;
+            } finally {
+                udev_device_unref(raw_dev);
+            }
+        }
+    }
+
     @Override
     public purejavahidapi.HidDevice openDevice(purejavahidapi.HidDeviceInfo deviceInfo) throws IOException {
-        return new HidDevice(deviceInfo, this);
+        return openDevice(deviceInfo, OpenOptions.defaults());
+    }
+
+    @Override
+    public purejavahidapi.HidDevice openDevice(purejavahidapi.HidDeviceInfo deviceInfo, OpenOptions options) throws IOException {
+        ThreadOptions threadOptions = options.getThreadOptions();
+        if (options.isSyncRead())
+            return new HidDevice(deviceInfo, this, null, ReadMode.SYNC, threadOptions, null);
+        if (options.getBusyPoll() != null)
+            return new HidDevice(deviceInfo, this, null, ReadMode.SPIN, threadOptions, options.getBusyPoll());
+        if (USE_VIRTUAL_THREADS) {
+            if (VirtualThreads.isSupported())
+                return new HidDevice(deviceInfo, this, nextReactor(), ReadMode.VIRTUAL, threadOptions, null);
+            logger.warning("virtual threads need JDK 21 or later, using platform threads");
+        }
+        if (USE_REACTOR)
+            return new HidDevice(deviceInfo, this, nextReactor(), ReadMode.REACTOR, threadOptions, null);
+        return new HidDevice(deviceInfo, this, null, ReadMode.THREAD, threadOptions, null);
     }
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import purejavahidapi.ThreadOptions;
+import purejavahidapi.ThreadSetupResult;
+
+import static purejavahidapi.linux.CLibrary.EFD_CLOEXEC;
+import static purejavahidapi.linux.CLibrary.EINTR;
+import static purejavahidapi.linux.CLibrary.EPOLLIN;
+import static purejavahidapi.linux.CLibrary.EPOLL_CLOEXEC;
+import static purejavahidapi.linux.CLibrary.EPOLL_CTL_ADD;
+import static purejavahidapi.linux.CLibrary.EPOLL_CTL_DEL;
+import static purejavahidapi.linux.CLibrary.EPOLL_CTL_MOD;
+import static purejavahidapi.linux.CLibrary.EPOLL_EVENT_DATA_OFFSET;
+import static purejavahidapi.linux.CLibrary.EPOLL_EVENT_SIZE;
+import static purejavahidapi.linux.CLibrary.epoll_create1;
+import static purejavahidapi.linux.CLibrary.epoll_ctl;
+import static purejavahidapi.linux.CLibrary.epoll_wait;
+import static purejavahidapi.linux.CLibrary.eventfd;
+import static purejavahidapi.linux.CLibrary.read;
+import static purejavahidapi.linux.CLibrary.write;
+
+
+/**
+ * Reactor multiplexes many file descriptors on one epoll instance and one thread.
+ * <p>
+ * The thread is started when the reactor is created and lives until
+ * {@link #shutdown()}, registering or deregistering a descriptor never starts or
+ * stops a thread. A single eventfd is used to wake the thread up.
+ * <p>
+ * Handlers are called on the reactor thread and share it with every other
+ * descriptor of this reactor, so they must not block.
+ * <p>
+ * The epoll user data carries a slot index and a generation number, so that an
+ * event fetched just before {@link #deregister(Registration)} is never delivered
+ * to the handler that re-used the slot.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+class Reactor {
+
+    private static final Logger logger = Logger.getLogger(Reactor.class.getName());
+
+    /** Called on the reactor thread when a registered descriptor is ready. */
+    interface Handler {
+
+        /** @param events the ready epoll events e.g. {@link CLibrary#EPOLLIN} */
+        void onReady(int events);
+    }
+
+    /** A handle to a registered descriptor. */
+    static final class Registration {
+
+        final int m_Handle;
+        final long m_Key;
+        final Handler m_Handler;
+
+        private Registration(int handle, long key, Handler handler) {
+            m_Handle = handle;
+            m_Key = key;
+            m_Handler = handler;
+        }
+    }
+
+    private static final int MAX_EVENTS = 64;
+    private static final NativeLong EVENTFD_VALUE_SIZE = new NativeLong(8);
+
+    private final int m_EpollHandle;
+    private final int m_WakeupHandle;
+    private final Memory m_Events = new Memory((long) EPOLL_EVENT_SIZE * MAX_EVENTS);
+    private final Memory m_WakeupValue = new Memory(8);
+    private final Memory m_WakeupSignal = new Memory(8);
+    private final Memory m_ControlEvent = new Memory(EPOLL_EVENT_SIZE);
+    private final Memory m_WakeupEvent = new Memory(EPOLL_EVENT_SIZE);
+    private final Thread m_Thread;
+    private final Object m_Mutex = new Object();
+    private volatile AtomicReferenceArray<Registration> m_Registrations = new AtomicReferenceArray<>(16);
+    private int m_Generation;
+    private volatile boolean m_Stop;
+    private volatile ThreadSetupResult m_ThreadSetupResult;
+
+    /** @param name the reactor thread name */
+    Reactor(String name) throws IOException {
+        this(name, ThreadOptions.defaults());
+    }
+
+    /**
+     * @param name          the reactor thread name unless the options have one
+     * @param threadOptions how the reactor thread is created and scheduled
+     */
+    Reactor(String name, ThreadOptions threadOptions) throws IOException {
+        m_EpollHandle = epoll_create1(EPOLL_CLOEXEC);
+        if (m_EpollHandle < 0)
+            throw new IOException("epoll_create1() failed, errno " + Native.getLastError());
+        m_WakeupHandle = eventfd(0, EFD_CLOEXEC);
+        if (m_WakeupHandle < 0) {
+            int err = Native.getLastError();
+            CLibrary.close(m_EpollHandle);
+            throw new IOException("eventfd() failed, errno " + err);
+        }
+        m_WakeupSignal.setLong(0, 1);
+        m_WakeupEvent.setInt(0, EPOLLIN);
+        m_WakeupEvent.setLong(EPOLL_EVENT_DATA_OFFSET, -1);
+        if (epoll_ctl(m_EpollHandle, EPOLL_CTL_ADD, m_WakeupHandle, m_WakeupEvent) < 0) {
+            int err = Native.getLastError();
+            CLibrary.close(m_WakeupHandle);
+            CLibrary.close(m_EpollHandle);
+            throw new IOException("epoll_ctl() failed, errno " + err);
+        }
+
+        CountDownLatch started = new CountDownLatch(1);
+        m_Thread = ThreadSetup.newThread(threadOptions, name, () -> {
+            m_ThreadSetupResult = ThreadSetup.applyToCurrentThread(threadOptions);
+            started.countDown();
+            try {
+                runReactor();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        m_Thread.start();
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** @return whether the scheduling and the affinity could be applied to the reactor thread */
+    ThreadSetupResult getThreadSetupResult() {
+        return m_ThreadSetupResult;
+    }
+
+    /**
+     * Adds a descriptor to this reactor.
+     *
+     * @param handle the file descriptor, it should be non-blocking
+     * @param events the epoll events to wait for
+     * @param handler called on the reactor thread when the descriptor is ready
+     * @return the registration to pass to {@link #deregister(Registration)}
+     */
+    Registration register(int handle, int events, Handler handler) throws IOException {
+        synchronized (m_Mutex) {
+            AtomicReferenceArray<Registration> registrations = m_Registrations;
+            int slot = 0;
+            while (slot < registrations.length() && registrations.get(slot) != null)
+                slot++;
+            if (slot == registrations.length()) {
+                AtomicReferenceArray<Registration> grown = new AtomicReferenceArray<>(registrations.length() * 2);
+                for (int i = 0; i < registrations.length(); i++)
+                    grown.set(i, registrations.get(i));
+                m_Registrations = grown;
+                // the old array is emptied after the new one is published, deregister() only clears the
+                // new one, so the reactor thread must not find anything in an array it loaded earlier
+                for (int i = 0; i < registrations.length(); i++)
+                    registrations.set(i, null);
+                registrations = grown;
+            }
+            long key = ((long) (++m_Generation & 0x7fffffff) << 32) | slot;
+            Registration registration = new Registration(handle, key, handler);
+            registrations.set(slot, registration);
+
+            if (control(EPOLL_CTL_ADD, handle, events, key) < 0) {
+                int err = Native.getLastError();
+                registrations.set(slot, null);
+                throw new IOException("epoll_ctl(EPOLL_CTL_ADD) failed, errno " + err);
+            }
+            return registration;
+        }
+    }
+
+    /** Changes the epoll events a registered descriptor waits for. */
+    void modify(Registration registration, int events) throws IOException {
+        synchronized (m_Mutex) {
+            if (control(EPOLL_CTL_MOD, registration.m_Handle, events, registration.m_Key) < 0)
+                throw new IOException("epoll_ctl(EPOLL_CTL_MOD) failed, errno " + Native.getLastError());
+        }
+    }
+
+    /**
+     * Removes a descriptor from this reactor.
+     * <p>
+     * The handler may still be running on the reactor thread when this method
+     * returns, callers that are about to close the descriptor have to synchronize
+     * with their handler themselves.
+     */
+    void deregister(Registration registration) {
+        synchronized (m_Mutex) {
+            control(EPOLL_CTL_DEL, registration.m_Handle, 0, 0);
+            int slot = (int) registration.m_Key;
+            m_Registrations.compareAndSet(slot, registration, null);
+        }
+    }
+
+    /** Stops the reactor thread and releases the epoll instance and the eventfd. */
+    void shutdown() {
+        m_Stop = true;
+        wakeup();
+        if (Thread.currentThread() != m_Thread) {
+            try {
+                m_Thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        CLibrary.close(m_WakeupHandle);
+        CLibrary.close(m_EpollHandle);
+    }
+
+    /** Wakes the reactor thread up from epoll_wait(). */
+    void wakeup() {
+        write(m_WakeupHandle, m_WakeupSignal, EVENTFD_VALUE_SIZE);
+    }
+
+    /** @return true if the calling thread is the reactor thread */
+    boolean isReactorThread() {
+        return Thread.currentThread() == m_Thread;
+    }
+
+    /** must be called while holding {@link #m_Mutex} */
+    private int control(int op, int handle, int events, long key) {
+        m_ControlEvent.setInt(0, events);
+        m_ControlEvent.setLong(EPOLL_EVENT_DATA_OFFSET, key);
+        return epoll_ctl(m_EpollHandle, op, handle, m_ControlEvent);
+    }
+
+    private void runReactor() throws IOException {
+        while (!m_Stop) {
+            int n = epoll_wait(m_EpollHandle, m_Events, MAX_EVENTS, -1);
+            if (n < 0) {
+                if (Native.getLastError() == EINTR)
+                    continue;
+                throw new IOException("epoll_wait() failed, errno " + Native.getLastError());
+            }
+            for (int i = 0; i < n; i++) {
+                long offset = (long) i * EPOLL_EVENT_SIZE;
+                int events = m_Events.getInt(offset);
+                long key = m_Events.getLong(offset + EPOLL_EVENT_DATA_OFFSET);
+                if (key == -1) {
+                    read(m_WakeupHandle, m_WakeupValue, EVENTFD_VALUE_SIZE);
+                    continue;
+                }
+                int slot = (int) key;
+                // loaded for every event, a handler may have grown the array, an emptied old
+                // array means the registration has to be looked up in the new one
+                AtomicReferenceArray<Registration> registrations = m_Registrations;
+                Registration registration = registrations.get(slot);
+                while (registration == null && registrations != m_Registrations) {
+                    registrations = m_Registrations;
+                    registration = registrations.get(slot);
+                }
+                if (registration == null || registration.m_Key != key)
+                    continue; // deregistered while the event was pending
+                try {
+                    registration.m_Handler.onReady(events);
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "handler failed for fd " + registration.m_Handle, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+/**
+ * Who reads the input reports of a {@link HidDevice}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+enum ReadMode {
+
+    /** a platform thread per device blocked in poll() */
+    THREAD,
+    /** a shared {@link Reactor} thread that reads and calls the listeners */
+    REACTOR,
+    /**
+     * a virtual thread per device parked until a shared {@link Reactor} says the
+     * device is readable, the virtual thread reads and calls the listeners
+     */
+    VIRTUAL,
+    /** a platform thread per device reading the non-blocking handle in a loop, backing off while idle */
+    SPIN,
+    /** nobody, the caller reads with {@link HidDevice#read(java.nio.ByteBuffer, long)} */
+    SYNC
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import purejavahidapi.DeviceFilter;
+import purejavahidapi.shared.ReportDescriptor;
+
+import static purejavahidapi.linux.UdevLibrary.BUS_BLUETOOTH;
+import static purejavahidapi.linux.UdevLibrary.BUS_USB;
+
+
+/**
+ * Enumerates the hidraw devices by walking sysfs, without libudev.
+ * <p>
+ * For every {@code <root>/class/hidraw/hidrawN} the hid device it belongs to,
+ * {@code hidrawN/device}, gives the ids and names in its uevent attribute and
+ * the report descriptor in its report_descriptor attribute, so the top level
+ * usage is known without opening the device. For usb devices the usb
+ * interface and the usb device are the parent and the grandparent of the hid
+ * device. The hidraw node is assumed to be {@code /dev/hidrawN}, as udev
+ * names it.
+ * <p>
+ * The files are read into one reused buffer, the uevent attribute is parsed
+ * by {@link Uevent}. The buffer is shared, so {@link #enumerate(DeviceFilter)} is synchronized.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+final class SysfsEnumerator {
+
+    private static final Logger logger = Logger.getLogger(SysfsEnumerator.class.getName());
+
+    /** HID_MAX_DESCRIPTOR_SIZE in include/linux/hid.h, larger than any other attribute read */
+    private static final int BUFFER_SIZE = 4096;
+
+    private final Path m_Root;
+    private final String m_DevDirectory;
+    private final ByteBuffer m_Buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Uevent m_Uevent = new Uevent();
+
+    /**
+     * @param root         where sysfs is mounted, /sys, or a copy of it for testing
+     * @param devDirectory where the device nodes are, /dev
+     */
+    SysfsEnumerator(Path root, String devDirectory) {
+        m_Root = root;
+        m_DevDirectory = devDirectory;
+    }
+
+    /** @return the usb and bluetooth hid devices sorted by path, empty if there is no hidraw class */
+    List<purejavahidapi.HidDeviceInfo> enumerate() throws IOException {
+        return enumerate(DeviceFilter.any());
+    }
+
+    /**
+     * @param filter checked as soon as what it needs has been read
+     * @return the matching usb and bluetooth hid devices sorted by path, empty if there is no hidraw class
+     */
+    synchronized List<purejavahidapi.HidDeviceInfo> enumerate(DeviceFilter filter) throws IOException {
+        List<purejavahidapi.HidDeviceInfo> list = new ArrayList<>();
+        try (DirectoryStream<Path> hidraws = Files.newDirectoryStream(m_Root.resolve("class").resolve("hidraw"))) {
+            for (Path hidraw : hidraws) {
+                try {
+                    HidDeviceInfo info = read(hidraw, filter);
+                    if (info != null)
+                        list.add(info);
+                } catch (IOException e) {
+                    // unplugged while enumerating, or not a hid device after all
+                    logger.log(Level.FINE, hidraw.toString(), e);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // no hidraw driver loaded
+        }
+        list.sort(Comparator.comparing(purejavahidapi.HidDeviceInfo::getPath));
+        return list;
+    }
+
+    /** @return null if the device is neither usb nor bluetooth or does not match */
+    private HidDeviceInfo read(Path hidraw, DeviceFilter filter) throws IOException {
+        Path syspath = hidraw.toRealPath();
+        String path = syspath.toString();
+        if (!filter.matchesPath(path))
+            return null;
+        Path hid = syspath.resolve("device").toRealPath();
+
+        int length = readFully(hid.resolve("uevent"));
+        if (!m_Uevent.parse(m_Buffer.array(), length))
+            throw new IOException("no HID_ID in " + hid);
+        short bus = m_Uevent.m_Bus;
+        if (bus != BUS_USB && bus != BUS_BLUETOOTH)
+            return null;
+        if (!filter.matchesBusType(bus) || !filter.matchesIds(m_Uevent.m_VendorId, m_Uevent.m_ProductId) ||
+                !filter.matchesSerialNumber(m_Uevent.m_Uniq))
+            return null;
+
+        ReportDescriptor descriptor = null;
+        try {
+            length = readFully(hid.resolve("report_descriptor"));
+            if (length > 0)
+                descriptor = ReportDescriptor.parse(m_Buffer.array(), length);
+        } catch (NoSuchFileException e) {
+            // kernels before 2.6.39
+        } catch (RuntimeException e) {
+            logger.log(Level.FINE, hid.toString(), e); // a descriptor the parser cannot make sense of
+        }
+        short usagePage = descriptor != null ? (short) descriptor.getUsagePage() : 0;
+        short usage = descriptor != null ? (short) descriptor.getUsage() : 0;
+        if (!filter.matchesUsage(usagePage, usage))
+            return null;
+
+        String deviceId = null;
+        String manufacturer = null;
+        short release = 0;
+        int interfaceNumber = -1;
+        if (bus == BUS_USB) {
+            Path intf = hid.getParent();
+            Path usb = intf.getParent();
+            interfaceNumber = (int) readNumber(intf.resolve("bInterfaceNumber"), 16, -1);
+            long busnum = readNumber(usb.resolve("busnum"), 10, -1);
+            long devnum = readNumber(usb.resolve("devnum"), 10, -1);
+            if (busnum < 0 || devnum < 0)
+                throw new IOException("no usb device above " + hid);
+            deviceId = String.format("%s/bus/usb/%03d/%03d", m_DevDirectory, busnum, devnum);
+            manufacturer = readString(usb.resolve("manufacturer"));
+            release = (short) readNumber(usb.resolve("bcdDevice"), 16, 0);
+        }
+
+        String name = hidraw.getFileName().toString();
+        return new HidDeviceInfo(path, m_DevDirectory + "/" + name, deviceId,
+                bus, m_Uevent.m_VendorId, m_Uevent.m_ProductId, release, usagePage, usage,
+                manufacturer, m_Uevent.m_Name, m_Uevent.m_Uniq, m_Uevent.m_Phys, interfaceNumber);
+    }
+
+    /**
+     * For the udev enumeration, which has the hid device but no way to read a binary attribute.
+     *
+     * @param hid the sysfs directory of a hid device
+     * @return the parsed report_descriptor attribute, null if there is none
+     */
+    static ReportDescriptor readReportDescriptor(Path hid) {
+        try {
+            byte[] descriptor = Files.readAllBytes(hid.resolve("report_descriptor"));
+            return descriptor.length > 0 ? ReportDescriptor.parse(descriptor, descriptor.length) : null;
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.FINE, hid.toString(), e);
+            return null;
+        }
+    }
+
+    /** @return the number of bytes read into {@link #m_Buffer} */
+    private int readFully(Path file) throws IOException {
+        m_Buffer.clear();
+        try (FileChannel channel = FileChannel.open(file)) {
+            while (m_Buffer.hasRemaining() && channel.read(m_Buffer) > 0)
+                ;
+        }
+        return m_Buffer.position();
+    }
+
+    /** @return the attribute without the trailing newline, null if there is no such attribute */
+    private String readString(Path file) throws IOException {
+        try {
+            int length = trim(readFully(file));
+            return new String(m_Buffer.array(), 0, length, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /** @return the attribute as a number, orElse if there is no such attribute */
+    private long readNumber(Path file, int radix, long orElse) throws IOException {
+        int length;
+        try {
+            length = trim(readFully(file));
+        } catch (NoSuchFileException e) {
+            return orElse;
+        }
+        byte[] bytes = m_Buffer.array();
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = Character.digit(bytes[i], radix);
+            if (digit < 0)
+                throw new IOException("not a number: " + file);
+            value = value * radix + digit;
+        }
+        return length > 0 ? value : orElse;
+    }
+
+    private int trim(int length) {
+        byte[] bytes = m_Buffer.array();
+        while (length > 0 && (bytes[length - 1] == '\n' || bytes[length - 1] == ' '))
+            length--;
+        return length;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.util.BitSet;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.jna.Native;
+import purejavahidapi.ThreadOptions;
+import purejavahidapi.ThreadSetupResult;
+import purejavahidapi.ThreadSetupResult.Outcome;
+
+import static purejavahidapi.linux.CLibrary.sched_setaffinity;
+import static purejavahidapi.linux.CLibrary.sched_setscheduler;
+
+
+/**
+ * Creates reader threads and applies the Linux parts of {@link ThreadOptions}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+final class ThreadSetup {
+
+    private static final Logger logger = Logger.getLogger(ThreadSetup.class.getName());
+
+    private ThreadSetup() {
+    }
+
+    /**
+     * @param defaultName the name if the options have none and there is no factory
+     * @return a thread that is not started yet, named and daemon as the options say
+     */
+    static Thread newThread(ThreadOptions options, String defaultName, Runnable task) {
+        ThreadFactory factory = options.getThreadFactory();
+        Thread thread = factory != null ? factory.newThread(task) : new Thread(task, defaultName);
+        if (options.getName() != null)
+            thread.setName(options.getName());
+        thread.setDaemon(options.isDaemon());
+        return thread;
+    }
+
+    /**
+     * Applies the scheduling and the affinity to the calling thread, a denial is logged and told
+     * in the result, it never fails the caller.
+     */
+    static ThreadSetupResult applyToCurrentThread(ThreadOptions options) {
+        Outcome scheduling = Outcome.NOT_REQUESTED;
+        int schedulingErrno = 0;
+        if (options.getPolicy() != null) {
+            if (sched_setscheduler(0, options.getPolicy().getValue(), options.getPriority()) == 0) {
+                scheduling = Outcome.APPLIED;
+            } else {
+                scheduling = Outcome.DENIED;
+                schedulingErrno = Native.getLastError();
+            }
+        }
+        Outcome affinity = Outcome.NOT_REQUESTED;
+        int affinityErrno = 0;
+        BitSet cpus = options.getAffinity();
+        if (cpus != null) {
+            long[] words = cpus.toLongArray();
+            // the kernel wants at least its own cpu_set_t size, glibc's is 1024 bits
+            long[] mask = new long[Math.max(16, words.length)];
+            System.arraycopy(words, 0, mask, 0, words.length);
+            if (sched_setaffinity(0, mask) == 0) {
+                affinity = Outcome.APPLIED;
+            } else {
+                affinity = Outcome.DENIED;
+                affinityErrno = Native.getLastError();
+            }
+        }
+        ThreadSetupResult result = new ThreadSetupResult(scheduling, schedulingErrno, affinity, affinityErrno);
+        if (scheduling == Outcome.DENIED || affinity == Outcome.DENIED)
+            logger.log(Level.WARNING, Thread.currentThread().getName() + ": " + result + " for " + options);
+        return result;
+    }
+
+    /** @return the result for a thread the options cannot be applied to, e.g. a virtual one */
+    static ThreadSetupResult unsupported(ThreadOptions options) {
+        return new ThreadSetupResult(options.getPolicy() != null ? Outcome.UNSUPPORTED : Outcome.NOT_REQUESTED, 0,
+                options.getAffinity() != null ? Outcome.UNSUPPORTED : Outcome.NOT_REQUESTED, 0);
+    }
+}
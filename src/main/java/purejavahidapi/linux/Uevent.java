@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * The keys of the uevent attribute of a hid device, e.g.
+ * <pre>
+ * DRIVER=hid-generic
+ * HID_ID=0003:0000046D:0000C52B
+ * HID_NAME=Logitech USB Receiver
+ * HID_PHYS=usb-0000:00:14.0-1/input2
+ * HID_UNIQ=
+ * MODALIAS=hid:b0003g0001v0000046Dp0000C52B
+ * </pre>
+ * Parsed straight from the bytes read, only the values kept become strings.
+ * An instance is reused for device after device, it is not thread-safe.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+final class Uevent {
+
+    private static final byte[] HID_ID = "HID_ID=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HID_NAME = "HID_NAME=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HID_UNIQ = "HID_UNIQ=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HID_PHYS = "HID_PHYS=".getBytes(StandardCharsets.US_ASCII);
+
+    short m_Bus;
+    short m_VendorId;
+    short m_ProductId;
+    String m_Name;
+    String m_Uniq;
+    String m_Phys;
+
+    /**
+     * @param buffer the uevent attribute
+     * @param length the number of bytes in buffer
+     * @return false if there is no well formed HID_ID, the other keys are null if missing
+     */
+    boolean parse(byte[] buffer, int length) {
+        boolean id = false;
+        m_Name = null;
+        m_Uniq = null;
+        m_Phys = null;
+        int line = 0;
+        while (line < length) {
+            int end = line;
+            while (end < length && buffer[end] != '\n')
+                end++;
+            if (startsWith(buffer, line, end, HID_ID)) {
+                id = parseId(buffer, line + HID_ID.length, end);
+            } else if (startsWith(buffer, line, end, HID_NAME)) {
+                m_Name = value(buffer, line + HID_NAME.length, end);
+            } else if (startsWith(buffer, line, end, HID_UNIQ)) {
+                m_Uniq = value(buffer, line + HID_UNIQ.length, end);
+            } else if (startsWith(buffer, line, end, HID_PHYS)) {
+                m_Phys = value(buffer, line + HID_PHYS.length, end);
+            }
+            line = end + 1;
+        }
+        return id;
+    }
+
+    /** bus:vendor:product in hex, e.g. 0003:0000046D:0000C52B */
+    private boolean parseId(byte[] buffer, int start, int end) {
+        long bus = 0, vendor = 0, value = 0;
+        int field = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b == ':') {
+                if (digits == 0 || field == 2)
+                    return false;
+                if (field++ == 0)
+                    bus = value;
+                else
+                    vendor = value;
+                value = 0;
+                digits = 0;
+                continue;
+            }
+            int digit = Character.digit(b, 16);
+            if (digit < 0)
+                return false;
+            value = (value << 4) | digit;
+            digits++;
+        }
+        if (field != 2 || digits == 0)
+            return false;
+        m_Bus = (short) bus;
+        m_VendorId = (short) vendor;
+        m_ProductId = (short) value;
+        return true;
+    }
+
+    private static boolean startsWith(byte[] buffer, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length)
+            return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[start + i] != prefix[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static String value(byte[] buffer, int start, int end) {
+        return start == end ? "" : new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+}
@@ -33,6 +33,8 @@ package purejavahidapi.macosx;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Hashtable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,7 +42,7 @@ import com.sun.jna.Callback;
 import com.sun.jna.Memory;
 import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
-import purejavahidapi.shared.SyncPoint;
+import purejavahidapi.shared.ReportDescriptor;
 import vavi.util.Debug;
 
 import static purejavahidapi.macosx.CoreFoundationLibrary.*;
@@ -81,12 +83,18 @@ public class HidDevice extends purejavahidapi.HidDevice {
     private CFRunLoopRef m_CFRunLoopRef;
     private CFRunLoopSourceRef m_CFRunLoopSourceRef;
     private Pointer m_InputReportBuffer;
-    private byte[] m_InputReportData;
-    private int m_MaxInputReportLength;
+    /** read-only view of {@link #m_InputReportBuffer} for dispatching reports without copying */
+    private ByteBuffer m_InputReportView;
+    /** the size of {@link #m_InputReportBuffer}, includes the report id byte of numbered reports */
+    private int m_InputReportBufferSize;
     private Thread m_Thread;
-    private SyncPoint m_SyncStart;
-    private SyncPoint m_SyncShutdown;
-    private boolean m_StopThread;
+    /** counted down by the run loop thread when it is up, open() waits for it */
+    private final CountDownLatch m_ReaderStarted = new CountDownLatch(1);
+    /** counted down by close when it has woken the run loop up, the thread keeps its run loop alive till then */
+    private final CountDownLatch m_WokenUp = new CountDownLatch(1);
+    /** completed by the run loop thread when it has stopped, the device is released after that */
+    private final CompletableFuture<Void> m_ReaderStopped = new CompletableFuture<>();
+    private volatile boolean m_StopThread;
 
     // store a reference to the callbacks here so that they are not prematurely garbage collected
     private HidReportCallback m_HidReportCallBack;
@@ -118,12 +126,18 @@ public class HidDevice extends purejavahidapi.HidDevice {
         m_HidDeviceRemovalCallback = new HidDeviceRemovalCallback();
         m_DevFromCallback.put(m_HidDeviceRemovalCallback, this);
 
-        m_SyncStart = new SyncPoint(2);
-        m_SyncShutdown = new SyncPoint(2);
-        m_MaxInputReportLength = getIntProperty(m_IOHIDDeviceRef, CFSTR(kIOHIDMaxInputReportSizeKey));
-        if (m_MaxInputReportLength > 0) {
-            m_InputReportBuffer = new Memory(m_MaxInputReportLength);
-            m_InputReportData = new byte[m_MaxInputReportLength];
+        m_InputReportBufferSize = getIntProperty(m_IOHIDDeviceRef, CFSTR(kIOHIDMaxInputReportSizeKey));
+        if (m_InputReportBufferSize > 0) {
+            m_InputReportBuffer = new Memory(m_InputReportBufferSize);
+            m_InputReportView = m_InputReportBuffer.getByteBuffer(0, m_InputReportBufferSize).asReadOnlyBuffer();
+        }
+        m_MaxInputReportLength = m_InputReportBufferSize;
+        byte[] descriptor = new byte[4096];
+        int length = getInputReportDescriptor(descriptor, descriptor.length);
+        if (length > 0) {
+            m_ReportDescriptor = ReportDescriptor.parse(descriptor, length);
+            if (m_ReportDescriptor.getMaxReportLength(ReportDescriptor.INPUT) > 0)
+                m_MaxInputReportLength = m_ReportDescriptor.getMaxReportLength(ReportDescriptor.INPUT);
         }
     }
 
@@ -132,8 +146,8 @@ public class HidDevice extends purejavahidapi.HidDevice {
         String str = String.format("HIDAPI_0x%08x", Pointer.nativeValue(m_IOHIDDeviceRef.getPointer()));
         m_CFRunLoopMode = CFStringCreateWithCString(null, str, kCFStringEncodingASCII);
 
-        if (m_MaxInputReportLength > 0)
-            IOHIDDeviceRegisterInputReportCallback(m_IOHIDDeviceRef, m_InputReportBuffer, m_MaxInputReportLength, m_HidReportCallBack, asPointerForPassingToCallback()); // should pass dev
+        if (m_InputReportBufferSize > 0)
+            IOHIDDeviceRegisterInputReportCallback(m_IOHIDDeviceRef, m_InputReportBuffer, m_InputReportBufferSize, m_HidReportCallBack, asPointerForPassingToCallback()); // should pass dev
 
         IOHIDManagerRegisterDeviceRemovalCallback(MacOsXBackend.m_HidManager, m_HidDeviceRemovalCallback, asPointerForPassingToCallback());
 
@@ -152,7 +166,7 @@ public class HidDevice extends purejavahidapi.HidDevice {
             m_CFRunLoopRef = CFRunLoopGetCurrent();
 
             // Notify the main thread that the read thread is up and running
-            m_SyncStart.waitAndSync();
+            m_ReaderStarted.countDown();
 
             // Run the event loop, CFRunLoopRunInMode(), which will dispatch HID input reports
             int code;
@@ -171,15 +185,23 @@ public class HidDevice extends purejavahidapi.HidDevice {
             }
 
             // Wait here until close() makes it past the call to CFRunLoopWakeUp().
-
-            if (!m_Disconnected)
-                m_SyncShutdown.waitAndSync();
-
+            try {
+                if (!m_Disconnected)
+                    m_WokenUp.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                m_ReaderStopped.complete(null);
+            }
         }, m_HidDeviceInfo.getPath());
-        m_Backend.addDevice(m_HidDeviceInfo.getDeviceId(), this);
+        m_Backend.addDevice(this);
         m_Open = true;
         m_Thread.start();
-        m_SyncStart.waitAndSync();
+        try {
+            m_ReaderStarted.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     static void processPendingEvents() {
@@ -265,20 +287,23 @@ public class HidDevice extends purejavahidapi.HidDevice {
 
         @Override
         public void callback(Pointer context, int result, Pointer sender, int reportType, int reportId, Pointer report, NativeLong report_length) {
+            // the callback is called from the run loop as soon as the report is there
+            long timestamp = System.nanoTime();
 Debug.println(Level.FINER, "HidReportCallback: " + Thread.currentThread().getName());
             HidDevice dev = m_DevFromCallback.get(this);
             if (dev != null) {
-                if (dev.m_InputReportListener != null) {
-                    int length;
-                    if (reportId == 0) {
-                        length = report_length.intValue();
-                    report.read(0, dev.m_InputReportData, 0, length);
-                    } else {
-                        length = report_length.intValue() - 1;
-                        report.read(1, dev.m_InputReportData, 0, length);
-                    }
-                    dev.m_InputReportListener.onInputReport(dev, (byte) reportId, dev.m_InputReportData, length);
+                int length = report_length.intValue();
+                int offset = reportId == 0 ? 0 : 1;
+                // the report is normally delivered in the buffer registered for it, then no copy is needed
+                long start = Pointer.nativeValue(report) - Pointer.nativeValue(dev.m_InputReportBuffer);
+                ByteBuffer view;
+                if (start >= 0 && start + length <= dev.m_InputReportBufferSize) {
+                    view = dev.m_InputReportView;
+                    view.clear().limit((int) start + length).position((int) start + offset);
+                } else {
+                    view = report.getByteBuffer(offset, length - offset).asReadOnlyBuffer();
                 }
+                dev.dispatchInputReport(reportId, view, timestamp);
             } else
                 System.err.println("HidReportCallback could not get the HidDevice object");
         }
@@ -326,9 +351,9 @@ Debug.println(Level.FINER, "HidReportCallback: " + Thread.currentThread().getNam
         int rlen = len[0];
         if (res == kIOReturnSuccess) {
             System.arraycopy(temp, 0, data, 0, rlen);
-            return rlen;
+            return m_Counters.featureReportGot(rlen);
         } else
-            return -1;
+            return m_Counters.featureReportGot(-1);
     }
 
     /** */
@@ -357,46 +382,55 @@ Debug.println(Level.FINER, "HidReportCallback: " + Thread.currentThread().getNam
 
     @Override
     public synchronized int setOutputReport(byte reportId, byte[] data, int length) {
-        return setReportInternal(kIOHIDReportTypeOutput, reportId, data, length);
+        return m_Counters.outputReport(setReportInternal(kIOHIDReportTypeOutput, reportId, data, length));
     }
 
     @Override
     public synchronized int setFeatureReport(byte reportId, byte[] data, int length) {
-        return setReportInternal(kIOHIDReportTypeFeature, reportId, data, length);
+        return m_Counters.featureReportSet(setReportInternal(kIOHIDReportTypeFeature, reportId, data, length));
+    }
+
+    @Override
+    public void close() {
+        CompletableFuture<Void> closed = closeAsync();
+        if (Thread.currentThread() != m_Thread && !isDispatcherThread()) // a listener closing the device cannot wait for itself
+            closed.join();
     }
 
     @Override
-    public synchronized void close() {
+    public synchronized CompletableFuture<Void> closeAsync() {
         if (!m_Open)
             throw new IllegalStateException("device not open");
+        m_Open = false;
 
         // Disconnect the report callback before close.
         // according to the following link unregistering callbacks is not safe ???
         // https://github.com/signal11/hidapi/issues/116
 
-        IOHIDDeviceRegisterInputReportCallback(m_IOHIDDeviceRef, m_InputReportBuffer, m_MaxInputReportLength, null, null);
+        IOHIDDeviceRegisterInputReportCallback(m_IOHIDDeviceRef, m_InputReportBuffer, m_InputReportBufferSize, null, null);
         IOHIDManagerRegisterDeviceRemovalCallback(MacOsXBackend.m_HidManager, null, null);
         IOHIDDeviceUnscheduleFromRunLoop(m_IOHIDDeviceRef, m_CFRunLoopRef, m_CFRunLoopMode);
         IOHIDDeviceScheduleWithRunLoop(m_IOHIDDeviceRef, CFRunLoopGetMain(), kCFRunLoopDefaultMode);
 
         m_StopThread = true;
+        // before the reader is waited for, it may be waiting for a free slot of the dispatch stage
+        closeDelivery();
         // Wake up the run thread's event loop so that the thread can exit.
         CFRunLoopSourceSignal(m_CFRunLoopSourceRef);
         CFRunLoopWakeUp(m_CFRunLoopRef);
+        // Notify the read thread that it can shut down now.
+        m_WokenUp.countDown();
 
-        if (Thread.currentThread() != m_Thread) {
-            // Notify the read thread that it can shut down now.
-            m_Thread.interrupt();
-            m_SyncShutdown.waitAndSync();
-
-            // Wait for the tread to close down
-            try {
-                m_Thread.join();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        if (Thread.currentThread() == m_Thread) {
+            releaseDevice();
+            return CompletableFuture.completedFuture(null);
         }
+        // released by the read thread once it is out of the run loop
+        return m_ReaderStopped.thenRun(this::releaseDevice);
+    }
 
+    /** closes and releases the device and says goodbye to the backend, the run loop has stopped */
+    private synchronized void releaseDevice() {
         IOHIDDeviceClose(m_IOHIDDeviceRef, kIOHIDOptionsTypeSeizeDevice);
 
         if (m_CFRunLoopMode != null)
@@ -409,8 +443,7 @@ Debug.println(Level.FINER, "HidReportCallback: " + Thread.currentThread().getNam
         m_DevFromCallback.remove(m_PerformSignalCallback);
         m_DevFromCallback.remove(m_HidReportCallBack);
         m_DevFromCallback.remove(m_HidDeviceRemovalCallback);
-        m_Backend.removeDevice(m_HidDeviceInfo.getDeviceId());
-        m_Open = false;
+        m_Backend.removeDevice(this);
     }
 
     @Override
@@ -30,11 +30,14 @@
 
 package purejavahidapi.macosx;
 
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import com.sun.jna.Pointer;
+import purejavahidapi.BackendCapability;
 import purejavahidapi.shared.Backend;
 
 import static purejavahidapi.macosx.CoreFoundationLibrary.CFRelease;
@@ -132,6 +135,11 @@ log.finer("no IOHIDDeviceRef for path: " + path);
         return null;
     }
 
+    @Override
+    public Set<BackendCapability> getCapabilities() {
+        return EnumSet.of(BackendCapability.TIMESTAMPS);
+    }
+
     @Override
     public void cleanup() {
         if (m_HidManager != null) {
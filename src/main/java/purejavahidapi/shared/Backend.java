@@ -1,46 +1,131 @@
 package purejavahidapi.shared;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import purejavahidapi.BackendCapability;
+import purejavahidapi.DeviceFilter;
 import purejavahidapi.DeviceRemovalListener;
 import purejavahidapi.HidDevice;
 import purejavahidapi.HidDeviceInfo;
+import purejavahidapi.OpenOptions;
 
 
+/**
+ * The base of the backends, created by a {@link BackendProvider}.
+ * <p>
+ * Applications use {@link purejavahidapi.PureJavaHidApi}, this class is for
+ * implementing backends.
+ */
 abstract public class Backend {
 
-    // FIXME all this backend stuff is not part of the public API so it should have some access restrictions
-    private HashMap<String, HidDevice> m_OpenDevices = new HashMap<>();
+    /**
+     * the open devices by instance, a device id is not unique: the interfaces of a composite
+     * usb device share one, bluetooth ones on linux have none and a device may be opened twice
+     */
+    private final Set<HidDevice> m_OpenDevices = ConcurrentHashMap.newKeySet();
+    private final BackendCounters m_Counters = new BackendCounters(this, m_OpenDevices);
 
     public abstract void init();
 
+    /** @return what this backend can do beyond the basics, none by default */
+    public Set<BackendCapability> getCapabilities() {
+        return EnumSet.noneOf(BackendCapability.class);
+    }
+
     public abstract void cleanup();
 
     public abstract List<HidDeviceInfo> enumerateDevices();
 
+    /** backends that can reject devices while enumerating override this */
+    public List<HidDeviceInfo> enumerateDevices(DeviceFilter filter) {
+        List<HidDeviceInfo> devices = enumerateDevices();
+        if (!filter.isAny())
+            devices.removeIf(info -> !filter.matches(info));
+        return devices;
+    }
+
     public abstract HidDevice openDevice(HidDeviceInfo path) throws IOException;
 
-    public void removeDevice(String deviceId) {
-        m_OpenDevices.remove(deviceId);
+    /** backends that support more than the default options override this */
+    public HidDevice openDevice(HidDeviceInfo path, OpenOptions options) throws IOException {
+        if (options.isSyncRead())
+            throw new UnsupportedOperationException("synchronous read is not supported on this platform");
+        if (options.getBusyPoll() != null)
+            throw new UnsupportedOperationException("busy polling is not supported on this platform");
+        return openDevice(path);
+    }
+
+    /** Forgets the device, it has been closed, a device that is not open is ignored. */
+    public void removeDevice(HidDevice device) {
+        if (m_OpenDevices.remove(device)) {
+            m_Counters.deviceClosed(device);
+            commitDeviceEvent(device, "close");
+        }
+    }
+
+    /** Keeps the device until {@link #removeDevice(HidDevice)}, its handle has been opened. */
+    public void addDevice(HidDevice device) {
+        if (m_OpenDevices.add(device)) {
+            m_Counters.deviceOpened(device);
+            commitDeviceEvent(device, "open");
+        }
     }
 
-    public void addDevice(String deviceId, HidDevice device) {
-        m_OpenDevices.put(deviceId, device);
+    private static void commitDeviceEvent(HidDevice device, String action) {
+        DeviceEvent event = new DeviceEvent();
+        if (event.isEnabled()) {
+            HidDeviceInfo info = device.getHidDeviceInfo();
+            if (info != null) {
+                event.path = info.getPath();
+                event.vendorId = info.getVendorId() & 0xffff;
+                event.productId = info.getProductId() & 0xffff;
+            }
+            event.action = action;
+            event.commit();
+        }
     }
 
+    /** @return the counters of this backend, also registered as {@link BackendMXBean} */
+    public BackendCounters getCounters() {
+        return m_Counters;
+    }
+
+    /** @return a snapshot of the devices open now */
+    public List<HidDevice> getOpenDevices() {
+        return new ArrayList<>(m_OpenDevices);
+    }
+
+    /** @return the first open device of the device id, there may be more, null if none */
     public HidDevice getDevice(String deviceId) {
-        return m_OpenDevices.get(deviceId);
+        for (HidDevice device : m_OpenDevices) {
+            if (isDevice(device, deviceId))
+                return device;
+        }
+        return null;
+    }
+
+    private static boolean isDevice(HidDevice device, String deviceId) {
+        HidDeviceInfo info = device.getHidDeviceInfo();
+        return info != null && deviceId.equals(info.getDeviceId());
     }
 
+    /** Closes every open device of the device id, all the interfaces of the device are gone. */
     public void deviceRemoved(String deviceId) {
-        purejavahidapi.HidDevice device = getDevice(deviceId);
-        if (device != null) {
+        if (deviceId == null)
+            return; // cannot tell which device it was
+        for (HidDevice device : m_OpenDevices) {
+            if (!isDevice(device, deviceId))
+                continue;
+            m_Counters.deviceRemoved();
             DeviceRemovalListener listener = device.getDeviceRemovalListener();
             device.close();
             if (listener != null)
                 listener.onDeviceRemoval(device);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import purejavahidapi.HidDevice;
+
+
+/**
+ * The counters of a {@link Backend}, exposed as {@link BackendMXBean}, and the
+ * registration of the MBeans of the backend and its open devices.
+ * <p>
+ * The MBeans are registered unless the system property
+ * {@code purejavahidapi.shared.Backend.jmx} is {@code false}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class BackendCounters implements BackendMXBean {
+
+    private static final Logger logger = Logger.getLogger(BackendCounters.class.getName());
+
+    /** register the MBeans or not */
+    static final boolean USE_JMX = Boolean.parseBoolean(System.getProperty("purejavahidapi.shared.Backend.jmx", "true"));
+
+    private static final String DOMAIN = "purejavahidapi";
+
+    private final Backend m_Backend;
+    private final Set<HidDevice> m_OpenDevices;
+    /** the MBean names of the open devices, a path may be open more than once */
+    private final Map<HidDevice, ObjectName> m_DeviceNames = new ConcurrentHashMap<>();
+    /** tells the MBeans of devices with the same path apart */
+    private final AtomicLong m_NextDeviceId = new AtomicLong();
+    private final LongAdder m_DevicesOpened = new LongAdder();
+    private final LongAdder m_DevicesClosed = new LongAdder();
+    private final LongAdder m_DeviceRemovals = new LongAdder();
+    private final LongAdder m_Enumerations = new LongAdder();
+    /** the totals of the devices that have been closed */
+    private final LongAdder m_ClosedReportsRead = new LongAdder();
+    private final LongAdder m_ClosedBytesRead = new LongAdder();
+    private final LongAdder m_ClosedReadErrors = new LongAdder();
+    private final LongAdder m_ClosedOutputFailures = new LongAdder();
+    private ObjectName m_Name;
+
+    BackendCounters(Backend backend, Set<HidDevice> openDevices) {
+        m_Backend = backend;
+        m_OpenDevices = openDevices;
+    }
+
+    /** Counts an enumeration. */
+    public void enumeration() {
+        m_Enumerations.increment();
+    }
+
+    void deviceOpened(HidDevice device) {
+        m_DevicesOpened.increment();
+        ObjectName name = deviceName(device.getCounters(), m_NextDeviceId.incrementAndGet());
+        if (name != null) {
+            m_DeviceNames.put(device, name);
+            register(device.getCounters(), name);
+        }
+    }
+
+    void deviceClosed(HidDevice device) {
+        m_DevicesClosed.increment();
+        DeviceCounters counters = device.getCounters();
+        m_ClosedReportsRead.add(counters.getReportsRead());
+        m_ClosedBytesRead.add(counters.getBytesRead());
+        m_ClosedReadErrors.add(counters.getReadErrors());
+        m_ClosedOutputFailures.add(outputFailures(counters));
+        unregister(m_DeviceNames.remove(device));
+    }
+
+    void deviceRemoved() {
+        m_DeviceRemovals.increment();
+    }
+
+    /** Registers the backend MBean. */
+    public void register() {
+        m_Name = name("type=Backend,name=" + getName());
+        register(this, m_Name);
+    }
+
+    /** Unregisters the backend MBean. */
+    public void unregister() {
+        unregister(m_Name);
+    }
+
+    private static ObjectName deviceName(DeviceCounters counters, long id) {
+        return name("type=HidDevice,path=" + ObjectName.quote(String.valueOf(counters.getPath())) + ",id=" + id);
+    }
+
+    private static ObjectName name(String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":" + properties);
+        } catch (JMException e) {
+            logger.log(Level.FINE, properties, e);
+            return null;
+        }
+    }
+
+    private static void register(Object mbean, ObjectName name) {
+        if (!USE_JMX || name == null)
+            return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+            server.registerMBean(mbean, name);
+        } catch (JMException | RuntimeException e) {
+            logger.log(Level.WARNING, "could not register " + name, e);
+        }
+    }
+
+    private static void unregister(ObjectName name) {
+        if (!USE_JMX || name == null)
+            return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        } catch (JMException | RuntimeException e) {
+            logger.log(Level.FINE, "could not unregister " + name, e);
+        }
+    }
+
+    private static long outputFailures(DeviceCounters counters) {
+        return counters.getOutputReportFailures() + counters.getFeatureReportSetFailures() + counters.getFeatureReportGetFailures();
+    }
+
+    private long sum(ToLongFunction<DeviceCounters> counter) {
+        long sum = 0;
+        for (HidDevice device : m_OpenDevices)
+            sum += counter.applyAsLong(device.getCounters());
+        return sum;
+    }
+
+    @Override
+    public String getName() {
+        return m_Backend.getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOpenDeviceCount() {
+        return m_OpenDevices.size();
+    }
+
+    @Override
+    public long getDevicesOpened() {
+        return m_DevicesOpened.sum();
+    }
+
+    @Override
+    public long getDevicesClosed() {
+        return m_DevicesClosed.sum();
+    }
+
+    @Override
+    public long getDeviceRemovals() {
+        return m_DeviceRemovals.sum();
+    }
+
+    @Override
+    public long getEnumerations() {
+        return m_Enumerations.sum();
+    }
+
+    @Override
+    public long getReportsRead() {
+        return m_ClosedReportsRead.sum() + sum(DeviceCounters::getReportsRead);
+    }
+
+    @Override
+    public long getBytesRead() {
+        return m_ClosedBytesRead.sum() + sum(DeviceCounters::getBytesRead);
+    }
+
+    @Override
+    public long getReadErrors() {
+        return m_ClosedReadErrors.sum() + sum(DeviceCounters::getReadErrors);
+    }
+
+    @Override
+    public long getOutputFailures() {
+        return m_ClosedOutputFailures.sum() + sum(BackendCounters::outputFailures);
+    }
+}
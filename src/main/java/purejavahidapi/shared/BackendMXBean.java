@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+/**
+ * The management interface registered for the backend as
+ * {@code purejavahidapi:type=Backend,name=...}.
+ * <p>
+ * The I/O totals include the devices that have been closed.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public interface BackendMXBean {
+
+    /** @return the backend class name */
+    String getName();
+
+    /** @return the number of devices open right now */
+    int getOpenDeviceCount();
+
+    /** @return the number of devices opened so far */
+    long getDevicesOpened();
+
+    /** @return the number of devices closed so far */
+    long getDevicesClosed();
+
+    /** @return the number of open devices that were unplugged */
+    long getDeviceRemovals();
+
+    /** @return the number of enumerations */
+    long getEnumerations();
+
+    /** @return the number of input reports read from all devices */
+    long getReportsRead();
+
+    /** @return the number of input report bytes read from all devices */
+    long getBytesRead();
+
+    /** @return the number of failed reads on all devices */
+    long getReadErrors();
+
+    /** @return the number of output and feature report calls that failed on all devices */
+    long getOutputFailures();
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+/**
+ * The service provider interface of the backends.
+ * <p>
+ * Providers are found with {@link java.util.ServiceLoader}, list the
+ * implementation in META-INF/services/purejavahidapi.shared.BackendProvider.
+ * {@link purejavahidapi.PureJavaHidApi} uses the supported provider with the
+ * highest priority, or the one named by the system property
+ * "purejavahidapi.PureJavaHidApi.backend". A provider with a negative priority
+ * is only used when it is named.
+ * <p>
+ * Implementations must have a public no-argument constructor and should be
+ * cheap to create, the backend itself is created only for the provider chosen.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public interface BackendProvider {
+
+    /** the priority of the backends of the operating systems */
+    int PLATFORM_PRIORITY = 100;
+
+    /** @return the name to select this backend by, e.g. "linux" */
+    String getName();
+
+    /** @return the higher the more preferred, negative for backends that are only used when named */
+    int getPriority();
+
+    /** @return false if the backend cannot run here, e.g. on another operating system */
+    boolean isSupported();
+
+    /** @return a new backend, {@link Backend#init()} is called by the caller */
+    Backend createBackend();
+}
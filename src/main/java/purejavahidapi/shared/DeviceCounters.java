@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import purejavahidapi.DispatchStatistics;
+import purejavahidapi.HidDevice;
+import purejavahidapi.HidDeviceInfo;
+
+
+/**
+ * The I/O counters of a device, exposed as {@link HidDeviceMXBean}.
+ * <p>
+ * Every counter is a {@link LongAdder}, so the reader thread, the callers of
+ * the output methods and the JMX clients never contend.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class DeviceCounters implements HidDeviceMXBean {
+
+    private final HidDevice m_Device;
+    final LongAdder m_ReportsRead = new LongAdder();
+    final LongAdder m_BytesRead = new LongAdder();
+    final LongAdder m_PollWakeups = new LongAdder();
+    final LongAdder m_ReadErrors = new LongAdder();
+    final LongAdder m_ShortReads = new LongAdder();
+    final LongAdder m_OutputReports = new LongAdder();
+    final LongAdder m_OutputReportFailures = new LongAdder();
+    final LongAdder m_FeatureReportsSet = new LongAdder();
+    final LongAdder m_FeatureReportSetFailures = new LongAdder();
+    final LongAdder m_FeatureReportsGot = new LongAdder();
+    final LongAdder m_FeatureReportGetFailures = new LongAdder();
+
+    /** @param device the device whose info and delivery statistics are exposed */
+    public DeviceCounters(HidDevice device) {
+        m_Device = device;
+    }
+
+    /** Counts an input report of the given length without the report id. */
+    public void reportRead(int length) {
+        m_ReportsRead.increment();
+        m_BytesRead.add(length);
+    }
+
+    /** Counts a wakeup of the reader. */
+    public void pollWakeup() {
+        m_PollWakeups.increment();
+    }
+
+    /** Counts a failed read. */
+    public void readError() {
+        m_ReadErrors.increment();
+    }
+
+    /** Counts an input report shorter than expected. */
+    public void shortRead() {
+        m_ShortReads.increment();
+    }
+
+    /**
+     * Counts a setOutputReport call.
+     *
+     * @param result the result of the call, negative if it failed
+     * @return result
+     */
+    public int outputReport(int result) {
+        m_OutputReports.increment();
+        if (result < 0)
+            m_OutputReportFailures.increment();
+        return result;
+    }
+
+    /**
+     * Counts a setFeatureReport call.
+     *
+     * @param result the result of the call, negative if it failed
+     * @return result
+     */
+    public int featureReportSet(int result) {
+        m_FeatureReportsSet.increment();
+        if (result < 0)
+            m_FeatureReportSetFailures.increment();
+        return result;
+    }
+
+    /**
+     * Counts a getFeatureReport call.
+     *
+     * @param result the result of the call, negative if it failed
+     * @return result
+     */
+    public int featureReportGot(int result) {
+        m_FeatureReportsGot.increment();
+        if (result < 0)
+            m_FeatureReportGetFailures.increment();
+        return result;
+    }
+
+    @Override
+    public String getPath() {
+        HidDeviceInfo info = m_Device.getHidDeviceInfo();
+        return info != null ? info.getPath() : null;
+    }
+
+    @Override
+    public int getVendorId() {
+        HidDeviceInfo info = m_Device.getHidDeviceInfo();
+        return info != null ? info.getVendorId() & 0xffff : 0;
+    }
+
+    @Override
+    public int getProductId() {
+        HidDeviceInfo info = m_Device.getHidDeviceInfo();
+        return info != null ? info.getProductId() & 0xffff : 0;
+    }
+
+    @Override
+    public long getReportsRead() {
+        return m_ReportsRead.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return m_BytesRead.sum();
+    }
+
+    @Override
+    public long getPollWakeups() {
+        return m_PollWakeups.sum();
+    }
+
+    @Override
+    public long getReadErrors() {
+        return m_ReadErrors.sum();
+    }
+
+    @Override
+    public long getShortReads() {
+        return m_ShortReads.sum();
+    }
+
+    @Override
+    public long getDroppedReports() {
+        long dropped = m_Device.getReportRingOverruns();
+        DispatchStatistics statistics = m_Device.getDispatchStatistics();
+        if (statistics != null)
+            dropped += statistics.getDroppedOldest() + statistics.getDroppedNewest();
+        return dropped;
+    }
+
+    @Override
+    public long getConflatedReports() {
+        DispatchStatistics statistics = m_Device.getDispatchStatistics();
+        return statistics != null ? statistics.getConflated() : 0;
+    }
+
+    @Override
+    public long getOutputReports() {
+        return m_OutputReports.sum();
+    }
+
+    @Override
+    public long getOutputReportFailures() {
+        return m_OutputReportFailures.sum();
+    }
+
+    @Override
+    public long getFeatureReportsSet() {
+        return m_FeatureReportsSet.sum();
+    }
+
+    @Override
+    public long getFeatureReportSetFailures() {
+        return m_FeatureReportSetFailures.sum();
+    }
+
+    @Override
+    public long getFeatureReportsGot() {
+        return m_FeatureReportsGot.sum();
+    }
+
+    @Override
+    public long getFeatureReportGetFailures() {
+        return m_FeatureReportGetFailures.sum();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * A JFR event for a device being opened or closed.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@Name("purejavahidapi.Device")
+@Label("HID Device Open/Close")
+@Category({"HID"})
+@Description("A HID device was opened or closed")
+public final class DeviceEvent extends Event {
+
+    @Label("Device Path")
+    public String path;
+
+    @Label("Action")
+    @Description("open or close")
+    public String action;
+
+    @Label("Vendor Id")
+    public int vendorId;
+
+    @Label("Product Id")
+    public int productId;
+}
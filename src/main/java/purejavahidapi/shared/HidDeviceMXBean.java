@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+/**
+ * The management interface registered for every open device as
+ * {@code purejavahidapi:type=HidDevice,path=...,id=...}, the id tells apart
+ * the devices opened more than once.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public interface HidDeviceMXBean {
+
+    /** @return the device path */
+    String getPath();
+
+    /** @return the USB vendor id */
+    int getVendorId();
+
+    /** @return the USB product id */
+    int getProductId();
+
+    /** @return the number of input reports read from the device */
+    long getReportsRead();
+
+    /** @return the number of input report bytes read from the device, without report ids */
+    long getBytesRead();
+
+    /** @return the number of times the reader woke up because the device was readable, Linux only */
+    long getPollWakeups();
+
+    /** @return the number of failed reads */
+    long getReadErrors();
+
+    /** @return the number of input reports shorter than the report descriptor says */
+    long getShortReads();
+
+    /** @return the number of input reports dropped by the report ring or the dispatch stage */
+    long getDroppedReports();
+
+    /** @return the number of input reports overwritten by the dispatch stage in conflate mode */
+    long getConflatedReports();
+
+    /** @return the number of setOutputReport calls */
+    long getOutputReports();
+
+    /** @return the number of setOutputReport calls that failed */
+    long getOutputReportFailures();
+
+    /** @return the number of setFeatureReport calls */
+    long getFeatureReportsSet();
+
+    /** @return the number of setFeatureReport calls that failed */
+    long getFeatureReportSetFailures();
+
+    /** @return the number of getFeatureReport calls */
+    long getFeatureReportsGot();
+
+    /** @return the number of getFeatureReport calls that failed */
+    long getFeatureReportGetFailures();
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A fixed-size log-linear histogram of nanosecond values.
+ * <p>
+ * Every power of two range is split into 32 linear buckets, so any recorded
+ * value is known within about 3%. Values from 0 to about 68 seconds are kept,
+ * larger ones are counted in the last bucket. The buckets take 8 KiB and
+ * recording neither allocates nor locks.
+ * <p>
+ * There should be only one thread recording into a histogram, any thread may
+ * take a snapshot. Values recorded while {@link #reset()} runs may be lost.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class Histogram {
+
+    /** the number of bits of linear buckets per power of two */
+    private static final int SUB_BUCKET_BITS = 5;
+    /** the largest value that is kept apart, 2^36 ns */
+    private static final long MAX_VALUE = (1L << 36) - 1;
+    private static final int BUCKETS = bucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray m_Counts = new AtomicLongArray(BUCKETS);
+    private volatile long m_Count;
+    private volatile long m_Sum;
+    private volatile long m_Min = Long.MAX_VALUE;
+    private volatile long m_Max;
+
+    static int bucketIndex(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value | 1) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /** @return the largest value that falls into the bucket */
+    static long highestValue(int index) {
+        if (index < 2 << SUB_BUCKET_BITS)
+            return index;
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        long top = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * Records a value, the recording thread only.
+     *
+     * @param value nanoseconds, negative values are recorded as 0
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        int index = bucketIndex(Math.min(value, MAX_VALUE));
+        m_Counts.lazySet(index, m_Counts.get(index) + 1);
+        m_Sum += value;
+        if (value < m_Min)
+            m_Min = value;
+        if (value > m_Max)
+            m_Max = value;
+        m_Count++;
+    }
+
+    /** Clears all the counts. */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            m_Counts.set(i, 0);
+        m_Count = 0;
+        m_Sum = 0;
+        m_Min = Long.MAX_VALUE;
+        m_Max = 0;
+    }
+
+    /**
+     * Copies the counts of this histogram into target without allocating.
+     *
+     * @param target the histogram to overwrite
+     * @return target
+     */
+    public Histogram copyInto(Histogram target) {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = m_Counts.get(i);
+            target.m_Counts.set(i, c);
+            count += c;
+        }
+        // the total is recounted, so the snapshot is consistent with its buckets
+        target.m_Count = count;
+        target.m_Sum = m_Sum;
+        target.m_Min = m_Min;
+        target.m_Max = m_Max;
+        return target;
+    }
+
+    /** @return a copy of this histogram */
+    public Histogram snapshot() {
+        return copyInto(new Histogram());
+    }
+
+    /** @return the number of recorded values */
+    public long getCount() {
+        return m_Count;
+    }
+
+    /** @return the smallest recorded value, 0 if none */
+    public long getMin() {
+        return m_Count == 0 ? 0 : m_Min;
+    }
+
+    /** @return the largest recorded value, 0 if none */
+    public long getMax() {
+        return m_Max;
+    }
+
+    /** @return the average of the recorded values, 0 if none */
+    public double getMean() {
+        long count = m_Count;
+        return count == 0 ? 0 : (double) m_Sum / count;
+    }
+
+    /**
+     * @param percentile 0 to 100, e.g. 99.9
+     * @return the value at or below which the given percentage of the recorded
+     *         values fall, as the upper end of its bucket, 0 if none
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = m_Count;
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += m_Counts.get(i);
+            if (seen >= rank)
+                return i == BUCKETS - 1 ? m_Max : Math.min(highestValue(i), m_Max); // the last bucket is open-ended
+        }
+        return m_Max;
+    }
+
+    /** @return the count and the usual percentiles in microseconds on one line */
+    @Override
+    public String toString() {
+        return String.format("count=%d min=%.1f p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f mean=%.1f (us)",
+                getCount(), getMin() / 1000d, getValueAtPercentile(50) / 1000d, getValueAtPercentile(90) / 1000d,
+                getValueAtPercentile(99) / 1000d, getValueAtPercentile(99.9) / 1000d, getMax() / 1000d, getMean() / 1000d);
+    }
+}
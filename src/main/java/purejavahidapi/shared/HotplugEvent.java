@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * A JFR event for a device being plugged in or unplugged.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@Name("purejavahidapi.Hotplug")
+@Label("HID Hotplug")
+@Category({"HID"})
+@Description("A device was plugged in or unplugged")
+public final class HotplugEvent extends Event {
+
+    @Label("Device Path")
+    public String path;
+
+    @Label("Action")
+    @Description("add or remove")
+    public String action;
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * A JFR event for an input report read from a device, its duration is the read.
+ * <p>
+ * Ask a shared instance whether it {@link #isEnabled()} and create one before
+ * the read only if so, check {@link #shouldCommit()} before filling in the
+ * fields, so nothing is allocated or done while no recording wants it.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@Name("purejavahidapi.InputReport")
+@Label("HID Input Report")
+@Category({"HID"})
+@Description("An input report read from a HID device")
+public final class InputReportEvent extends Event {
+
+    @Label("Device Path")
+    public String path;
+
+    @Label("Report Id")
+    public int reportId;
+
+    @Label("Length")
+    @Description("The report length without the report id")
+    @DataAmount
+    public int length;
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * A bounded queue of output reports waiting to be written, with a future per report.
+ * <p>
+ * The slots are allocated up front, each holds the report id in its first byte
+ * followed by the report data, ready to be written as it is. Reports are
+ * written and completed in the order they were offered.
+ * <p>
+ * The writer {@link #peek()}s the oldest report, writes it and
+ * {@link #complete(int)}s it, the report stays in the queue while it is written.
+ * The arm callback is called whenever the queue goes from empty to not empty,
+ * that is when the writer has to be woken up. If {@link #complete(int)} says
+ * the queue is empty the writer must stop, the next offer arms it again, so
+ * there is never more than one writer.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class OutputReportQueue {
+
+    private final int m_Capacity;
+    private final int m_SlotSize;
+    private final ByteBuffer[] m_Slots;
+    private final int[] m_Lengths;
+    private final CompletableFuture<Integer>[] m_Futures;
+    private final ReentrantLock m_Lock = new ReentrantLock();
+    private final Runnable m_Arm;
+    private int m_Head;
+    private int m_Count;
+    private boolean m_Closed;
+
+    /**
+     * @param capacity         the number of reports that can wait
+     * @param maxReportLength  the longest report without the report id
+     * @param arm              called with the queue lock held when the queue stops being empty
+     * @throws IllegalArgumentException if the capacity is not positive or the slots do not fit in one buffer
+     */
+    @SuppressWarnings("unchecked")
+    public OutputReportQueue(int capacity, int maxReportLength, Runnable arm) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity: " + capacity);
+        m_Capacity = capacity;
+        m_SlotSize = maxReportLength + 1;
+        ByteBuffer memory;
+        try {
+            memory = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, m_SlotSize));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("capacity: " + capacity + ", max report length: " + maxReportLength, e);
+        }
+        m_Slots = new ByteBuffer[capacity];
+        for (int i = 0; i < capacity; i++)
+            m_Slots[i] = memory.slice(i * m_SlotSize, m_SlotSize);
+        m_Lengths = new int[capacity];
+        m_Futures = (CompletableFuture<Integer>[]) new CompletableFuture<?>[capacity];
+        m_Arm = arm;
+    }
+
+    /**
+     * Queues a report.
+     *
+     * @param reportId the report id or 0
+     * @param data     the report data between position and limit, the position is not changed
+     * @return completes with the number of data bytes written, exceptionally if the
+     *         report does not fit, the queue is full or closed or the write fails
+     */
+    public CompletableFuture<Integer> offer(int reportId, ByteBuffer data) {
+        int length = data.remaining();
+        if (length >= m_SlotSize)
+            return CompletableFuture.failedFuture(new IllegalArgumentException("report too long: " + length));
+        m_Lock.lock();
+        try {
+            if (m_Closed)
+                return CompletableFuture.failedFuture(new IllegalStateException("device not open"));
+            if (m_Count == m_Capacity)
+                return CompletableFuture.failedFuture(new RejectedExecutionException("output report queue full"));
+            int slot = (m_Head + m_Count) % m_Capacity;
+            ByteBuffer buffer = m_Slots[slot];
+            buffer.put(0, (byte) reportId);
+            buffer.put(1, data, data.position(), length);
+            m_Lengths[slot] = length + 1;
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            m_Futures[slot] = future;
+            if (m_Count++ == 0)
+                m_Arm.run();
+            return future;
+        } finally {
+            m_Lock.unlock();
+        }
+    }
+
+    /**
+     * @return the oldest report, the report id at 0 followed by the data up to the limit,
+     *         null if the queue is empty, the writer only
+     */
+    public ByteBuffer peek() {
+        m_Lock.lock();
+        try {
+            if (m_Count == 0)
+                return null;
+            return m_Slots[m_Head].clear().limit(m_Lengths[m_Head]);
+        } finally {
+            m_Lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest report and completes its future, the writer only.
+     *
+     * @param result the number of data bytes written without the report id, negative if the write failed
+     * @return true if there are more reports, false if the writer has to stop
+     */
+    public boolean complete(int result) {
+        CompletableFuture<Integer> future;
+        boolean more;
+        m_Lock.lock();
+        try {
+            if (m_Count == 0)
+                return false;
+            future = m_Futures[m_Head];
+            m_Futures[m_Head] = null;
+            m_Head = (m_Head + 1) % m_Capacity;
+            more = --m_Count > 0;
+        } finally {
+            m_Lock.unlock();
+        }
+        // completed outside the lock, dependent actions may offer again
+        if (result < 0)
+            future.completeExceptionally(new IOException("output report write failed"));
+        else
+            future.complete(result);
+        return more;
+    }
+
+    /** @return true if no report is waiting */
+    public boolean isEmpty() {
+        m_Lock.lock();
+        try {
+            return m_Count == 0;
+        } finally {
+            m_Lock.unlock();
+        }
+    }
+
+    /** Fails the waiting reports and refuses new ones. */
+    public void close() {
+        CompletableFuture<?>[] pending;
+        m_Lock.lock();
+        try {
+            m_Closed = true;
+            pending = new CompletableFuture<?>[m_Count];
+            for (int i = 0; i < m_Count; i++) {
+                int slot = (m_Head + i) % m_Capacity;
+                pending[i] = m_Futures[slot];
+                m_Futures[slot] = null;
+            }
+            m_Count = 0;
+        } finally {
+            m_Lock.unlock();
+        }
+        for (CompletableFuture<?> future : pending)
+            future.completeExceptionally(new IllegalStateException("device closed"));
+    }
+}
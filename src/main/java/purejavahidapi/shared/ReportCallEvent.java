@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * A JFR event for a setOutputReport, setFeatureReport or getFeatureReport call.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@Name("purejavahidapi.ReportCall")
+@Label("HID Report Call")
+@Category({"HID"})
+@Description("An output or feature report sent to or a feature report received from a HID device")
+public final class ReportCallEvent extends Event {
+
+    /** never committed, only asked whether report call events are enabled */
+    private static final ReportCallEvent PROBE = new ReportCallEvent();
+
+    @Label("Device Path")
+    public String path;
+
+    @Label("Call")
+    @Description("setOutputReport, setFeatureReport or getFeatureReport")
+    public String call;
+
+    @Label("Report Id")
+    public int reportId;
+
+    @Label("Bytes")
+    @Description("The number of bytes passed to the call")
+    @DataAmount
+    public int bytes;
+
+    @Label("Result")
+    @Description("The result of the call, -1 if it failed")
+    public int result;
+
+    /**
+     * @return a begun event, null while no recording has report call events enabled,
+     *         so that the report calls allocate nothing
+     */
+    public static ReportCallEvent beginIfEnabled() {
+        if (!PROBE.isEnabled())
+            return null;
+        ReportCallEvent event = new ReportCallEvent();
+        event.begin();
+        return event;
+    }
+}
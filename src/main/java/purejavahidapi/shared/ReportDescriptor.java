@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+
+/**
+ * ReportDescriptor walks the items of a HID report descriptor and sums up the
+ * report sizes declared by the Input, Output and Feature main items per report id.
+ * <p>
+ * This is not a full parser, only the global state that affects the report
+ * lengths (Report Size, Report Count, Report ID, Push, Pop) and the usage of the
+ * first application collection are tracked.
+ * See HID specification, version 1.11, section 6.2.2.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class ReportDescriptor {
+
+    public static final int INPUT = 0;
+    public static final int OUTPUT = 1;
+    public static final int FEATURE = 2;
+
+    private static final int TYPE_MAIN = 0;
+    private static final int TYPE_GLOBAL = 1;
+    private static final int TYPE_LOCAL = 2;
+
+    private static final int MAIN_INPUT = 0x8;
+    private static final int MAIN_OUTPUT = 0x9;
+    private static final int MAIN_COLLECTION = 0xa;
+    private static final int MAIN_FEATURE = 0xb;
+    private static final int MAIN_END_COLLECTION = 0xc;
+
+    private static final int GLOBAL_USAGE_PAGE = 0x0;
+    private static final int GLOBAL_REPORT_SIZE = 0x7;
+    private static final int GLOBAL_REPORT_ID = 0x8;
+    private static final int GLOBAL_REPORT_COUNT = 0x9;
+    private static final int GLOBAL_PUSH = 0xa;
+    private static final int GLOBAL_POP = 0xb;
+
+    private static final int LOCAL_USAGE = 0x0;
+
+    private static final int COLLECTION_APPLICATION = 0x01;
+
+    /** report bits indexed by [type][report id] */
+    private final long[][] m_ReportBits = new long[3][256];
+    private boolean m_UsesNumberedReports;
+    private int m_UsagePage;
+    private int m_Usage;
+
+    private ReportDescriptor() {
+    }
+
+    /**
+     * @param descriptor the raw report descriptor
+     * @param length     the number of valid bytes in descriptor
+     * @return the parsed descriptor, a malformed tail is ignored
+     */
+    public static ReportDescriptor parse(byte[] descriptor, int length) {
+        ReportDescriptor result = new ReportDescriptor();
+        result.parseItems(descriptor, Math.min(length, descriptor.length));
+        return result;
+    }
+
+    private void parseItems(byte[] d, int size) {
+        int reportSize = 0;
+        int reportCount = 0;
+        int reportId = 0;
+        int usagePage = 0;
+        int usage = 0;
+        boolean hasUsage = false;
+        boolean extendedUsage = false;
+        int depth = 0;
+        Deque<int[]> stack = new ArrayDeque<>();
+
+        int i = 0;
+        while (i < size) {
+            int key = d[i] & 0xff;
+            if (key == 0xfe) {
+                // Long Item, the next byte is the data size. See section 6.2.2.3.
+                int dataLength = i + 1 < size ? d[i + 1] & 0xff : 0;
+                i += 3 + dataLength;
+                continue;
+            }
+            int dataLength = (key & 0x3) == 3 ? 4 : key & 0x3;
+            if (i + dataLength >= size)
+                break; // malformed tail
+            int value = 0;
+            for (int j = 0; j < dataLength; j++)
+                value |= (d[i + 1 + j] & 0xff) << (8 * j);
+            int type = (key >> 2) & 0x3;
+            int tag = (key >> 4) & 0xf;
+            i += 1 + dataLength;
+
+            switch (type) {
+            case TYPE_MAIN:
+                switch (tag) {
+                case MAIN_INPUT -> m_ReportBits[INPUT][reportId] += (long) reportSize * reportCount;
+                case MAIN_OUTPUT -> m_ReportBits[OUTPUT][reportId] += (long) reportSize * reportCount;
+                case MAIN_FEATURE -> m_ReportBits[FEATURE][reportId] += (long) reportSize * reportCount;
+                case MAIN_COLLECTION -> {
+                    if (depth == 0 && (value & 0xff) == COLLECTION_APPLICATION && m_UsagePage == 0 && hasUsage) {
+                        // an extended usage carries its own page in the upper 16 bits
+                        m_UsagePage = extendedUsage ? usage >>> 16 : usagePage;
+                        m_Usage = usage & 0xffff;
+                    }
+                    depth++;
+                }
+                case MAIN_END_COLLECTION -> depth = Math.max(0, depth - 1);
+                default -> {
+                }
+                }
+                hasUsage = false; // local items only apply to the next main item
+                break;
+            case TYPE_GLOBAL:
+                switch (tag) {
+                case GLOBAL_USAGE_PAGE -> usagePage = value & 0xffff;
+                case GLOBAL_REPORT_SIZE -> reportSize = value;
+                case GLOBAL_REPORT_COUNT -> reportCount = value;
+                case GLOBAL_REPORT_ID -> {
+                    reportId = value & 0xff;
+                    m_UsesNumberedReports = true;
+                }
+                case GLOBAL_PUSH -> stack.push(new int[] {reportSize, reportCount, reportId, usagePage});
+                case GLOBAL_POP -> {
+                    if (!stack.isEmpty()) {
+                        int[] state = stack.pop();
+                        reportSize = state[0];
+                        reportCount = state[1];
+                        reportId = state[2];
+                        usagePage = state[3];
+                    }
+                }
+                default -> {
+                }
+                }
+                break;
+            case TYPE_LOCAL:
+                if (tag == LOCAL_USAGE && !hasUsage) {
+                    usage = value;
+                    extendedUsage = dataLength == 4;
+                    hasUsage = true;
+                }
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    /** @return true if the descriptor declares any Report ID, then every report is preceded by its id */
+    public boolean usesNumberedReports() {
+        return m_UsesNumberedReports;
+    }
+
+    /**
+     * @param type     one of {@link #INPUT}, {@link #OUTPUT} or {@link #FEATURE}
+     * @param reportId the report id, 0 if numbered reports are not used
+     * @return the report length in bytes not including the report id, 0 if there is no such report
+     */
+    public int getReportLength(int type, int reportId) {
+        return (int) ((m_ReportBits[type][reportId & 0xff] + 7) / 8);
+    }
+
+    /**
+     * @param type one of {@link #INPUT}, {@link #OUTPUT} or {@link #FEATURE}
+     * @return the length of the longest report of the type in bytes not including the report id
+     */
+    public int getMaxReportLength(int type) {
+        long max = 0;
+        for (long bits : m_ReportBits[type])
+            max = Math.max(max, bits);
+        return (int) ((max + 7) / 8);
+    }
+
+    /** @return the usage page of the first application collection or 0 */
+    public int getUsagePage() {
+        return m_UsagePage;
+    }
+
+    /** @return the usage of the first application collection or 0 */
+    public int getUsage() {
+        return m_Usage;
+    }
+}
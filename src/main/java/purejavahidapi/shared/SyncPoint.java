@@ -1,69 +0,0 @@
-/*
- * Copyright (c) 2014, Kustaa Nyholm / SpareTimeLabs
- * All rights reserved.
- *
- * Redistribution and use in source and binary forms, with or without modification,
- * are permitted provided that the following conditions are met:
- *
- * Redistributions of source code must retain the above copyright notice, this list
- * of conditions and the following disclaimer.
- *
- * Redistributions in binary form must reproduce the above copyright notice, this
- * list of conditions and the following disclaimer in the documentation and/or other
- * materials provided with the distribution.
- *
- * Neither the name of the Kustaa Nyholm or SpareTimeLabs nor the names of its
- * contributors may be used to endorse or promote products derived from this software
- * without specific prior written permission.
- *
- * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
- * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
- * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
- * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
- * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
- * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
- * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
- * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
- * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
- * OF SUCH DAMAGE.
- */
-
-package purejavahidapi.shared;
-
-public class SyncPoint {
-
-    int m_TripCount;
-    int m_Count;
-    boolean m_Tripped;
-    final Object m_Mutex = new Object();
-
-    public SyncPoint(int tripCount) {
-        m_TripCount = tripCount;
-    }
-
-    public boolean waitAndSync() {
-        synchronized (m_Mutex) {
-            if (m_Tripped)
-                throw new IllegalStateException();
-            m_Count++;
-            if (m_Count >= m_TripCount) {
-                m_Tripped = true;
-                m_Count--;
-                m_Mutex.notifyAll();
-                return true;
-            } else {
-                while (!m_Tripped) {
-                    try {
-                        m_Mutex.wait();
-                    } catch (InterruptedException ie) {
-                    }
-                }
-
-                m_Count--;
-                if (m_Count <= 0)
-                    m_Tripped = false;
-                return false;
-            }
-        }
-    }
-}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.lang.reflect.Method;
+
+
+/**
+ * Creates virtual threads when the running JDK has them, 21 or later.
+ * <p>
+ * The library is built for 17 so the JDK 21 API is looked up reflectively once.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class VirtualThreads {
+
+    /** Thread#ofVirtual(), null before JDK 21 */
+    private static final Method OF_VIRTUAL;
+    /** Thread.Builder#name(String) */
+    private static final Method NAME;
+    /** Thread.Builder#unstarted(Runnable) */
+    private static final Method UNSTARTED;
+    /** Thread#isVirtual() */
+    private static final Method IS_VIRTUAL;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        Method isVirtual = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class);
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+            isVirtual = Thread.class.getMethod("isVirtual");
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null; // before JDK 21
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+        IS_VIRTUAL = isVirtual;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /** @return true if the running JDK has virtual threads */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @param name the thread name
+     * @param task what the thread runs
+     * @return a virtual thread that is not started yet
+     * @throws UnsupportedOperationException if the JDK has no virtual threads
+     */
+    public static Thread newThread(String name, Runnable task) {
+        if (OF_VIRTUAL == null)
+            throw new UnsupportedOperationException("virtual threads need JDK 21 or later");
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name);
+            return (Thread) UNSTARTED.invoke(builder, task);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** @return true if the thread is a virtual one */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null)
+            return false;
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
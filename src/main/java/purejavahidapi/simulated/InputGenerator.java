@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Scripts the input reports of a simulated device.
+ * <p>
+ * A generator is asked for the next report when the previous one has been
+ * sent and says how long after the previous one it is due. Generators keep
+ * their position, a device gets a new one every time it is opened, see
+ * {@link SimulatedDeviceSpec#withInput(java.util.function.Supplier)}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@FunctionalInterface
+public interface InputGenerator {
+
+    /**
+     * Puts the next input report into the buffer.
+     *
+     * @param report cleared, the generator puts the report id, 0 if numbered reports
+     *               are not used, followed by the report data
+     * @return nanoseconds from the previous report, or from the open for the first
+     *         one, to this one, negative if there are no more reports
+     */
+    long next(ByteBuffer report);
+
+    /**
+     * @param hz     reports per second
+     * @param report the report id followed by the report data, sent over and over
+     */
+    static InputGenerator fixedRate(double hz, byte[] report) {
+        if (hz <= 0)
+            throw new IllegalArgumentException("hz: " + hz);
+        long period = Math.round(1_000_000_000d / hz);
+        return buffer -> {
+            buffer.put(report);
+            return period;
+        };
+    }
+
+    /**
+     * Bursts of reports back to back with pauses between them, like a device
+     * that flushes a queue.
+     *
+     * @param burst       reports per burst
+     * @param spacing     nanoseconds between the reports in a burst
+     * @param pause       nanoseconds before the first report of every burst
+     * @param report      the report id followed by the report data, sent over and over
+     */
+    static InputGenerator bursty(int burst, long spacing, long pause, byte[] report) {
+        if (burst <= 0)
+            throw new IllegalArgumentException("burst: " + burst);
+        int[] sent = new int[1];
+        return buffer -> {
+            buffer.put(report);
+            return sent[0]++ % burst == 0 ? pause : spacing;
+        };
+    }
+
+    /**
+     * Plays recorded reports back with their recorded timing.
+     *
+     * @param times   when each report arrived in nanoseconds, from any origin, ascending
+     * @param reports the report id followed by the report data of each report
+     * @param loop    whether to start over after the last report
+     */
+    static InputGenerator trace(long[] times, byte[][] reports, boolean loop) {
+        if (times.length != reports.length)
+            throw new IllegalArgumentException("times and reports differ in length");
+        if (times.length == 0)
+            return buffer -> -1;
+        // between the last report and the first again the mean interval
+        long wrap = times.length > 1 ? (times[times.length - 1] - times[0]) / (times.length - 1) : 1_000_000;
+        int[] next = new int[1];
+        boolean[] started = new boolean[1];
+        return buffer -> {
+            int i = next[0];
+            if (i == times.length) {
+                if (!loop)
+                    return -1;
+                i = 0;
+            }
+            next[0] = i + 1;
+            buffer.put(reports[i]);
+            if (i > 0)
+                return times[i] - times[i - 1];
+            // the first report is due at once, the first of a later round after the mean interval
+            if (started[0])
+                return wrap;
+            started[0] = true;
+            return 0;
+        };
+    }
+
+    /**
+     * Plays a recording of hid-recorder from hid-tools back, the "E:" lines
+     * with the time in seconds, the length and the bytes of the report in hex.
+     *
+     * @param recording the file written by hid-recorder
+     * @param numbered  whether the device uses numbered reports, if not the report id 0 is put first
+     * @param loop      whether to start over after the last report
+     */
+    static InputGenerator trace(Path recording, boolean numbered, boolean loop) throws IOException {
+        List<Long> times = new ArrayList<>();
+        List<byte[]> reports = new ArrayList<>();
+        for (String line : Files.readAllLines(recording)) {
+            if (!line.startsWith("E:"))
+                continue;
+            String[] fields = line.substring(2).trim().split("\\s+");
+            times.add(Math.round(Double.parseDouble(fields[0]) * 1_000_000_000d));
+            int length = Integer.parseInt(fields[1]);
+            int offset = numbered ? 0 : 1;
+            byte[] report = new byte[length + offset];
+            for (int i = 0; i < length; i++)
+                report[offset + i] = (byte) Integer.parseInt(fields[2 + i], 16);
+            reports.add(report);
+        }
+        long[] t = new long[times.size()];
+        for (int i = 0; i < t.length; i++)
+            t[i] = times.get(i);
+        return trace(t, reports.toArray(new byte[0][]), loop);
+    }
+}
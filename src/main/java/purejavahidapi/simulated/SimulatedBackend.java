@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import purejavahidapi.BackendCapability;
+import purejavahidapi.HidDevice;
+import purejavahidapi.HidDeviceInfo;
+import purejavahidapi.shared.Backend;
+import purejavahidapi.shared.Histogram;
+
+
+/**
+ * A backend of simulated devices in this process, for testing and load
+ * testing without hardware.
+ * <p>
+ * Devices are {@link #plug(SimulatedDeviceSpec) plugged} in and enumerated
+ * like real ones. Their input reports are sent by a few clock threads shared
+ * by all the devices, so that hundreds of devices at a kilohertz run on one
+ * box, output and feature reports are recorded by {@link SimulatedDevice}.
+ * <p>
+ * {@link purejavahidapi.PureJavaHidApi} uses {@link #getDefault()} when the
+ * system property "purejavahidapi.PureJavaHidApi.backend" is "simulated".
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class SimulatedBackend extends Backend {
+
+    /** The number of clock threads, devices are sharded over them round robin. */
+    private static final int CLOCK_THREADS = Integer.getInteger("purejavahidapi.simulated.SimulatedBackend.clockThreads", 1);
+
+    private static final SimulatedBackend DEFAULT = new SimulatedBackend(CLOCK_THREADS);
+
+    /** the plugged in devices by path, in the order they were plugged in */
+    private final Map<String, SimulatedDeviceInfo> m_Devices = new ConcurrentSkipListMap<>();
+    private final AtomicInteger m_NextPath = new AtomicInteger();
+    private final int m_ClockThreads;
+    private SimulatedClock[] m_Clocks;
+    private int m_NextClock;
+
+    /**
+     * @param clockThreads the number of threads that send the input reports
+     */
+    public SimulatedBackend(int clockThreads) {
+        m_ClockThreads = Math.max(1, clockThreads);
+    }
+
+    /** @return the instance {@link purejavahidapi.PureJavaHidApi} uses if the simulation is selected */
+    public static SimulatedBackend getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public void init() {
+    }
+
+    @Override
+    public Set<BackendCapability> getCapabilities() {
+        return EnumSet.of(BackendCapability.TIMESTAMPS);
+    }
+
+    @Override
+    public synchronized void cleanup() {
+        if (m_Clocks != null) {
+            for (SimulatedClock clock : m_Clocks)
+                clock.shutdown();
+            m_Clocks = null;
+        }
+    }
+
+    /**
+     * Plugs a simulated device in.
+     *
+     * @return the info to open the device with, also returned by {@link #enumerateDevices()}
+     */
+    public HidDeviceInfo plug(SimulatedDeviceSpec spec) {
+        // zero padded so that the devices enumerate in the order they were plugged in
+        String path = String.format("simulated/%06d", m_NextPath.getAndIncrement());
+        SimulatedDeviceInfo info = new SimulatedDeviceInfo(path, spec);
+        m_Devices.put(path, info);
+        return info;
+    }
+
+    /**
+     * Unplugs a simulated device, if it is open it is closed and its removal
+     * listener is called as for a real device.
+     */
+    public void unplug(HidDeviceInfo info) {
+        if (m_Devices.remove(info.getPath()) != null)
+            deviceRemoved(info.getDeviceId());
+    }
+
+    @Override
+    public List<HidDeviceInfo> enumerateDevices() {
+        return new ArrayList<>(m_Devices.values());
+    }
+
+    @Override
+    public HidDevice openDevice(HidDeviceInfo info) {
+        SimulatedDeviceInfo simulated = m_Devices.get(info.getPath());
+        if (simulated == null)
+            return null;
+        return new SimulatedDevice(simulated, this, nextClock());
+    }
+
+    /** @return the clock the next device is sent by */
+    private synchronized SimulatedClock nextClock() {
+        if (m_Clocks == null) {
+            SimulatedClock[] clocks = new SimulatedClock[m_ClockThreads];
+            for (int i = 0; i < clocks.length; i++)
+                clocks[i] = new SimulatedClock("purejavahidapi-simulated-" + i);
+            m_Clocks = clocks;
+        }
+        SimulatedClock clock = m_Clocks[m_NextClock];
+        m_NextClock = (m_NextClock + 1) % m_Clocks.length;
+        return clock;
+    }
+
+    /**
+     * @return per clock thread how late the input reports were sent in nanoseconds,
+     *         a growing lag means the listeners cannot keep up with the rate
+     */
+    public synchronized List<Histogram> getClockLag() {
+        List<Histogram> lag = new ArrayList<>();
+        if (m_Clocks != null) {
+            for (SimulatedClock clock : m_Clocks)
+                lag.add(clock.getLag());
+        }
+        return lag;
+    }
+}
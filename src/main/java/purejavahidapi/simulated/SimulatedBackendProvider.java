@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import purejavahidapi.shared.Backend;
+import purejavahidapi.shared.BackendProvider;
+
+
+/**
+ * Provides {@link SimulatedBackend#getDefault()}, only when it is named
+ * "simulated" by the system property "purejavahidapi.PureJavaHidApi.backend".
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class SimulatedBackendProvider implements BackendProvider {
+
+    @Override
+    public String getName() {
+        return "simulated";
+    }
+
+    @Override
+    public int getPriority() {
+        return -1;
+    }
+
+    @Override
+    public boolean isSupported() {
+        return true;
+    }
+
+    @Override
+    public Backend createBackend() {
+        return SimulatedBackend.getDefault();
+    }
+}
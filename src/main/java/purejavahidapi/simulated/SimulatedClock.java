@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import purejavahidapi.shared.Histogram;
+
+
+/**
+ * A thread that sends the input reports of many simulated devices when they
+ * are due, the earliest first, the way a reactor thread reads many real ones.
+ * The listeners are called on this thread.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+final class SimulatedClock {
+
+    private final PriorityQueue<SimulatedDevice> m_Due = new PriorityQueue<>(Comparator.comparingLong(SimulatedDevice::getNextDue));
+    private final ReentrantLock m_Lock = new ReentrantLock();
+    private final Condition m_Changed = m_Lock.newCondition();
+    /** how late the reports were sent, recorded by the clock thread only */
+    private final Histogram m_Lag = new Histogram();
+    private final Thread m_Thread;
+    private volatile boolean m_Stop;
+
+    SimulatedClock(String name) {
+        m_Thread = new Thread(this::run, name);
+        m_Thread.setDaemon(true);
+        m_Thread.start();
+    }
+
+    /** sends the reports of the device from its next due time on */
+    void schedule(SimulatedDevice device) {
+        m_Lock.lock();
+        try {
+            m_Due.add(device);
+            if (m_Due.peek() == device)
+                m_Changed.signal();
+        } finally {
+            m_Lock.unlock();
+        }
+    }
+
+    void cancel(SimulatedDevice device) {
+        m_Lock.lock();
+        try {
+            m_Due.remove(device);
+        } finally {
+            m_Lock.unlock();
+        }
+    }
+
+    /** @return how late the reports were sent in nanoseconds */
+    Histogram getLag() {
+        return m_Lag.snapshot();
+    }
+
+    void shutdown() {
+        m_Stop = true;
+        m_Lock.lock();
+        try {
+            m_Changed.signal();
+        } finally {
+            m_Lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (!m_Stop) {
+            SimulatedDevice device;
+            long now;
+            m_Lock.lock();
+            try {
+                device = m_Due.peek();
+                now = System.nanoTime();
+                if (device == null) {
+                    m_Changed.awaitUninterruptibly();
+                    continue;
+                }
+                long wait = device.getNextDue() - now;
+                if (wait > 0) {
+                    m_Changed.awaitNanos(wait);
+                    continue;
+                }
+                m_Due.poll();
+            } catch (InterruptedException e) {
+                continue;
+            } finally {
+                m_Lock.unlock();
+            }
+            m_Lag.record(now - device.getNextDue());
+            // a device closed meanwhile says no and is not scheduled again
+            if (device.sendInputReport(now))
+                schedule(device);
+        }
+    }
+}
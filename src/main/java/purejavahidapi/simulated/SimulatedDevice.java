@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import purejavahidapi.shared.ReportDescriptor;
+
+
+/**
+ * A simulated device, input reports come from the {@link InputGenerator} of its
+ * {@link SimulatedDeviceSpec} on a {@link SimulatedClock} thread, output and
+ * feature reports are recorded so that tests can look at them.
+ * <p>
+ * A feature report that has been set is returned by the next get of its
+ * report id, as a device that keeps its settings would do.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class SimulatedDevice extends purejavahidapi.HidDevice {
+
+    /** the largest report, as HID_MAX_BUFFER_SIZE of linux */
+    private static final int MAX_REPORT_SIZE = 4096;
+
+    private final SimulatedBackend m_Backend;
+    private final SimulatedClock m_Clock;
+    private final SimulatedDeviceSpec m_Spec;
+    private final byte[] m_Descriptor;
+    /** the next input report, the report id first */
+    private final ByteBuffer m_InputReport = ByteBuffer.allocateDirect(MAX_REPORT_SIZE);
+    private final ByteBuffer m_InputReportView = m_InputReport.asReadOnlyBuffer();
+    private InputGenerator m_Generator;
+    /** when {@link #m_InputReport} is due in {@link System#nanoTime()} */
+    private long m_NextDue;
+    private final Object m_ReadMutex = new Object();
+    private boolean m_Closed;
+
+    /** the output reports written, the report id first */
+    private final List<byte[]> m_OutputReports = new ArrayList<>();
+    /** the feature reports set, the report id first */
+    private final List<byte[]> m_FeatureReportsSet = new ArrayList<>();
+    /** the current feature report per report id, the report id first */
+    private final Map<Integer, byte[]> m_FeatureReports;
+
+    SimulatedDevice(SimulatedDeviceInfo deviceInfo, SimulatedBackend backend, SimulatedClock clock) {
+        m_HidDeviceInfo = deviceInfo;
+        m_Backend = backend;
+        m_Clock = clock;
+        m_Spec = deviceInfo.getSpec();
+        m_Descriptor = m_Spec.getReportDescriptor();
+        m_ReportDescriptor = m_Spec.parseReportDescriptor();
+        if (m_ReportDescriptor != null)
+            m_MaxInputReportLength = m_ReportDescriptor.getMaxReportLength(ReportDescriptor.INPUT);
+        m_FeatureReports = new HashMap<>(m_Spec.getFeatureReports());
+        m_Backend.addDevice(this);
+    }
+
+    @Override
+    public void open() {
+        m_Open = true;
+        if (m_Spec.getInput() == null)
+            return;
+        synchronized (m_ReadMutex) {
+            m_Generator = m_Spec.getInput().get();
+            long delay = nextInputReport();
+            if (delay < 0)
+                return;
+            m_NextDue = System.nanoTime() + delay;
+        }
+        m_Clock.schedule(this);
+    }
+
+    /** @return when the next input report is due, the clock only */
+    long getNextDue() {
+        return m_NextDue;
+    }
+
+    /** asks the generator for the next report, the delay or negative if there is none */
+    private long nextInputReport() {
+        m_InputReport.clear();
+        long delay = m_Generator.next(m_InputReport);
+        m_InputReport.flip();
+        return delay;
+    }
+
+    /**
+     * Sends the report that is due, called on the clock thread.
+     *
+     * @param now the time the clock woke up
+     * @return true if there is another report, {@link #getNextDue()} says when
+     */
+    boolean sendInputReport(long now) {
+        synchronized (m_ReadMutex) {
+            if (m_Closed)
+                return false;
+            if (m_InputReport.hasRemaining()) {
+                int reportId = m_InputReport.get(0) & 0xff;
+                m_InputReportView.clear().limit(m_InputReport.limit()).position(1);
+                dispatchInputReport(reportId, m_InputReportView, now);
+            }
+            long delay = nextInputReport();
+            if (delay < 0)
+                return false;
+            // kept on the schedule rather than after now, a late clock catches up
+            m_NextDue += delay;
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeAsync();
+    }
+
+    @Override
+    public CompletableFuture<Void> closeAsync() {
+        if (!m_Open)
+            throw new IllegalStateException("device not open");
+        m_Open = false;
+        synchronized (m_ReadMutex) {
+            m_Closed = true; // the clock may be sending a report of this device
+        }
+        m_Clock.cancel(this);
+        m_Backend.removeDevice(this);
+        closeDelivery();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public int setOutputReport(byte reportID, byte[] data, int length) {
+        if (!m_Open)
+            throw new IllegalStateException("device not open");
+        if (length >= MAX_REPORT_SIZE)
+            throw new IllegalArgumentException("report too long: " + length);
+        synchronized (m_OutputReports) {
+            m_OutputReports.add(withReportId(reportID, data, length));
+        }
+        return m_Counters.outputReport(length);
+    }
+
+    @Override
+    public int setFeatureReport(byte reportId, byte[] data, int length) {
+        if (!m_Open)
+            throw new IllegalStateException("device not open");
+        byte[] report = withReportId(reportId, data, length);
+        synchronized (m_FeatureReports) {
+            m_FeatureReportsSet.add(report);
+            m_FeatureReports.put(reportId & 0xff, report);
+        }
+        return m_Counters.featureReportSet(length);
+    }
+
+    @Override
+    public int getFeatureReport(int reportId, byte[] data, int length) {
+        if (!m_Open)
+            throw new IllegalStateException("device not open");
+        byte[] report;
+        synchronized (m_FeatureReports) {
+            report = m_FeatureReports.get(reportId & 0xff);
+        }
+        if (report == null)
+            return m_Counters.featureReportGot(-1);
+        int result = Math.min(report.length, length);
+        System.arraycopy(report, 0, data, 0, result);
+        return m_Counters.featureReportGot(result);
+    }
+
+    @Override
+    public int getInputReportDescriptor(byte[] data, int length) {
+        int result = Math.min(m_Descriptor.length, length);
+        System.arraycopy(m_Descriptor, 0, data, 0, result);
+        return result;
+    }
+
+    private static byte[] withReportId(byte reportId, byte[] data, int length) {
+        byte[] report = new byte[length + 1];
+        report[0] = reportId;
+        System.arraycopy(data, 0, report, 1, length);
+        return report;
+    }
+
+    /** @return a copy of the output reports written so far, each the report id followed by the data */
+    public List<byte[]> getOutputReports() {
+        synchronized (m_OutputReports) {
+            return new ArrayList<>(m_OutputReports);
+        }
+    }
+
+    /** @return a copy of the feature reports set so far, each the report id followed by the data */
+    public List<byte[]> getFeatureReportsSet() {
+        synchronized (m_FeatureReports) {
+            return new ArrayList<>(m_FeatureReportsSet);
+        }
+    }
+
+    /** Forgets the output and feature reports recorded so far, long runs would pile them up. */
+    public void clearRecordedReports() {
+        synchronized (m_OutputReports) {
+            m_OutputReports.clear();
+        }
+        synchronized (m_FeatureReports) {
+            m_FeatureReportsSet.clear();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import purejavahidapi.shared.ReportDescriptor;
+
+
+/**
+ * The device info of a plugged in {@link SimulatedDeviceSpec}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+class SimulatedDeviceInfo extends purejavahidapi.HidDeviceInfo {
+
+    private final SimulatedDeviceSpec m_Spec;
+
+    SimulatedDeviceInfo(String path, SimulatedDeviceSpec spec) {
+        m_Spec = spec;
+        m_DeviceId = path;
+        m_DevicePath = path;
+        m_VendorId = (short) spec.getVendorId();
+        m_ProductId = (short) spec.getProductId();
+        m_ReleaseNumber = (short) spec.getReleaseNumber();
+        m_ManufactureString = spec.getManufacturerString();
+        m_ProductString = spec.getProductString();
+        m_SerialNumberString = spec.getSerialNumberString();
+        ReportDescriptor descriptor = spec.parseReportDescriptor();
+        if (descriptor != null) {
+            m_UsagePage = (short) descriptor.getUsagePage();
+            m_UsageId = (short) descriptor.getUsage();
+        }
+    }
+
+    SimulatedDeviceSpec getSpec() {
+        return m_Spec;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import purejavahidapi.shared.ReportDescriptor;
+
+
+/**
+ * What a simulated device looks like, see {@link SimulatedBackend#plug(SimulatedDeviceSpec)}.
+ * <p>
+ * Instances are immutable.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public final class SimulatedDeviceSpec {
+
+    private static final byte[] NO_DESCRIPTOR = new byte[0];
+
+    private final int m_VendorId;
+    private final int m_ProductId;
+    private final int m_ReleaseNumber;
+    private final String m_ManufacturerString;
+    private final String m_ProductString;
+    private final String m_SerialNumberString;
+    private final byte[] m_ReportDescriptor;
+    private final Supplier<InputGenerator> m_Input;
+    private final Map<Integer, byte[]> m_FeatureReports;
+
+    private SimulatedDeviceSpec(int vendorId, int productId, int releaseNumber, String manufacturer, String product, String serial,
+                                byte[] reportDescriptor, Supplier<InputGenerator> input, Map<Integer, byte[]> featureReports) {
+        m_VendorId = vendorId;
+        m_ProductId = productId;
+        m_ReleaseNumber = releaseNumber;
+        m_ManufacturerString = manufacturer;
+        m_ProductString = product;
+        m_SerialNumberString = serial;
+        m_ReportDescriptor = reportDescriptor;
+        m_Input = input;
+        m_FeatureReports = featureReports;
+    }
+
+    /**
+     * @return a device without strings, report descriptor, input or feature reports
+     */
+    public static SimulatedDeviceSpec of(int vendorId, int productId) {
+        return new SimulatedDeviceSpec(vendorId & 0xffff, productId & 0xffff, 0, null, null, null, NO_DESCRIPTOR, null, Collections.emptyMap());
+    }
+
+    /**
+     * Takes the name, the ids, the report descriptor and the input reports of a
+     * recording of hid-recorder from hid-tools, the "N:", "I:", "R:" and "E:" lines.
+     *
+     * @param recording the file written by hid-recorder
+     * @param loop      whether to play the input reports over and over
+     */
+    public static SimulatedDeviceSpec fromRecording(Path recording, boolean loop) throws IOException {
+        SimulatedDeviceSpec spec = of(0, 0);
+        for (String line : Files.readAllLines(recording)) {
+            String value = line.length() > 2 ? line.substring(2).trim() : "";
+            if (line.startsWith("N:")) {
+                spec = spec.withStrings(null, value, spec.m_SerialNumberString);
+            } else if (line.startsWith("I:")) {
+                String[] ids = value.split("\\s+"); // bus vendor product in hex
+                spec = new SimulatedDeviceSpec(Integer.parseInt(ids[1], 16), Integer.parseInt(ids[2], 16), spec.m_ReleaseNumber,
+                        spec.m_ManufacturerString, spec.m_ProductString, spec.m_SerialNumberString, spec.m_ReportDescriptor, spec.m_Input, spec.m_FeatureReports);
+            } else if (line.startsWith("R:")) {
+                String[] bytes = value.split("\\s+"); // length followed by the bytes in hex
+                byte[] descriptor = new byte[Integer.parseInt(bytes[0])];
+                for (int i = 0; i < descriptor.length; i++)
+                    descriptor[i] = (byte) Integer.parseInt(bytes[1 + i], 16);
+                spec = spec.withReportDescriptor(descriptor);
+            }
+        }
+        boolean numbered = spec.usesNumberedReports();
+        InputGenerator.trace(recording, numbered, loop); // fails here rather than on open
+        return spec.withInput(() -> {
+            try {
+                return InputGenerator.trace(recording, numbered, loop);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /** @param releaseNumber the bcdDevice */
+    public SimulatedDeviceSpec withReleaseNumber(int releaseNumber) {
+        return new SimulatedDeviceSpec(m_VendorId, m_ProductId, releaseNumber & 0xffff, m_ManufacturerString, m_ProductString, m_SerialNumberString,
+                m_ReportDescriptor, m_Input, m_FeatureReports);
+    }
+
+    /** the strings may be null */
+    public SimulatedDeviceSpec withStrings(String manufacturer, String product, String serial) {
+        return new SimulatedDeviceSpec(m_VendorId, m_ProductId, m_ReleaseNumber, manufacturer, product, serial,
+                m_ReportDescriptor, m_Input, m_FeatureReports);
+    }
+
+    /**
+     * @param reportDescriptor the usage page, the usage and the report lengths of the device are taken from it
+     */
+    public SimulatedDeviceSpec withReportDescriptor(byte[] reportDescriptor) {
+        return new SimulatedDeviceSpec(m_VendorId, m_ProductId, m_ReleaseNumber, m_ManufacturerString, m_ProductString, m_SerialNumberString,
+                reportDescriptor.clone(), m_Input, m_FeatureReports);
+    }
+
+    /**
+     * @param input creates the generator of the input reports every time the device is opened, null for none
+     */
+    public SimulatedDeviceSpec withInput(Supplier<InputGenerator> input) {
+        return new SimulatedDeviceSpec(m_VendorId, m_ProductId, m_ReleaseNumber, m_ManufacturerString, m_ProductString, m_SerialNumberString,
+                m_ReportDescriptor, input, m_FeatureReports);
+    }
+
+    /**
+     * @param report the report id followed by the data, what {@link purejavahidapi.HidDevice#getFeatureReport}
+     *               returns until the feature report is set
+     */
+    public SimulatedDeviceSpec withFeatureReport(byte[] report) {
+        Map<Integer, byte[]> featureReports = new HashMap<>(m_FeatureReports);
+        featureReports.put(report[0] & 0xff, report.clone());
+        return new SimulatedDeviceSpec(m_VendorId, m_ProductId, m_ReleaseNumber, m_ManufacturerString, m_ProductString, m_SerialNumberString,
+                m_ReportDescriptor, m_Input, Collections.unmodifiableMap(featureReports));
+    }
+
+    public int getVendorId() {
+        return m_VendorId;
+    }
+
+    public int getProductId() {
+        return m_ProductId;
+    }
+
+    public int getReleaseNumber() {
+        return m_ReleaseNumber;
+    }
+
+    public String getManufacturerString() {
+        return m_ManufacturerString;
+    }
+
+    public String getProductString() {
+        return m_ProductString;
+    }
+
+    public String getSerialNumberString() {
+        return m_SerialNumberString;
+    }
+
+    /** @return a copy, empty if there is none */
+    public byte[] getReportDescriptor() {
+        return m_ReportDescriptor.clone();
+    }
+
+    /** @return null if the device sends no input reports */
+    public Supplier<InputGenerator> getInput() {
+        return m_Input;
+    }
+
+    /** @return the initial feature reports by report id, the report id followed by the data */
+    Map<Integer, byte[]> getFeatureReports() {
+        return m_FeatureReports;
+    }
+
+    /** @return null if there is no report descriptor */
+    ReportDescriptor parseReportDescriptor() {
+        return m_ReportDescriptor.length > 0 ? ReportDescriptor.parse(m_ReportDescriptor, m_ReportDescriptor.length) : null;
+    }
+
+    private boolean usesNumberedReports() {
+        ReportDescriptor descriptor = parseReportDescriptor();
+        return descriptor != null && descriptor.usesNumberedReports();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SimulatedDeviceSpec{vendorId=0x%04x, productId=0x%04x, product=%s}", m_VendorId, m_ProductId, m_ProductString);
+    }
+}
@@ -30,6 +30,8 @@
 
 package purejavahidapi.windows;
 
+import java.util.concurrent.CountDownLatch;
+
 import com.sun.jna.platform.win32.User32;
 import com.sun.jna.platform.win32.WinDef.ATOM;
 import com.sun.jna.platform.win32.WinDef.HMODULE;
@@ -42,7 +44,6 @@ import com.sun.jna.platform.win32.WinUser.MSG;
 import com.sun.jna.platform.win32.WinUser.WNDCLASSEX;
 import com.sun.jna.platform.win32.WinUser.WindowProc;
 import com.sun.jna.platform.win32.Wtsapi32;
-import purejavahidapi.shared.SyncPoint;
 
 import static com.sun.jna.platform.win32.DBT.DBT_DEVICEREMOVECOMPLETE;
 import static com.sun.jna.platform.win32.DBT.DBT_DEVTYP_DEVICEINTERFACE;
@@ -71,11 +72,10 @@ import static purejavahidapi.windows.WindowsBackend.reportLastError;
 public class DeviceRemovalHandler implements WindowProc {
 
     private WindowsBackend m_WindowsBackend;
-    private SyncPoint m_StartupSync;
+    private final CountDownLatch m_StartupSync = new CountDownLatch(1);
 
     public DeviceRemovalHandler(WindowsBackend windowsBackend) {
         m_WindowsBackend = windowsBackend;
-        m_StartupSync = new SyncPoint(2);
         Runnable threadRunnable = () -> {
             String wndClassName = "WindowClass";
             HMODULE hInst = INSTANCE.GetModuleHandle(null);
@@ -108,7 +108,7 @@ public class DeviceRemovalHandler implements WindowProc {
             if (hDevNotify == null)
                 reportLastError();
 
-            m_StartupSync.waitAndSync();
+            m_StartupSync.countDown();
 
             MSG msg = new MSG();
             while (User32.INSTANCE.GetMessage(msg, hWnd, 0, 0) != 0) {
@@ -131,7 +131,11 @@ public class DeviceRemovalHandler implements WindowProc {
         Thread thread = new Thread(threadRunnable, this.getClass().getSimpleName());
         thread.setDaemon(true);
         thread.start();
-        m_StartupSync.waitAndSync();
+        try {
+            m_StartupSync.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     @Override
@@ -30,11 +30,14 @@
 
 package purejavahidapi.windows;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
 import com.sun.jna.Memory;
 import com.sun.jna.NativeLong;
 import com.sun.jna.platform.win32.WinBase.OVERLAPPED;
 import com.sun.jna.platform.win32.WinNT.HANDLE;
-import purejavahidapi.shared.SyncPoint;
 
 import static purejavahidapi.windows.HidLibrary.HIDD_ATTRIBUTES;
 import static purejavahidapi.windows.HidLibrary.HIDP_CAPS;
@@ -72,13 +75,18 @@ public class HidDevice extends purejavahidapi.HidDevice {
     private HANDLE[] m_Handles = new HANDLE[3];
     private int[] m_ReportLength = new int[3];
     private Memory[] m_Buffer = new Memory[3];
+    /** views of {@link #m_Buffer} for copying ByteBuffer reports in and out */
+    private ByteBuffer[] m_BufferView = new ByteBuffer[3];
     private OVERLAPPED[] m_Overlapped = new OVERLAPPED[3];
     private int[][] m_Transfrd = new int[3][1];
-    private byte[] m_InputReportBytes;
+    /** read-only view of the input buffer for dispatching reports without copying */
+    private ByteBuffer m_InputReportView;
     private Thread m_Thread;
-    private SyncPoint m_SyncStart;
-    private SyncPoint m_SyncShutdown;
-    private boolean m_StopThread;
+    /** counted down by the reader thread when it is up, open() waits for it */
+    private final CountDownLatch m_ReaderStarted = new CountDownLatch(1);
+    /** completed by the reader thread when it has stopped, the handles are released after that */
+    private final CompletableFuture<Void> m_ReaderStopped = new CompletableFuture<>();
+    private volatile boolean m_StopThread;
 
     /* package */ HidDevice(purejavahidapi.HidDeviceInfo deviceInfo, WindowsBackend backend) {
         String[] paths = deviceInfo.getPath().split(HidDeviceInfo.SEPARATOR);
@@ -110,18 +118,22 @@ public class HidDevice extends purejavahidapi.HidDevice {
             }
             if (caps.InputReportByteLength > 0) {
                 m_ReportLength[INPUT] = caps.InputReportByteLength;
+                // the length reported by windows includes the report id byte
+                m_MaxInputReportLength = m_ReportLength[INPUT] - 1;
                 m_Buffer[INPUT] = new Memory(m_ReportLength[INPUT] + 1);
-                m_InputReportBytes = new byte[m_ReportLength[INPUT] + 1];
+                m_InputReportView = m_Buffer[INPUT].getByteBuffer(0, m_Buffer[INPUT].size()).asReadOnlyBuffer();
                 m_Handles[INPUT] = handle;
             }
             if (caps.OutputReportByteLength > 0) {
                 m_ReportLength[OUTPUT] = caps.OutputReportByteLength;
                 m_Buffer[OUTPUT] = new Memory(m_ReportLength[OUTPUT] + 1);
+                m_BufferView[OUTPUT] = m_Buffer[OUTPUT].getByteBuffer(0, m_Buffer[OUTPUT].size());
                 m_Handles[OUTPUT] = handle;
             }
             if (caps.FeatureReportByteLength > 0) {
                 m_ReportLength[FEATURE] = caps.FeatureReportByteLength;
                 m_Buffer[FEATURE] = new Memory(m_ReportLength[FEATURE] + 1);
+                m_BufferView[FEATURE] = m_Buffer[FEATURE].getByteBuffer(0, m_Buffer[FEATURE].size());
                 m_Handles[FEATURE] = handle;
             }
             HidD_FreePreparsedData(ppd[0]);
@@ -135,17 +147,17 @@ public class HidDevice extends purejavahidapi.HidDevice {
             m_Overlapped[i].writeField("hEvent");
         }
 
-        m_SyncStart = new SyncPoint(2);
-        m_SyncShutdown = new SyncPoint(2);
-
         m_Thread = new Thread(() -> {
             try {
                 runReadOnBackground();
             } catch (Exception e) {
                 e.printStackTrace();
+            } finally {
+                m_ReaderStarted.countDown();
+                m_ReaderStopped.complete(null);
             }
         }, m_HidDeviceInfo.getPath());
-        m_Backend.addDevice(m_HidDeviceInfo.getDeviceId(), this);
+        m_Backend.addDevice(this);
     }
 
     @Override
@@ -153,35 +165,76 @@ public class HidDevice extends purejavahidapi.HidDevice {
         m_Open = true;
         if (m_ReportLength[INPUT] > 0) {
             m_Thread.start();
-            m_SyncStart.waitAndSync();
+            try {
+                m_ReaderStarted.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 
     @Override
-    public synchronized void close() {
+    public void close() {
+        CompletableFuture<Void> closed = closeAsync();
+        if (Thread.currentThread() != m_Thread && !isDispatcherThread()) // a listener closing the device cannot wait for itself
+            closed.join();
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> closeAsync() {
         if (!m_Open)
             throw new IllegalStateException("device not open");
+        m_Open = false;
 
         m_StopThread = true;
-        if (m_ReportLength[INPUT] > 0) {
-            CancelIoEx(m_Handles[INPUT], null);
-            m_Thread.interrupt();
-            m_SyncShutdown.waitAndSync();
+        // before the reader is waited for, it may be waiting for a free slot of the dispatch stage
+        closeDelivery();
+        if (m_ReportLength[INPUT] <= 0) {
+            releaseHandles();
+            return CompletableFuture.completedFuture(null);
         }
+        CancelIoEx(m_Handles[INPUT], null);
+        m_Thread.interrupt();
+        // the handles must not be closed under the pending ReadFile(), the last one to get here closes them
+        return m_ReaderStopped.thenRun(this::releaseHandles);
+    }
+
+    /** closes the handles and says goodbye to the backend, nobody reads the device any more */
+    private void releaseHandles() {
         for (int i = 0; i < 3; i++)
             CloseHandle(m_Handles[i]);
-        m_Backend.removeDevice(m_HidDeviceInfo.getDeviceId());
-        m_Open = false;
+        m_Backend.removeDevice(this);
     }
 
     @Override
     public synchronized int setOutputReport(byte reportId, byte[] data, int length) {
+        return m_Counters.outputReport(writeOutputReport(reportId, data, length));
+    }
+
+    @Override
+    public synchronized int setOutputReport(byte reportId, ByteBuffer data) {
+        return m_Counters.outputReport(writeOutputReport(reportId, data));
+    }
+
+    private int writeOutputReport(byte reportId, byte[] data, int length) {
         if (m_ReportLength[OUTPUT] <= 0)
             throw new IllegalArgumentException("this device supports no output reports");
         // In Windows writeFile() to HID device data has to be preceded with the report
         // number, regardless
-        m_Buffer[OUTPUT].write(0, new byte[] {reportId}, 0, 1);
+        m_Buffer[OUTPUT].setByte(0, reportId);
         m_Buffer[OUTPUT].write(1, data, 0, length);
+        return writeOutputBuffer();
+    }
+
+    private int writeOutputReport(byte reportId, ByteBuffer data) {
+        if (m_ReportLength[OUTPUT] <= 0)
+            throw new IllegalArgumentException("this device supports no output reports");
+        m_BufferView[OUTPUT].put(0, reportId).put(1, data, data.position(), data.remaining());
+        return writeOutputBuffer();
+    }
+
+    /** writes {@link #m_Buffer}[OUTPUT] which starts with the report number */
+    private int writeOutputBuffer() {
         // In windows always attempt to write as many bytes as there are in the longest
         // report plus one for the report number (even if zero ie not used)
         if (!WriteFile(m_Handles[OUTPUT], m_Buffer[OUTPUT], m_ReportLength[OUTPUT], m_Transfrd[OUTPUT], m_Overlapped[OUTPUT])) {
@@ -203,6 +256,11 @@ public class HidDevice extends purejavahidapi.HidDevice {
         return m_Transfrd[OUTPUT][0] - 1;
     }
 
+    @Override
+    protected int getMaxOutputReportLength() {
+        return m_ReportLength[OUTPUT] > 0 ? m_ReportLength[OUTPUT] - 1 : 0;
+    }
+
     @Override
     public synchronized int getInputReportDescriptor(byte[] data, int length) {
         int[] transferred = new int[1];
@@ -224,29 +282,51 @@ public class HidDevice extends purejavahidapi.HidDevice {
 
     @Override
     public synchronized int getFeatureReport(int reportId, byte[] data, int length) {
+        return m_Counters.featureReportGot(readFeatureReport(reportId, data, length));
+    }
+
+    @Override
+    public synchronized int getFeatureReport(int reportId, ByteBuffer data) {
+        int result = readFeatureReport(reportId);
+        if (result > 0) {
+            result = Math.min(result, data.remaining());
+            data.put(data.position(), m_BufferView[FEATURE], 1, result);
+            data.position(data.position() + result);
+        }
+        return m_Counters.featureReportGot(result);
+    }
+
+    private int readFeatureReport(int reportId, byte[] data, int length) {
         if (false) { // can't use this as it will not return the size of the report
             if (!HidD_GetFeature(m_Handles[FEATURE], data, length)) {
                 // register_error(dev, "HidD_SetFeature");
                 return -1;
             }
         } else {
-            m_Buffer[FEATURE].write(0, new byte[] {(byte) reportId}, 0, 1);
-            if (!DeviceIoControl(m_Handles[FEATURE], IOCTL_HID_GET_FEATURE, m_Buffer[FEATURE], m_ReportLength[FEATURE], m_Buffer[FEATURE], m_ReportLength[FEATURE], m_Transfrd[FEATURE], m_Overlapped[FEATURE])) {
-                // System.out.println(GetLastError());
-                if (GetLastError() != ERROR_IO_PENDING)
-                    return -1;
-            }
+            int result = readFeatureReport(reportId);
+            if (result > 0)
+                m_Buffer[FEATURE].read(1, data, 0, result);
+            return result;
+        }
+        return -1; // Eclipse says this is unreachable (it is), but won't compile without it ... go figure
+    }
 
-            if (!GetOverlappedResult(m_Handles[FEATURE], m_Overlapped[FEATURE], m_Transfrd[FEATURE], true /* wait */))
+    /** reads a feature report into {@link #m_Buffer}[FEATURE] after the report number */
+    private int readFeatureReport(int reportId) {
+        m_Buffer[FEATURE].setByte(0, (byte) reportId);
+        if (!DeviceIoControl(m_Handles[FEATURE], IOCTL_HID_GET_FEATURE, m_Buffer[FEATURE], m_ReportLength[FEATURE], m_Buffer[FEATURE], m_ReportLength[FEATURE], m_Transfrd[FEATURE], m_Overlapped[FEATURE])) {
+            // System.out.println(GetLastError());
+            if (GetLastError() != ERROR_IO_PENDING)
                 return -1;
-            m_Buffer[FEATURE].read(1, data, 0, m_Transfrd[FEATURE][0]);
-            return m_Transfrd[FEATURE][0];
         }
-        return -1; // Eclipse says this is unreachable (it is), but won't compile without it ... go figure
+
+        if (!GetOverlappedResult(m_Handles[FEATURE], m_Overlapped[FEATURE], m_Transfrd[FEATURE], true /* wait */))
+            return -1;
+        return m_Transfrd[FEATURE][0];
     }
 
     private void runReadOnBackground() {
-        m_SyncStart.waitAndSync();
+        m_ReaderStarted.countDown();
         while (!m_StopThread) {
             m_Transfrd[INPUT][0] = 0;
             // KOE ResetEvent(m_ReportOverlapped.hEvent);
@@ -262,6 +342,7 @@ public class HidDevice extends purejavahidapi.HidDevice {
                     break; // early exit if the device disappears
                 if (GetLastError() != ERROR_IO_PENDING) {
                     System.out.println("ReadFile failed with GetLastError()==" + GetLastError());
+                    m_Counters.readError();
                     CancelIo(m_Handles[INPUT]);
                     break;
                 }
@@ -270,25 +351,27 @@ public class HidDevice extends purejavahidapi.HidDevice {
                     if (GetLastError() == ERROR_DEVICE_NOT_CONNECTED)
                         break; // early exit if the device disappears
                     System.out.println("GetOverlappedResult failed with GetLastError()==" + GetLastError());
+                    m_Counters.readError();
                 }
             }
+            // ReadFile() or GetOverlappedResult() has just returned
+            long timestamp = System.nanoTime();
 
             if (m_Transfrd[INPUT][0] > 0) {
-                byte reportId = m_Buffer[INPUT].getByte(0);
-                m_Transfrd[INPUT][0]--;
-
-                m_Buffer[INPUT].read(1, m_InputReportBytes, 0, m_Transfrd[INPUT][0]);
-
-            if (m_InputReportListener != null)
-                m_InputReportListener.onInputReport(this, reportId, m_InputReportBytes, m_Transfrd[INPUT][0]);
-        }
-
+                // the data is always preceded with the report number, the listeners start after it
+                int reportId = m_Buffer[INPUT].getByte(0) & 0xff;
+                m_InputReportView.clear().limit(m_Transfrd[INPUT][0]).position(1);
+                dispatchInputReport(reportId, m_InputReportView, timestamp);
+            }
         }
-        m_SyncShutdown.waitAndSync();
     }
 
     @Override
     public int setFeatureReport(byte reportId, byte[] data, int length) {
+        return m_Counters.featureReportSet(writeFeatureReport(reportId, data, length));
+    }
+
+    private int writeFeatureReport(byte reportId, byte[] data, int length) {
         if (false) {
             byte[] buf = new byte[length + 1];
             buf[0] = reportId;
@@ -299,9 +382,23 @@ public class HidDevice extends purejavahidapi.HidDevice {
             return length;
         }
 
-        m_Buffer[FEATURE].write(0, new byte[] {reportId}, 0, 1);
+        m_Buffer[FEATURE].setByte(0, reportId);
         m_Buffer[FEATURE].write(1, data, 0, length);
+        return writeFeatureBuffer();
+    }
+
+    @Override
+    public synchronized int setFeatureReport(byte reportId, ByteBuffer data) {
+        return m_Counters.featureReportSet(writeFeatureReport(reportId, data));
+    }
+
+    private int writeFeatureReport(byte reportId, ByteBuffer data) {
+        m_BufferView[FEATURE].put(0, reportId).put(1, data, data.position(), data.remaining());
+        return writeFeatureBuffer();
+    }
 
+    /** sends {@link #m_Buffer}[FEATURE] which starts with the report number */
+    private int writeFeatureBuffer() {
         if (!DeviceIoControl(m_Handles[FEATURE], IOCTL_HID_SET_FEATURE, m_Buffer[FEATURE], m_ReportLength[FEATURE], m_Buffer[FEATURE], m_ReportLength[FEATURE], m_Transfrd[FEATURE], m_Overlapped[FEATURE])) {
             System.out.println(GetLastError());
             if (GetLastError() != ERROR_IO_PENDING)
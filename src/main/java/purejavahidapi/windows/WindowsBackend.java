@@ -31,14 +31,17 @@
 package purejavahidapi.windows;
 
 import java.io.IOException;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import com.sun.jna.Memory;
 import com.sun.jna.Native;
 import com.sun.jna.NativeLong;
 import com.sun.jna.platform.win32.Cfgmgr32;
 import com.sun.jna.ptr.IntByReference;
+import purejavahidapi.BackendCapability;
 import purejavahidapi.shared.Backend;
 
 import static com.sun.jna.platform.win32.Cfgmgr32.CR_SUCCESS;
@@ -82,6 +85,11 @@ public class WindowsBackend extends Backend {
         new DeviceRemovalHandler(this);
     }
 
+    @Override
+    public Set<BackendCapability> getCapabilities() {
+        return EnumSet.of(BackendCapability.TIMESTAMPS);
+    }
+
     @Override
     public void cleanup() {
 
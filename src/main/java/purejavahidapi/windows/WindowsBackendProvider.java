@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.windows;
+
+import com.sun.jna.Platform;
+import purejavahidapi.shared.Backend;
+import purejavahidapi.shared.BackendProvider;
+
+
+/**
+ * Provides the {@link WindowsBackend}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class WindowsBackendProvider implements BackendProvider {
+
+    @Override
+    public String getName() {
+        return "windows";
+    }
+
+    @Override
+    public int getPriority() {
+        return PLATFORM_PRIORITY;
+    }
+
+    @Override
+    public boolean isSupported() {
+        return Platform.isWindows();
+    }
+
+    @Override
+    public Backend createBackend() {
+        return new WindowsBackend();
+    }
+}
@@ -7,6 +7,7 @@
 package vavi.games.input.purejavahidapi.spi;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import net.java.games.input.AbstractController;
 import net.java.games.input.Component;
@@ -14,6 +15,7 @@ import net.java.games.input.Controller;
 import net.java.games.input.Rumbler;
 import net.java.games.input.usb.HidController;
 import purejavahidapi.HidDevice;
+import purejavahidapi.TimestampedInputReportListener;
 
 
 /**
@@ -27,6 +29,24 @@ public class HidapiController extends AbstractController implements HidControlle
     /** */
     private final HidDevice device;
 
+    /**
+     * when true only the latest report per report id is kept and events are fired from {@link #poll()},
+     * so a 1 kHz device polled by a 60 Hz loop costs 60 events per second
+     */
+    private static final boolean conflate = Boolean.parseBoolean(System.getProperty("vavi.games.input.purejavahidapi.spi.HidapiController.conflate", "false"));
+
+    /** the sequence numbers of the reports already fired, conflate mode only */
+    private final long[] sequences = new long[256];
+
+    /** conflate mode only */
+    private byte[] data;
+
+    /** wraps {@link #data} */
+    private ByteBuffer buffer;
+
+    /** receives the timestamp of the latest report, conflate mode only */
+    private final long[] timestamp = new long[1];
+
     /**
      * Protected constructor for a controller containing the specified
      * axes, child controllers, and rumblers
@@ -56,9 +76,30 @@ public class HidapiController extends AbstractController implements HidControlle
         super.open();
 
         device.open();
-        device.setInputReportListener((source, Id, data, len) -> {
-            fireOnInput(new HidapiInputEvent(HidapiController.this, getComponents(), data));
-        });
+        if (conflate) {
+            data = new byte[Math.max(device.getMaxInputReportLength(), 1)];
+            buffer = ByteBuffer.wrap(data);
+            device.setReportConflation(true);
+        } else {
+            TimestampedInputReportListener listener = (source, id, data, len, timestamp) ->
+                    fireOnInput(new HidapiInputEvent(this, getComponents(), data, timestamp));
+            device.setInputReportListener(listener);
+        }
+    }
+
+    @Override
+    public synchronized boolean poll() {
+        boolean result = super.poll();
+        if (conflate && device.isReportConflation()) {
+            for (int reportId = 0; reportId < sequences.length; reportId++) {
+                long sequence = device.getLatestReportSequence(reportId);
+                if (sequence == sequences[reportId])
+                    continue;
+                sequences[reportId] = device.readLatestReport(reportId, buffer.clear(), timestamp);
+                fireOnInput(new HidapiInputEvent(this, getComponents(), data, timestamp[0]));
+            }
+        }
+        return result;
     }
 
     @Override
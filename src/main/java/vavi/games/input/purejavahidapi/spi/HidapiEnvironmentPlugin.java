@@ -25,6 +25,7 @@ import net.java.games.input.usb.HidControllerEnvironment;
 import net.java.games.input.usb.UsageId;
 import net.java.games.input.usb.UsagePage;
 import net.java.games.input.usb.parser.HidParser;
+import purejavahidapi.DeviceFilter;
 import purejavahidapi.HidDevice;
 import purejavahidapi.HidDeviceInfo;
 import purejavahidapi.PureJavaHidApi;
@@ -40,6 +41,9 @@ import vavi.util.StringUtil;
  */
 public final class HidapiEnvironmentPlugin extends ControllerListenerSupport implements HidControllerEnvironment {
 
+    /** generic desktop, game pad */
+    private static final DeviceFilter GAME_PADS = DeviceFilter.any().withUsage(1, 5);
+
     /** */
     private List<HidapiController> controllers;
 
@@ -53,12 +57,6 @@ Debug.println(Level.FINER, "deviceInfo: " + deviceInfo);
                 return null;
             }
 
-            // TODO out source filters
-            if (!((device.getHidDeviceInfo().getUsagePage()) == 1 &&
-                    (device.getHidDeviceInfo().getUsageId()) == 5)) {
-                return null;
-            }
-
             List<Component> components = new ArrayList<>();
             List<Controller> children = new ArrayList<>();
             List<Rumbler> rumblers = new ArrayList<>();
@@ -130,7 +128,7 @@ Debug.printf(Level.FINE, "    rumblers: %d, %s", rumblers.size(), rumblers);
     private void enumerate() throws IOException {
         boolean r = isSupported();
 Debug.println(Level.FINE, "isSupported: " + r);
-        controllers = PureJavaHidApi.enumerateDevices().stream().map(this::toHidapiController).filter(Objects::nonNull).collect(Collectors.toList());
+        controllers = PureJavaHidApi.enumerateDevices(GAME_PADS).stream().map(this::toHidapiController).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     @Override
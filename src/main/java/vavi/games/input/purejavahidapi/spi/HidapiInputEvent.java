@@ -27,7 +27,7 @@ public class HidapiInputEvent extends InputEvent implements HidInputEvent {
     /** which value is changed only */
     private final Deque<HidapiComponent> deque = new LinkedList<>();
 
-    /** the time when got an event */
+    /** the time when the report was read, {@link System#nanoTime()} */
     private final long time;
 
     /** source */
@@ -40,9 +40,16 @@ public class HidapiInputEvent extends InputEvent implements HidInputEvent {
 
     /** */
     public HidapiInputEvent(Object source, Component[] components, byte[] data) {
+        this(source, components, data, System.nanoTime());
+    }
+
+    /**
+     * @param time the time when the report was read, {@link System#nanoTime()}
+     */
+    public HidapiInputEvent(Object source, Component[] components, byte[] data, long time) {
         super(source);
         this.data = data;
-        this.time = System.nanoTime();
+        this.time = time;
 
         boolean fillAll = Boolean.parseBoolean(System.getProperty("net.java.games.input.InputEvent.fillAll", "false"));
 
@@ -4,8 +4,11 @@
  * Programmed by Naohide Sano
  */
 
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 import net.java.games.input.usb.parser.HidParser;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +16,8 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
 import purejavahidapi.HidDevice;
 import purejavahidapi.HidDeviceInfo;
 import purejavahidapi.PureJavaHidApi;
@@ -21,6 +26,10 @@ import vavi.util.StringUtil;
 import vavi.util.properties.annotation.Property;
 import vavi.util.properties.annotation.PropsEntity;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 
 /**
  * Test1.
@@ -74,4 +83,52 @@ Debug.printf("getFeatureReport:%n%s", StringUtil.getDump(data, len));
             hidParser.parse(data, len);
         }
     }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    @DisplayName("output and feature reports allocate nothing")
+    void testAllocation() throws Exception {
+        HidDeviceInfo deviceInfo = PureJavaHidApi.enumerateDevices().stream()
+                .filter(d -> d.getVendorId() == vendorId && d.getProductId() == productId)
+                .findFirst().get();
+        HidDevice device = PureJavaHidApi.openDevice(deviceInfo);
+        device.open();
+
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        ByteBuffer heap = ByteBuffer.allocate(64);
+        // whether the device takes the reports does not matter, the failures go the same way
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 10 && allocated > 0; round++) { // the first rounds are the jit warming up
+            long before = bean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 10000; i++) {
+                direct.clear();
+                device.getFeatureReport(0, direct);
+                device.setFeatureReport((byte) 0, direct.flip());
+                device.setOutputReport((byte) 0, direct.clear().limit(8));
+                device.setOutputReport((byte) 0, heap.clear().limit(8));
+            }
+            allocated = bean.getThreadAllocatedBytes(threadId) - before;
+Debug.printf("round %d: %d bytes allocated", round, allocated);
+        }
+        device.close();
+
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    @DisplayName("closeAll closes the open devices in time")
+    void testCloseAll() throws Exception {
+        HidDeviceInfo deviceInfo = PureJavaHidApi.enumerateDevices().stream()
+                .filter(d -> d.getVendorId() == vendorId && d.getProductId() == productId)
+                .findFirst().get();
+        HidDevice device = PureJavaHidApi.openDevice(deviceInfo);
+        device.open();
+
+        long start = System.nanoTime();
+        assertTrue(PureJavaHidApi.closeAll(Duration.ofSeconds(1)));
+Debug.printf("closeAll: %d us", (System.nanoTime() - start) / 1000);
+        assertThrows(IllegalStateException.class, device::close);
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import org.junit.jupiter.api.Test;
+import purejavahidapi.shared.Backend;
+import purejavahidapi.shared.BackendProvider;
+import purejavahidapi.simulated.SimulatedBackend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * BackendProviderTest.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class BackendProviderTest {
+
+    static BackendProvider provider(String name, int priority, boolean supported) {
+        return new BackendProvider() {
+            @Override public String getName() { return name; }
+            @Override public int getPriority() { return priority; }
+            @Override public boolean isSupported() { return supported; }
+            @Override public Backend createBackend() { return new SimulatedBackend(1); }
+        };
+    }
+
+    @Test
+    void testServiceLoader() {
+        List<String> names = new ArrayList<>();
+        for (BackendProvider provider : ServiceLoader.load(BackendProvider.class))
+            names.add(provider.getName());
+        assertEquals(List.of("linux", "windows", "macosx", "simulated"), names);
+    }
+
+    @Test
+    void testSelect() {
+        List<BackendProvider> providers = List.of(
+                provider("simulated", -1, true),
+                provider("other", 100, false),
+                provider("slow", 50, true),
+                provider("fast", 150, true));
+        assertEquals("fast", PureJavaHidApi.selectProvider(providers, null).getName());
+        assertEquals("simulated", PureJavaHidApi.selectProvider(providers, "simulated").getName());
+        assertEquals("other", PureJavaHidApi.selectProvider(providers, "other").getName());
+        assertNull(PureJavaHidApi.selectProvider(List.of(provider("simulated", -1, true)), null));
+        assertThrows(IllegalStateException.class, () -> PureJavaHidApi.selectProvider(providers, "none"));
+    }
+
+    @Test
+    void testCapabilities() {
+        assertTrue(PureJavaHidApi.getCapabilities().contains(BackendCapability.TIMESTAMPS));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static purejavahidapi.TestDevice.report;
+
+
+/**
+ * {@link ConflatedReports}, the latest value per report id and the seqlock.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class ConflatedReportsTest {
+
+    @Test
+    void testLatestWins() {
+        ConflatedReports reports = new ConflatedReports(new TestDevice());
+        ByteBuffer dst = ByteBuffer.allocate(8);
+        assertEquals(0, reports.getSequence(1));
+        assertEquals(0, reports.read(1, dst, null)); // nothing arrived yet
+        assertEquals(0, dst.position());
+
+        reports.publish(1, report(10, 11), 100);
+        reports.publish(2, report(20), 200);
+        reports.publish(1, report(12, 13), 300);
+        assertEquals(2, reports.getSequence(1));
+        assertEquals(1, reports.getSequence(2));
+
+        long[] timestamp = new long[1];
+        assertEquals(2, reports.read(1, dst, timestamp));
+        assertEquals(2, dst.position());
+        assertEquals(12, dst.get(0));
+        assertEquals(13, dst.get(1));
+        assertEquals(300, timestamp[0]);
+
+        // reading does not consume
+        dst.clear();
+        assertEquals(2, reports.read(1, dst, timestamp));
+        assertEquals(12, dst.get(0));
+    }
+
+    @Test
+    void testTruncate() {
+        ConflatedReports reports = new ConflatedReports(new TestDevice()); // 8 byte slots
+        reports.publish(1, report(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), 0); // the first report sizes the slot
+        reports.publish(1, report(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), 0);
+        ByteBuffer dst = ByteBuffer.allocate(16);
+        reports.read(1, dst, null);
+        assertEquals(10, dst.position());
+
+        ByteBuffer small = ByteBuffer.allocate(3);
+        reports.read(1, small, null);
+        assertEquals(3, small.position());
+    }
+
+    /** one writer going round the buffers as fast as it can, no reader may see a half written report */
+    @Test
+    void testNoTornRead() throws Exception {
+        int size = 256;
+        ConflatedReports reports = new ConflatedReports(new TestDevice());
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            ByteBuffer report = ByteBuffer.allocate(size);
+            for (long sequence = 1; !done.get(); sequence++) {
+                for (int i = 0; i < size; i++)
+                    report.put(i, (byte) sequence);
+                reports.publish(1, report, sequence);
+            }
+        });
+        writer.start();
+
+        AtomicReference<String> torn = new AtomicReference<>();
+        Thread[] readers = new Thread[2];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                ByteBuffer dst = ByteBuffer.allocate(size);
+                long[] timestamp = new long[1];
+                long last = 0;
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+                while (System.nanoTime() < deadline && torn.get() == null) {
+                    dst.clear();
+                    long sequence = reports.read(1, dst, timestamp);
+                    if (sequence == 0)
+                        continue;
+                    if (sequence < last)
+                        torn.set("went back from " + last + " to " + sequence);
+                    last = sequence;
+                    if (timestamp[0] != sequence)
+                        torn.set("timestamp " + timestamp[0] + " of report " + sequence);
+                    for (int i = 0; i < size; i++) {
+                        if (dst.get(i) != (byte) sequence) {
+                            torn.set("byte " + i + " of report " + sequence + " is " + dst.get(i));
+                            break;
+                        }
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        for (Thread reader : readers)
+            reader.join();
+        done.set(true);
+        writer.join();
+        assertNull(torn.get());
+        assertTrue(reports.getSequence(1) > 1);
+        assertFalse(writer.isAlive());
+    }
+}
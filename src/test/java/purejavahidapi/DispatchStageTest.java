@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static purejavahidapi.TestDevice.report;
+
+
+/**
+ * {@link DispatchStage}, the overflow policies and their counters.
+ * <p>
+ * The executor keeps the task instead of running it, so the queue fills up
+ * and drains exactly when the test says.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class DispatchStageTest {
+
+    /** runs the dispatcher task when told to */
+    static class ManualExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty())
+                tasks.remove(0).run();
+        }
+    }
+
+    @Test
+    void testDropNewest() {
+        TestDevice device = new TestDevice();
+        ManualExecutor executor = new ManualExecutor();
+        DispatchStage stage = new DispatchStage(device, 2, 8, OverflowPolicy.DROP_NEWEST, executor);
+        stage.offer(1, report(10), 0);
+        stage.offer(2, report(20), 0);
+        stage.offer(3, report(30), 0);
+        assertEquals(1, executor.tasks.size()); // one task however many reports
+        executor.runAll();
+        assertEquals(List.of(1, 10, 2, 20), device.delivered());
+        DispatchStatistics statistics = stage.getStatistics();
+        assertEquals(2, statistics.getQueued());
+        assertEquals(2, statistics.getDelivered());
+        assertEquals(1, statistics.getDroppedNewest());
+        assertEquals(0, statistics.getDroppedOldest());
+    }
+
+    @Test
+    void testDropOldest() {
+        TestDevice device = new TestDevice();
+        ManualExecutor executor = new ManualExecutor();
+        DispatchStage stage = new DispatchStage(device, 2, 8, OverflowPolicy.DROP_OLDEST, executor);
+        stage.offer(1, report(10), 0);
+        stage.offer(2, report(20), 0);
+        stage.offer(3, report(30), 0);
+        stage.offer(4, report(40), 0);
+        executor.runAll();
+        assertEquals(List.of(3, 30, 4, 40), device.delivered());
+        DispatchStatistics statistics = stage.getStatistics();
+        assertEquals(4, statistics.getQueued());
+        assertEquals(2, statistics.getDelivered());
+        assertEquals(2, statistics.getDroppedOldest());
+
+        // the slots are reused after the wraparound
+        stage.offer(5, report(50), 0);
+        executor.runAll();
+        assertEquals(List.of(3, 30, 4, 40, 5, 50), device.delivered());
+    }
+
+    @Test
+    void testConflate() {
+        TestDevice device = new TestDevice();
+        ManualExecutor executor = new ManualExecutor();
+        DispatchStage stage = new DispatchStage(device, 2, 8, OverflowPolicy.CONFLATE, executor);
+        stage.offer(1, report(10), 0);
+        stage.offer(2, report(20), 0);
+        stage.offer(1, report(11), 0); // overwrites the queued report 1 in place
+        executor.runAll();
+        assertEquals(List.of(1, 11, 2, 20), device.delivered());
+        DispatchStatistics statistics = stage.getStatistics();
+        assertEquals(1, statistics.getConflated());
+        assertEquals(0, statistics.getDroppedOldest());
+
+        // a report id that is not queued makes room by dropping the oldest
+        stage.offer(1, report(12), 0);
+        stage.offer(2, report(21), 0);
+        stage.offer(3, report(30), 0);
+        stage.offer(1, report(13), 0); // report 1 has been dropped, it is queued anew
+        executor.runAll();
+        assertEquals(List.of(1, 11, 2, 20, 3, 30, 1, 13), device.delivered());
+        statistics = stage.getStatistics();
+        assertEquals(2, statistics.getDroppedOldest());
+        assertEquals(1, statistics.getConflated());
+    }
+
+    @Test
+    void testTruncate() {
+        TestDevice device = new TestDevice();
+        ManualExecutor executor = new ManualExecutor();
+        DispatchStage stage = new DispatchStage(device, 2, 2, OverflowPolicy.BLOCK, executor);
+        List<Integer> lengths = new ArrayList<>();
+        device.setDirectInputReportListener((source, reportId, report) -> lengths.add(report.remaining()));
+        stage.offer(1, report(1, 2, 3, 4), 0);
+        stage.offer(1, report(), 0);
+        executor.runAll();
+        assertEquals(List.of(2, 0), lengths);
+    }
+
+    @Test
+    void testBlock() throws Exception {
+        TestDevice device = new TestDevice();
+        CountDownLatch listening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new ArrayList<>();
+        device.setDirectInputReportListener((source, reportId, report) -> {
+            listening.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (delivered) {
+                delivered.add(reportId);
+            }
+        });
+        DispatchStage stage = new DispatchStage(device, 2, 8, OverflowPolicy.BLOCK, null);
+        stage.offer(1, report(10), 0);
+        assertTrue(listening.await(5, TimeUnit.SECONDS)); // the dispatcher holds report 1
+        stage.offer(2, report(20), 0);
+        stage.offer(3, report(30), 0);
+        Thread reader = new Thread(() -> stage.offer(4, report(40), 0));
+        reader.start();
+        reader.join(200);
+        assertTrue(reader.isAlive()); // waits for a free slot
+        assertEquals(1, stage.getStatistics().getBlocked());
+
+        release.countDown();
+        reader.join(5000);
+        assertFalse(reader.isAlive());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (delivered) {
+                if (delivered.size() == 4)
+                    break;
+            }
+            Thread.sleep(10);
+        }
+        synchronized (delivered) {
+            assertEquals(List.of(1, 2, 3, 4), delivered);
+        }
+        stage.close();
+    }
+
+    @Test
+    void testCloseWhileBlocked() throws Exception {
+        TestDevice device = new TestDevice();
+        ManualExecutor executor = new ManualExecutor(); // never run, nothing frees a slot
+        DispatchStage stage = new DispatchStage(device, 1, 8, OverflowPolicy.BLOCK, executor);
+        stage.offer(1, report(10), 0);
+        Thread reader = new Thread(() -> stage.offer(2, report(20), 0));
+        reader.start();
+        reader.join(200);
+        assertTrue(reader.isAlive());
+
+        stage.close();
+        reader.join(5000);
+        assertFalse(reader.isAlive());
+        executor.runAll();
+        assertEquals(List.of(), device.delivered()); // discarded
+        stage.offer(3, report(30), 0); // ignored
+        assertEquals(1, stage.getStatistics().getQueued());
+        assertEquals(1, stage.getStatistics().getBlocked());
+    }
+
+    @Test
+    void testInterruptWhileBlocked() throws Exception {
+        TestDevice device = new TestDevice();
+        DispatchStage stage = new DispatchStage(device, 1, 8, OverflowPolicy.BLOCK, new ManualExecutor());
+        stage.offer(1, report(10), 0);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            stage.offer(2, report(20), 0);
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        reader.start();
+        reader.join(200);
+        assertTrue(reader.isAlive());
+
+        reader.interrupt();
+        reader.join(5000);
+        assertFalse(reader.isAlive());
+        assertTrue(interrupted.get()); // the status is kept for the reader loop
+        assertEquals(1, stage.getStatistics().getQueued());
+    }
+
+    @Test
+    void testDispatcherThread() throws Exception {
+        TestDevice device = new TestDevice();
+        ManualExecutor executor = new ManualExecutor();
+        DispatchStage stage = new DispatchStage(device, 2, 8, OverflowPolicy.BLOCK, executor);
+        List<Boolean> inListener = new ArrayList<>();
+        device.setDirectInputReportListener((source, reportId, report) -> inListener.add(stage.isDispatcherThread()));
+        stage.offer(1, report(10), 0);
+        assertFalse(stage.isDispatcherThread());
+        executor.runAll();
+        assertEquals(List.of(true), inListener);
+        assertFalse(stage.isDispatcherThread());
+
+        DispatchStage dedicated = new DispatchStage(device, 2, 8, OverflowPolicy.BLOCK, null);
+        CountDownLatch delivered = new CountDownLatch(1);
+        device.setDirectInputReportListener((source, reportId, report) -> {
+            inListener.add(dedicated.isDispatcherThread());
+            delivered.countDown();
+        });
+        dedicated.offer(1, report(10), 0);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(true, true), inListener);
+        dedicated.close();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static purejavahidapi.TestDevice.report;
+
+
+/**
+ * {@link LatencyHistograms} as filled by the delivery of a {@link HidDevice}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class LatencyHistogramsTest {
+
+    static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    /** a listener that is slow for report id 2 only */
+    static void sleepOnTwo(int reportId) {
+        if (reportId == 2) {
+            try {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(SLOW));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    void testBatchKeepsSlowListener() {
+        TestDevice device = new TestDevice();
+        device.setDirectInputReportListener((source, reportId, report) -> sleepOnTwo(reportId));
+        device.setLatencyHistograms(true);
+        ReportBatch batch = new ReportBatch(8);
+        for (int i = 1; i <= 8; i++)
+            batch.add(i, report(i), System.nanoTime());
+        device.dispatchInputReports(batch);
+
+        LatencyHistograms histograms = device.getLatencyHistograms().snapshot();
+        assertEquals(8, histograms.getListener().getCount()); // one value per report
+        assertEquals(8, histograms.getReadToListener().getCount());
+        assertEquals(0, histograms.getBatchListener().getCount()); // no batch listener
+        assertTrue(histograms.getListener().getMax() >= SLOW); // not spread over the batch
+        assertTrue(histograms.getListener().getValueAtPercentile(50) < SLOW / 2);
+    }
+
+    @Test
+    void testBatchListener() {
+        TestDevice device = new TestDevice();
+        device.setDirectInputReportListener(null);
+        device.setBatchInputReportListener((source, batch) -> sleepOnTwo(batch.getReportId(batch.size() - 1)));
+        device.setLatencyHistograms(true);
+        ReportBatch batch = new ReportBatch(2);
+        batch.add(1, report(1), System.nanoTime());
+        batch.add(2, report(2), System.nanoTime());
+        device.dispatchInputReports(batch);
+        device.dispatchInputReport(3, report(3), System.nanoTime());
+
+        LatencyHistograms histograms = device.getLatencyHistograms().snapshot();
+        assertEquals(2, histograms.getBatchListener().getCount()); // one value per call
+        assertTrue(histograms.getBatchListener().getMax() >= SLOW);
+        assertEquals(0, histograms.getListener().getCount()); // no report listener
+        assertEquals(3, histograms.getReadToListener().getCount());
+    }
+}
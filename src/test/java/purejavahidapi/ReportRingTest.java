@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static purejavahidapi.TestDevice.report;
+
+
+/**
+ * {@link ReportRing}, the slots, the wraparound and the waiting consumer.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class ReportRingTest {
+
+    @Test
+    void testCapacity() {
+        assertEquals(1, new ReportRing(1, 8).capacity());
+        assertEquals(4, new ReportRing(4, 8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new ReportRing(0, 8));
+        assertThrows(IllegalArgumentException.class, () -> new ReportRing(-4, 8));
+        assertThrows(IllegalArgumentException.class, () -> new ReportRing(3, 8)); // not a power of two
+        assertThrows(IllegalArgumentException.class, () -> new ReportRing(5, 8));
+        assertThrows(IllegalArgumentException.class, () -> new ReportRing(ReportRing.MAX_CAPACITY << 1, 8));
+        // the slots would take more than an int of bytes
+        assertThrows(IllegalArgumentException.class, () -> new ReportRing(ReportRing.MAX_CAPACITY, 1 << 12));
+    }
+
+    @Test
+    void testEmpty() throws Exception {
+        ReportRing ring = new ReportRing(2, 8);
+        ByteBuffer dst = ByteBuffer.allocate(8);
+        assertEquals(-1, ring.poll(dst));
+        assertEquals(-1, ring.take(dst, 0));
+        assertEquals(-1, ring.take(dst, TimeUnit.MILLISECONDS.toNanos(10)));
+        assertEquals(0, dst.position());
+    }
+
+    @Test
+    void testFull() {
+        ReportRing ring = new ReportRing(2, 8);
+        assertTrue(ring.offer(1, report(10), 100));
+        assertTrue(ring.offer(2, report(20), 200));
+        assertFalse(ring.offer(3, report(30), 300)); // the newest is dropped
+        assertEquals(1, ring.getOverruns());
+
+        ByteBuffer dst = ByteBuffer.allocate(8);
+        assertEquals(1, ring.poll(dst));
+        assertEquals(100, ring.getLastTimestamp());
+        assertEquals(10, dst.get(0));
+        assertTrue(ring.offer(4, report(40), 400)); // the released slot is free again
+    }
+
+    @Test
+    void testWraparound() {
+        ReportRing ring = new ReportRing(4, 8);
+        ByteBuffer dst = ByteBuffer.allocate(8);
+        for (int i = 0; i < 4 * 5 + 1; i++) {
+            assertTrue(ring.offer(i & 0xff, report(i, i + 1), i));
+            if (i % 2 == 1) {
+                // keeps two reports in the ring, so head and tail wrap at different slots
+                for (int j = i - 1; j <= i; j++) {
+                    dst.clear();
+                    assertEquals(j, ring.poll(dst));
+                    assertEquals(2, dst.position());
+                    assertEquals(j, dst.get(0));
+                    assertEquals(j + 1, dst.get(1));
+                    assertEquals(j, ring.getLastTimestamp());
+                }
+            }
+        }
+        dst.clear();
+        assertEquals(20, ring.poll(dst));
+        assertEquals(-1, ring.poll(dst));
+        assertEquals(0, ring.getOverruns());
+    }
+
+    @Test
+    void testTruncate() {
+        ReportRing ring = new ReportRing(2, 2);
+        ring.offer(1, report(1, 2, 3, 4), 0);
+        ring.offer(2, report(5, 6), 0);
+
+        ByteBuffer dst = ByteBuffer.allocate(8);
+        assertEquals(1, ring.poll(dst));
+        assertEquals(2, dst.position()); // cut to the slot size
+
+        ByteBuffer small = ByteBuffer.allocate(1);
+        assertEquals(2, ring.poll(small));
+        assertEquals(1, small.position()); // cut to the room left in dst
+        assertEquals(5, small.get(0));
+    }
+
+    @Test
+    void testTake() throws Exception {
+        ReportRing ring = new ReportRing(2, 8);
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ring.offer(7, report(70), 700);
+        });
+        producer.start();
+        ByteBuffer dst = ByteBuffer.allocate(8);
+        assertEquals(7, ring.take(dst, TimeUnit.SECONDS.toNanos(5)));
+        assertEquals(700, ring.getLastTimestamp());
+        producer.join();
+    }
+
+    @Test
+    void testCloseWakesTake() throws Exception {
+        ReportRing ring = new ReportRing(2, 8);
+        AtomicInteger result = new AtomicInteger(0);
+        Thread consumer = new Thread(() -> {
+            try {
+                result.set(ring.take(ByteBuffer.allocate(8), TimeUnit.SECONDS.toNanos(30)));
+            } catch (InterruptedException e) {
+                result.set(-2);
+            }
+        });
+        consumer.start();
+        consumer.join(200);
+        assertTrue(consumer.isAlive());
+
+        ring.close();
+        consumer.join(5000);
+        assertFalse(consumer.isAlive());
+        assertEquals(-1, result.get());
+    }
+
+    @Test
+    void testInterruptTake() throws Exception {
+        ReportRing ring = new ReportRing(2, 8);
+        AtomicInteger result = new AtomicInteger(0);
+        Thread consumer = new Thread(() -> {
+            try {
+                result.set(ring.take(ByteBuffer.allocate(8), TimeUnit.SECONDS.toNanos(30)));
+            } catch (InterruptedException e) {
+                result.set(-2);
+            }
+        });
+        consumer.start();
+        consumer.join(200);
+        consumer.interrupt();
+        consumer.join(5000);
+        assertFalse(consumer.isAlive());
+        assertEquals(-2, result.get());
+    }
+}
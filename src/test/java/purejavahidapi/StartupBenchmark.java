@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+
+/**
+ * Measures what using the library costs at startup.
+ * <p>
+ * Each mode runs in a fresh JVM so that the class loading is part of the
+ * numbers: only touching the library, enumerating the devices, and opening
+ * one and setting a removal listener, which is what starts the hotplug
+ * monitor. Prints the median time from the first call to its return and the
+ * live threads afterwards, e.g.
+ * <pre>
+ * mvn test -Dtest=StartupBenchmark -Dvavi.test=ide -Dbenchmark.runs=11
+ * </pre>
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledIfSystemProperty(named = "vavi.test", matches = "ide")
+public class StartupBenchmark {
+
+    /** the number of JVMs per mode */
+    static final int RUNS = Integer.getInteger("benchmark.runs", 5);
+
+    @Test
+    void touch() throws Exception {
+        run("touch");
+    }
+
+    @Test
+    void enumerate() throws Exception {
+        run("enumerate");
+    }
+
+    @Test
+    void removalListener() throws Exception {
+        run("listener");
+    }
+
+    /** runs the mode in {@link #RUNS} child JVMs and prints the medians */
+    static void run(String mode) throws Exception {
+        long[] nanos = new long[RUNS];
+        long[] threads = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path")));
+            String backend = InitOptions.defaults().getBackend();
+            if (backend != null)
+                command.add("-Dpurejavahidapi.PureJavaHidApi.backend=" + backend);
+            command.add(StartupBenchmark.class.getName());
+            command.add(mode);
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            String line;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                line = reader.readLine();
+            }
+            assertEquals(0, process.waitFor());
+            String[] fields = line.split(" ");
+            nanos[i] = Long.parseLong(fields[0]);
+            threads[i] = Long.parseLong(fields[1]);
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(threads);
+        System.out.printf("%-10s runs=%d median %.2f ms, threads %d%n", mode, RUNS, nanos[RUNS / 2] / 1e6, threads[RUNS / 2]);
+    }
+
+    /** the child, prints the nanoseconds the mode took and the live threads */
+    public static void main(String[] args) throws Exception {
+        long start = System.nanoTime();
+        switch (args[0]) {
+        case "touch":
+            PureJavaHidApi.getVersion();
+            assertFalse(PureJavaHidApi.isInitialized());
+            break;
+        case "enumerate":
+            PureJavaHidApi.enumerateDevices();
+            break;
+        case "listener":
+            List<HidDeviceInfo> devices = PureJavaHidApi.enumerateDevices();
+            if (!devices.isEmpty()) {
+                HidDevice device = PureJavaHidApi.openDevice(devices.get(0));
+                device.setDeviceRemovalListener(source -> {});
+            }
+            break;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(elapsed + " " + ManagementFactory.getThreadMXBean().getThreadCount());
+        System.exit(0);
+    }
+}
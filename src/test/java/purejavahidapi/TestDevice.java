@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A device without a backend for the delivery classes, it records the
+ * reports its listeners get.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+class TestDevice extends HidDevice {
+
+    /** the report id followed by the first data byte of every report delivered */
+    final List<Integer> delivered = new ArrayList<>();
+
+    TestDevice() {
+        m_Open = true;
+        m_MaxInputReportLength = 8;
+        setDirectInputReportListener((source, reportId, report) -> {
+            synchronized (delivered) {
+                delivered.add(reportId);
+                delivered.add(report.remaining() > 0 ? report.get(report.position()) & 0xff : -1);
+            }
+        });
+    }
+
+    /** @return a report of the given data bytes */
+    static ByteBuffer report(int... data) {
+        ByteBuffer report = ByteBuffer.allocate(data.length);
+        for (int b : data)
+            report.put((byte) b);
+        return report.flip();
+    }
+
+    List<Integer> delivered() {
+        synchronized (delivered) {
+            return new ArrayList<>(delivered);
+        }
+    }
+
+    @Override
+    public void open() {
+    }
+
+    @Override
+    public int setOutputReport(byte reportID, byte[] data, int length) {
+        return length;
+    }
+
+    @Override
+    public int setFeatureReport(byte reportId, byte[] data, int length) {
+        return length;
+    }
+
+    @Override
+    public int getInputReportDescriptor(byte[] data, int length) {
+        return 0;
+    }
+
+    @Override
+    public int getFeatureReport(int reportId, byte[] data, int length) {
+        return 0;
+    }
+
+    @Override
+    public void close() {
+        m_Open = false;
+        closeDelivery();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.sun.jna.Memory;
+import com.sun.jna.NativeLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import purejavahidapi.Backoff;
+import purejavahidapi.shared.Histogram;
+
+import static purejavahidapi.linux.CLibrary.O_NONBLOCK;
+import static purejavahidapi.linux.CLibrary.POLLIN;
+import static purejavahidapi.linux.CLibrary.pollfd;
+
+
+/**
+ * Compares the blocking reader of {@link HidDevice#runReadOnBackground()}
+ * with the busy-poll reader of {@link ReadMode#SPIN}.
+ * <p>
+ * A non-blocking pipe stands in for the hidraw handle, a producer writes an 8
+ * byte "report" carrying its send time after a random pause, the reader is
+ * either blocked in poll() or reads the handle in a loop backing off as the
+ * {@link Backoff} says. Prints the send-to-read latency distribution and the
+ * CPU time the reader used, e.g.
+ * <pre>
+ * mvn test -Dtest=BusyPollBenchmark -Dvavi.test=ide -Dbenchmark.reports=50000
+ * </pre>
+ * The busy-poll numbers only mean something when the reader has a core of its
+ * own, more cores than busy threads.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledOnOs(OS.LINUX)
+@EnabledIfSystemProperty(named = "vavi.test", matches = "ide")
+public class BusyPollBenchmark {
+
+    /** the number of reports sent */
+    static final int REPORTS = Integer.getInteger("benchmark.reports", 20000);
+    /** the longest pause between two reports */
+    static final long MAX_PAUSE_NANOS = Long.getLong("benchmark.maxPauseNanos", 200_000);
+
+    /** the result of one reader */
+    static final class Result {
+
+        String m_Mode;
+        long m_CpuMillis;
+        final Histogram m_Latency = new Histogram();
+
+        @Override
+        public String toString() {
+            return String.format("%-8s reports=%d cpu=%d ms latency %s", m_Mode, REPORTS, m_CpuMillis, m_Latency);
+        }
+    }
+
+    @Test
+    void blocking() throws Exception {
+        System.out.println(run(null));
+    }
+
+    @Test
+    void backoff() throws Exception {
+        System.out.println(run(Backoff.defaults()));
+    }
+
+    @Test
+    void spin() throws Exception {
+        System.out.println(run(Backoff.spin()));
+    }
+
+    /**
+     * @param backoff null for the blocking reader
+     */
+    static Result run(Backoff backoff) throws Exception {
+        Result result = new Result();
+        result.m_Mode = backoff == null ? "blocking" : backoff.getSpins() == Integer.MAX_VALUE ? "spin" : "backoff";
+        int[] pipes = new int[2];
+        if (CLibrary.pipe2(pipes, O_NONBLOCK) != 0)
+            throw new IllegalStateException("pipe2() failed");
+        int readHandle = pipes[0];
+        int writeHandle = pipes[1];
+        AtomicInteger received = new AtomicInteger();
+        int warmup = REPORTS / 10;
+        long[] cpu = new long[1];
+        Thread reader = new Thread(() -> {
+            Memory buffer = new Memory(8);
+            NativeLong length = new NativeLong(8);
+            pollfd[] pfds = (pollfd[]) (new pollfd().toArray(1));
+            pfds[0].fd = readHandle;
+            pfds[0].events = POLLIN;
+            long start = 0;
+            int idle = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                if (backoff == null && CLibrary.poll(pfds, 1, 100) <= 0)
+                    continue;
+                if (CLibrary.read(readHandle, buffer, length) != 8) {
+                    if (backoff != null) {
+                        backoff.idle(idle);
+                        if (idle < Integer.MAX_VALUE)
+                            idle++;
+                    }
+                    continue;
+                }
+                long latency = System.nanoTime() - buffer.getLong(0);
+                idle = 0;
+                int n = received.incrementAndGet();
+                if (n == warmup) {
+                    result.m_Latency.reset();
+                    start = cpuTime();
+                }
+                result.m_Latency.record(latency);
+                if (n == warmup + REPORTS)
+                    cpu[0] = cpuTime() - start;
+            }
+        }, "reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        Memory report = new Memory(8);
+        NativeLong length = new NativeLong(8);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < warmup + REPORTS; i++) {
+            long until = System.nanoTime() + random.nextLong(MAX_PAUSE_NANOS);
+            while (System.nanoTime() < until)
+                LockSupport.parkNanos(until - System.nanoTime());
+            int expected = received.get() + 1;
+            report.setLong(0, System.nanoTime());
+            CLibrary.write(writeHandle, report, length);
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            while (received.get() < expected && System.nanoTime() < deadline)
+                LockSupport.parkNanos(10_000);
+        }
+        reader.interrupt();
+        reader.join();
+        CLibrary.close(readHandle);
+        CLibrary.close(writeHandle);
+        result.m_CpuMillis = cpu[0] / 1_000_000;
+        return result;
+    }
+
+    /** @return the cpu time of the calling thread */
+    static long cpuTime() {
+        return ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+    }
+}
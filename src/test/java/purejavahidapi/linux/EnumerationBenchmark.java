@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import purejavahidapi.OpenOptions;
+import purejavahidapi.shared.Histogram;
+
+
+/**
+ * Measures enumerating the hidraw devices of this machine and opening them.
+ * <p>
+ * The backend keeps one udev context and resolves the hidraw node while
+ * enumerating, so opening a device is just open() and the descriptor ioctls.
+ * Opens in the synchronous read mode so that no reader thread is part of the
+ * numbers, devices that cannot be opened, e.g. for the permissions, are
+ * counted and skipped.
+ * <pre>
+ * mvn test -Dtest=EnumerationBenchmark -Dvavi.test=ide -Dbenchmark.rounds=100
+ * </pre>
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledOnOs(OS.LINUX)
+@EnabledIfSystemProperty(named = "vavi.test", matches = "ide")
+public class EnumerationBenchmark {
+
+    /** the number of enumerations and open rounds */
+    static final int ROUNDS = Integer.getInteger("benchmark.rounds", 50);
+
+    @Test
+    void enumerateAndOpen() throws Exception {
+        LinuxBackend backend = new LinuxBackend();
+        backend.init();
+        try {
+            Histogram enumeration = new Histogram();
+            List<purejavahidapi.HidDeviceInfo> devices = null;
+            for (int i = 0; i < ROUNDS; i++) {
+                long start = System.nanoTime();
+                devices = backend.enumerateDevices();
+                enumeration.record(System.nanoTime() - start);
+            }
+            System.out.printf("enumerate devices=%d %s%n", devices.size(), enumeration);
+
+            Histogram open = new Histogram();
+            int failed = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                for (purejavahidapi.HidDeviceInfo info : devices) {
+                    long start = System.nanoTime();
+                    try {
+                        purejavahidapi.HidDevice device = backend.openDevice(info, OpenOptions.syncRead());
+                        device.open();
+                        open.record(System.nanoTime() - start);
+                        device.close();
+                    } catch (IOException e) {
+                        failed++;
+                    }
+                }
+            }
+            System.out.printf("open      failed=%d %s%n", failed / ROUNDS, open);
+        } finally {
+            backend.cleanup();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.sun.jna.Memory;
+import com.sun.jna.NativeLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import purejavahidapi.ThreadOptions;
+import purejavahidapi.ThreadSetupResult;
+import purejavahidapi.shared.Histogram;
+
+import static purejavahidapi.linux.CLibrary.POLLIN;
+import static purejavahidapi.linux.CLibrary.pollfd;
+
+
+/**
+ * Measures the jitter of the inter-report arrival time seen by a reader thread
+ * blocked in poll(), with and without real-time scheduling and cpu pinning.
+ * <p>
+ * A producer writes a "report" into a pipe every {@link #PERIOD_NANOS}, the
+ * reader is set up by {@link ThreadSetup} the way the per-device reader of
+ * {@link HidDevice} is. The distribution of the deviation of each arrival
+ * interval from the period is printed, together with whether the policy could
+ * be applied, without CAP_SYS_NICE it is denied and only the pinning is in
+ * effect. Put some load on the machine to see a difference, e.g.
+ * <pre>
+ * stress-ng --cpu 0 &amp;
+ * mvn test -Dtest=JitterBenchmark -Dvavi.test=ide -Dbenchmark.cpu=3
+ * </pre>
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledOnOs(OS.LINUX)
+@EnabledIfSystemProperty(named = "vavi.test", matches = "ide")
+public class JitterBenchmark {
+
+    /** 1 kHz, a typical high rate device */
+    static final long PERIOD_NANOS = 1_000_000;
+    /** the number of reports per run */
+    static final int REPORTS = Integer.getInteger("benchmark.reports", 10000);
+    /** the cpu the pinned reader runs on */
+    static final int CPU = Integer.getInteger("benchmark.cpu", Runtime.getRuntime().availableProcessors() - 1);
+
+    @Test
+    void unpinned() throws Exception {
+        System.out.println("default:        " + run(ThreadOptions.defaults()));
+    }
+
+    @Test
+    void pinned() throws Exception {
+        System.out.println("pinned:         " + run(ThreadOptions.defaults().withAffinity(CPU)));
+    }
+
+    @Test
+    void pinnedRealtime() throws Exception {
+        System.out.println("pinned FIFO 50: " + run(ThreadOptions.defaults().withAffinity(CPU).withScheduling(ThreadOptions.Policy.FIFO, 50)));
+    }
+
+    /** @return the setup result and the histogram of |interval - period| */
+    static String run(ThreadOptions options) throws Exception {
+        int[] pipes = new int[2];
+        if (CLibrary.pipe(pipes) != 0)
+            throw new IllegalStateException("pipe() failed");
+        Histogram jitter = new Histogram();
+        ThreadSetupResult[] setup = new ThreadSetupResult[1];
+        CountDownLatch ready = new CountDownLatch(1);
+        Thread reader = ThreadSetup.newThread(options, "jitter-reader", () -> {
+            setup[0] = ThreadSetup.applyToCurrentThread(options);
+            pollfd[] pfds = (pollfd[]) (new pollfd().toArray(1));
+            pfds[0].fd = pipes[0];
+            pfds[0].events = POLLIN;
+            Memory buffer = new Memory(8);
+            NativeLong size = new NativeLong(8);
+            ready.countDown();
+            long last = 0;
+            for (int i = 0; i < REPORTS; i++) {
+                CLibrary.poll(pfds, 1, -1);
+                CLibrary.read(pipes[0], buffer, size);
+                long now = System.nanoTime();
+                if (last != 0)
+                    jitter.record(Math.abs(now - last - PERIOD_NANOS));
+                last = now;
+            }
+        });
+        reader.start();
+        ready.await();
+
+        Memory report = new Memory(8);
+        NativeLong size = new NativeLong(8);
+        long next = System.nanoTime();
+        for (int i = 0; i < REPORTS; i++) {
+            next += PERIOD_NANOS;
+            while (System.nanoTime() < next)
+                Thread.onSpinWait();
+            CLibrary.write(pipes[1], report, size);
+        }
+        reader.join();
+        CLibrary.close(pipes[0]);
+        CLibrary.close(pipes[1]);
+        return setup[0] + "\n    jitter " + jitter;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import purejavahidapi.ThreadOptions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static purejavahidapi.linux.CLibrary.EPOLLIN;
+
+
+/**
+ * {@link Reactor} with pipes standing in for the device handles.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledOnOs(OS.LINUX)
+public class ReactorTest {
+
+    /** the number of registrations the reactor starts with room for */
+    static final int INITIAL_SLOTS = 16;
+
+    final List<int[]> pipes = new ArrayList<>();
+    Reactor reactor;
+
+    @AfterEach
+    void teardown() {
+        if (reactor != null)
+            reactor.shutdown();
+        for (int[] pipe : pipes) {
+            CLibrary.close(pipe[0]);
+            CLibrary.close(pipe[1]);
+        }
+    }
+
+    int[] pipe() {
+        int[] pipe = new int[2];
+        assertEquals(0, CLibrary.pipe(pipe));
+        pipes.add(pipe);
+        return pipe;
+    }
+
+    static void signal(int[] pipe) {
+        CLibrary.write(pipe[1], new byte[1], 1);
+    }
+
+    static void drain(int[] pipe) {
+        CLibrary.read(pipe[0], new byte[16], 16);
+    }
+
+    @Test
+    void testReadyHandler() throws Exception {
+        reactor = new Reactor("test-reactor", ThreadOptions.defaults());
+        int[] pipe = pipe();
+        CountDownLatch ready = new CountDownLatch(1);
+        reactor.register(pipe[0], EPOLLIN, events -> {
+            drain(pipe);
+            ready.countDown();
+        });
+        signal(pipe);
+        assertTrue(ready.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Two events come in one epoll_wait(), the handler of the first grows the
+     * registrations and deregisters the second, which must not be called then.
+     */
+    @Test
+    void testDeregisteredAfterGrow() throws Exception {
+        reactor = new Reactor("test-reactor", ThreadOptions.defaults());
+        // holds the reactor thread, so that both events are pending when it comes back
+        int[] gate = pipe();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        reactor.register(gate[0], EPOLLIN, events -> {
+            drain(gate);
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        int[] second = pipe();
+        AtomicInteger secondCalls = new AtomicInteger();
+        AtomicReference<Reactor.Registration> secondRegistration = new AtomicReference<>();
+        int[] first = pipe();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        CountDownLatch firstDone = new CountDownLatch(1);
+        reactor.register(first[0], EPOLLIN, events -> {
+            drain(first);
+            try {
+                int[] extra = pipe();
+                reactor.register(extra[0], EPOLLIN, e -> drain(extra)); // the array grows
+            } catch (Exception e) {
+                failure.set(e);
+            }
+            reactor.deregister(secondRegistration.get());
+            firstDone.countDown();
+        });
+        secondRegistration.set(reactor.register(second[0], EPOLLIN, events -> {
+            drain(second);
+            secondCalls.incrementAndGet();
+        }));
+        // fills the remaining slots, so that the next registration grows the array
+        for (int i = 3; i < INITIAL_SLOTS; i++) {
+            int[] idle = pipe();
+            reactor.register(idle[0], EPOLLIN, events -> drain(idle));
+        }
+
+        signal(gate);
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+        signal(first);
+        signal(second);
+        release.countDown();
+        assertTrue(firstDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertNull(failure.get());
+        assertEquals(0, secondCalls.get());
+    }
+}
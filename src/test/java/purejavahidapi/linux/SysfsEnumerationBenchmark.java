@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import purejavahidapi.shared.Histogram;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Measures {@link SysfsEnumerator} against a fake sysfs of many usb hid devices
+ * in a temporary directory, the time and the heap allocated per enumeration.
+ * <pre>
+ * mvn test -Dtest=SysfsEnumerationBenchmark -Dvavi.test=ide -Dbenchmark.devices=1000
+ * </pre>
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledOnOs(OS.LINUX)
+@EnabledIfSystemProperty(named = "vavi.test", matches = "ide")
+public class SysfsEnumerationBenchmark {
+
+    /** the number of fake devices */
+    static final int DEVICES = Integer.getInteger("benchmark.devices", 1000);
+    /** the number of enumerations */
+    static final int ROUNDS = Integer.getInteger("benchmark.rounds", 50);
+
+    @Test
+    void enumerate() throws Exception {
+        Path root = Files.createTempDirectory("sysfs");
+        try {
+            for (int i = 0; i < DEVICES; i++)
+                SysfsEnumeratorTest.createUsbDevice(root, i, 0x1234, i & 0xffff, "Device " + i, "SN" + i);
+
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long thread = Thread.currentThread().getId();
+            SysfsEnumerator enumerator = new SysfsEnumerator(root, "/dev");
+            for (int i = 0; i < ROUNDS / 5; i++) // warm up
+                enumerator.enumerate();
+
+            Histogram time = new Histogram();
+            long allocated = 0;
+            for (int i = 0; i < ROUNDS; i++) {
+                long bytes = threads.getThreadAllocatedBytes(thread);
+                long start = System.nanoTime();
+                int n = enumerator.enumerate().size();
+                time.record(System.nanoTime() - start);
+                allocated += threads.getThreadAllocatedBytes(thread) - bytes;
+                assertEquals(DEVICES, n);
+            }
+            System.out.printf("sysfs devices=%d allocated %d bytes/device, per enumeration %s%n", DEVICES, allocated / ROUNDS / DEVICES, time);
+        } finally {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+}
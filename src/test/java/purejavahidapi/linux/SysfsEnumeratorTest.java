@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import purejavahidapi.DeviceFilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * {@link SysfsEnumerator} and {@link Uevent} against a fake sysfs in a temporary directory.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledOnOs(OS.LINUX)
+public class SysfsEnumeratorTest {
+
+    /** a mouse, usage page 1 (generic desktop) usage 2 (mouse), one 3 byte input report */
+    static final byte[] MOUSE = {
+            0x05, 0x01, 0x09, 0x02, (byte) 0xa1, 0x01, 0x75, 0x08, (byte) 0x95, 0x03, (byte) 0x81, 0x02, (byte) 0xc0
+    };
+
+    Path root;
+
+    @BeforeEach
+    void setup() throws IOException {
+        root = Files.createTempDirectory("sysfs");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /**
+     * Creates /sys/devices/.../hidraw/hidrawN of a usb hid device the way the kernel lays it out,
+     * with /sys/class/hidraw/hidrawN and hidrawN/device as symbolic links.
+     */
+    static void createUsbDevice(Path root, int n, int vendorId, int productId, String name, String serial) throws IOException {
+        Path usb = root.resolve("devices/pci0000:00/0000:00:14.0/usb1/1-" + n);
+        Files.createDirectories(usb);
+        write(usb.resolve("busnum"), "1\n");
+        write(usb.resolve("devnum"), (n + 1) + "\n");
+        write(usb.resolve("manufacturer"), "Maker " + n + "\n");
+        write(usb.resolve("bcdDevice"), "0110\n");
+        Path intf = usb.resolve("1-" + n + ":1.0");
+        Files.createDirectories(intf);
+        write(intf.resolve("bInterfaceNumber"), "00\n");
+        createHidDevice(root, intf, n, 0x03, vendorId, productId, name, serial, "usb-0000:00:14.0-" + n + "/input0");
+    }
+
+    /** Creates a hid device below parent and the hidraw device of it */
+    static void createHidDevice(Path root, Path parent, int n, int bus, int vendorId, int productId, String name, String serial, String phys) throws IOException {
+        Path hid = parent.resolve(String.format("%04X:%04X:%04X.%04X", bus, vendorId, productId, n));
+        Files.createDirectories(hid);
+        write(hid.resolve("uevent"), String.format("DRIVER=hid-generic%n"
+                + "HID_ID=%04X:%08X:%08X%n"
+                + "HID_NAME=%s%n"
+                + "HID_PHYS=%s%n"
+                + "HID_UNIQ=%s%n"
+                + "MODALIAS=hid:b%04Xg0001v%08Xp%08X%n", bus, vendorId, productId, name, phys, serial, bus, vendorId, productId));
+        Files.write(hid.resolve("report_descriptor"), MOUSE);
+        Path hidraw = hid.resolve("hidraw/hidraw" + n);
+        Files.createDirectories(hidraw);
+        Files.createSymbolicLink(hidraw.resolve("device"), hidraw.relativize(hid));
+        Path clazz = root.resolve("class/hidraw");
+        Files.createDirectories(clazz);
+        Files.createSymbolicLink(clazz.resolve("hidraw" + n), clazz.relativize(hidraw));
+    }
+
+    static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testUsb() throws Exception {
+        createUsbDevice(root, 0, 0x046d, 0xc52b, "Logitech USB Receiver", "");
+        createUsbDevice(root, 1, 0x1234, 0xabcd, "Gamepad", "SN-1");
+
+        List<purejavahidapi.HidDeviceInfo> devices = new SysfsEnumerator(root, "/dev").enumerate();
+        assertEquals(2, devices.size());
+        HidDeviceInfo info = (HidDeviceInfo) devices.get(0);
+        assertEquals("/dev/hidraw0", info.getDevNode());
+        assertEquals("/dev/bus/usb/001/001", info.getDeviceId());
+        assertTrue(info.getPath().endsWith("/hidraw/hidraw0"));
+        assertEquals(0x046d, info.getVendorId());
+        assertEquals(0xc52b, info.getProductId());
+        assertEquals(0x0110, info.getReleaseNumber());
+        assertEquals(1, info.getUsagePage());
+        assertEquals(2, info.getUsageId());
+        assertEquals("Logitech USB Receiver", info.getProductString());
+        assertEquals("Maker 0", info.getManufacturerString());
+        assertEquals("", info.getSerialNumberString());
+        assertEquals("usb-0000:00:14.0-0/input0", info.getPhys());
+        assertEquals(0, info.getInterfaceNumber());
+
+        info = (HidDeviceInfo) devices.get(1);
+        assertEquals("/dev/hidraw1", info.getDevNode());
+        assertEquals(0x1234, info.getVendorId());
+        assertEquals(0xabcd, info.getProductId());
+        assertEquals("SN-1", info.getSerialNumberString());
+    }
+
+    @Test
+    void testOtherBuses() throws Exception {
+        Path uhid = root.resolve("devices/virtual/misc/uhid");
+        createHidDevice(root, uhid, 5, 0x05, 0x054c, 0x09cc, "Wireless Controller", "aa:bb:cc:dd:ee:ff", "00:11:22:33:44:55");
+        Path i2c = root.resolve("devices/platform/i2c-1/i2c-ELAN0001:00");
+        createHidDevice(root, i2c, 6, 0x18, 0x04f3, 0x3030, "Touchpad", "", "i2c-ELAN0001:00");
+
+        List<purejavahidapi.HidDeviceInfo> devices = new SysfsEnumerator(root, "/dev").enumerate();
+        assertEquals(1, devices.size()); // i2c is skipped as the udev enumeration does
+        HidDeviceInfo info = (HidDeviceInfo) devices.get(0);
+        assertEquals("/dev/hidraw5", info.getDevNode());
+        assertNull(info.getDeviceId());
+        assertEquals(-1, info.getInterfaceNumber());
+        assertEquals(0x054c, info.getVendorId());
+        assertEquals("aa:bb:cc:dd:ee:ff", info.getSerialNumberString());
+    }
+
+    @Test
+    void testFilter() throws Exception {
+        createUsbDevice(root, 0, 0x046d, 0xc52b, "Receiver", "");
+        createUsbDevice(root, 1, 0x1234, 0xabcd, "Gamepad", "SN-1");
+        Path uhid = root.resolve("devices/virtual/misc/uhid");
+        createHidDevice(root, uhid, 2, 0x05, 0x054c, 0x09cc, "Wireless Controller", "aa:bb:cc:dd:ee:ff", "00:11:22:33:44:55");
+        SysfsEnumerator enumerator = new SysfsEnumerator(root, "/dev");
+
+        assertEquals(3, enumerator.enumerate(DeviceFilter.any()).size());
+        List<purejavahidapi.HidDeviceInfo> devices = enumerator.enumerate(DeviceFilter.any().withVendorId(0x1234));
+        assertEquals(1, devices.size());
+        assertEquals(0xabcd, devices.get(0).getProductId());
+        assertEquals(2, enumerator.enumerate(DeviceFilter.any().withBusType(DeviceFilter.BUS_USB)).size());
+        assertEquals(DeviceFilter.BUS_BLUETOOTH, enumerator.enumerate(DeviceFilter.any().withBusType(DeviceFilter.BUS_BLUETOOTH)).get(0).getBusType());
+        assertEquals(3, enumerator.enumerate(DeviceFilter.any().withUsage(1, 2)).size());
+        assertEquals(0, enumerator.enumerate(DeviceFilter.any().withUsage(1, 5)).size());
+        assertEquals(1, enumerator.enumerate(DeviceFilter.any().withSerialNumber("SN-1")).size());
+        assertEquals(1, enumerator.enumerate(DeviceFilter.any().withPath("*/virtual/*")).size());
+        assertEquals(0, enumerator.enumerate(DeviceFilter.any().withProductId(0xabcd).withPath("*/virtual/*")).size());
+    }
+
+    @Test
+    void testBroken() throws Exception {
+        createUsbDevice(root, 0, 0x046d, 0xc52b, "Receiver", "");
+        createUsbDevice(root, 1, 0x046d, 0xc52b, "Receiver", "");
+        // unplugged while enumerating
+        Path hid = root.resolve("class/hidraw/hidraw1/device").toRealPath();
+        Files.delete(hid.resolve("uevent"));
+
+        List<purejavahidapi.HidDeviceInfo> devices = new SysfsEnumerator(root, "/dev").enumerate();
+        assertEquals(1, devices.size());
+
+        assertEquals(0, new SysfsEnumerator(root.resolve("none"), "/dev").enumerate().size());
+    }
+
+    @Test
+    void testUevent() throws Exception {
+        Uevent uevent = new Uevent();
+        byte[] b = "HID_ID=0005:0000054C:000009CC\nHID_NAME=Wireless Controller\nHID_UNIQ=".getBytes(StandardCharsets.UTF_8);
+        assertTrue(uevent.parse(b, b.length));
+        assertEquals(5, uevent.m_Bus);
+        assertEquals(0x054c, uevent.m_VendorId);
+        assertEquals(0x09cc, uevent.m_ProductId);
+        assertEquals("Wireless Controller", uevent.m_Name);
+        assertEquals("", uevent.m_Uniq);
+        assertNull(uevent.m_Phys);
+
+        b = "HID_ID=0003:0000046D:0000C52B:0\n".getBytes(StandardCharsets.UTF_8);
+        assertFalse(uevent.parse(b, b.length));
+        b = "HID_ID=0003::0000C52B\n".getBytes(StandardCharsets.UTF_8);
+        assertFalse(uevent.parse(b, b.length));
+        b = "HID_ID=0003:0000046D:0000C52X\n".getBytes(StandardCharsets.UTF_8);
+        assertFalse(uevent.parse(b, b.length));
+        b = "HID_NAME=x\n".getBytes(StandardCharsets.UTF_8);
+        assertFalse(uevent.parse(b, b.length));
+        assertEquals("x", uevent.m_Name);
+        // only the first length bytes count
+        b = "HID_ID=0003:0000046D:0000C52B\nHID_NAME=x\n".getBytes(StandardCharsets.UTF_8);
+        assertTrue(uevent.parse(b, 30));
+        assertNull(uevent.m_Name);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import com.sun.jna.Native;
+import purejavahidapi.DeviceFilter;
+
+import static purejavahidapi.linux.UdevLibrary.O_RDWR;
+
+
+/**
+ * A hid device made by the kernel from /dev/uhid, it gets a hidraw node like
+ * a real one, so the library reads it the way it reads any device.
+ * <p>
+ * Needs the uhid module and write access to /dev/uhid, usually root.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ * @see "include/uapi/linux/uhid.h"
+ */
+final class Uhid implements Closeable {
+
+    static final String DEVICE = "/dev/uhid";
+
+    /** enum uhid_event_type */
+    private static final int UHID_DESTROY = 1;
+    private static final int UHID_CREATE2 = 11;
+    private static final int UHID_INPUT2 = 12;
+
+    /** offsets in the packed struct uhid_event, whose fields are in host byte order */
+    private static final int CREATE2_NAME = 4;
+    private static final int CREATE2_UNIQ = 4 + 128 + 64;
+    private static final int CREATE2_RD_SIZE = 4 + 128 + 64 + 64;
+    private static final int CREATE2_RD_DATA = CREATE2_RD_SIZE + 2 + 2 + 4 * 4;
+    private static final int INPUT2_DATA = 4 + 2;
+
+    /** vendor defined page, one 8 byte input report without a report id */
+    static final byte[] REPORT_DESCRIPTOR = {
+            0x06, 0x00, (byte) 0xff, 0x09, 0x01, (byte) 0xa1, 0x01,
+            0x09, 0x01, 0x15, 0x00, 0x26, (byte) 0xff, 0x00, 0x75, 0x08, (byte) 0x95, 0x08, (byte) 0x81, 0x02,
+            (byte) 0xc0
+    };
+
+    /** the length of the input report */
+    static final int REPORT_LENGTH = 8;
+
+    private final int m_Handle;
+    private final byte[] m_Input = new byte[INPUT2_DATA + REPORT_LENGTH];
+    private final ByteBuffer m_InputView = ByteBuffer.wrap(m_Input).order(ByteOrder.nativeOrder());
+
+    /** @return true if devices can be made here */
+    static boolean isAvailable() {
+        return Files.isWritable(Paths.get(DEVICE));
+    }
+
+    /**
+     * Creates a bluetooth device, a usb one would need a usb device above it.
+     *
+     * @param uniq the serial number, tells the devices apart
+     */
+    Uhid(int vendorId, int productId, String name, String uniq) throws IOException {
+        m_Handle = CLibrary.open(DEVICE, O_RDWR);
+        if (m_Handle < 0)
+            throw new IOException("open(" + DEVICE + ") failed, errno " + Native.getLastError());
+        byte[] event = new byte[CREATE2_RD_DATA + REPORT_DESCRIPTOR.length];
+        ByteBuffer create = ByteBuffer.wrap(event).order(ByteOrder.nativeOrder());
+        create.putInt(0, UHID_CREATE2);
+        put(event, CREATE2_NAME, name, 128);
+        put(event, CREATE2_UNIQ, uniq, 64);
+        create.putShort(CREATE2_RD_SIZE, (short) REPORT_DESCRIPTOR.length);
+        create.putShort(CREATE2_RD_SIZE + 2, (short) DeviceFilter.BUS_BLUETOOTH);
+        create.putInt(CREATE2_RD_SIZE + 4, vendorId);
+        create.putInt(CREATE2_RD_SIZE + 8, productId);
+        System.arraycopy(REPORT_DESCRIPTOR, 0, event, CREATE2_RD_DATA, REPORT_DESCRIPTOR.length);
+        if (CLibrary.write(m_Handle, event, event.length) < 0) {
+            int err = Native.getLastError();
+            CLibrary.close(m_Handle);
+            throw new IOException("UHID_CREATE2 failed, errno " + err);
+        }
+        m_InputView.putInt(0, UHID_INPUT2);
+        m_InputView.putShort(4, (short) REPORT_LENGTH);
+    }
+
+    private static void put(byte[] event, int offset, String value, int size) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(bytes, 0, event, offset, Math.min(bytes.length, size - 1));
+    }
+
+    /** Sends an input report carrying the value, big endian, not thread-safe. */
+    void send(long value) throws IOException {
+        for (int i = 0; i < REPORT_LENGTH; i++)
+            m_Input[INPUT2_DATA + i] = (byte) (value >>> (8 * (REPORT_LENGTH - 1 - i)));
+        if (CLibrary.write(m_Handle, m_Input, m_Input.length) < 0)
+            throw new IOException("UHID_INPUT2 failed, errno " + Native.getLastError());
+    }
+
+    /** @return the value of a report sent by {@link #send(long)} */
+    static long value(ByteBuffer report) {
+        long value = 0;
+        for (int i = 0; i < REPORT_LENGTH; i++)
+            value = value << 8 | (report.get(report.position() + i) & 0xff);
+        return value;
+    }
+
+    /** Destroys the device, the library sees it unplugged. */
+    @Override
+    public void close() {
+        byte[] event = new byte[4];
+        ByteBuffer.wrap(event).order(ByteOrder.nativeOrder()).putInt(0, UHID_DESTROY);
+        CLibrary.write(m_Handle, event, event.length);
+        CLibrary.close(m_Handle);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.linux;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import purejavahidapi.DeviceFilter;
+import purejavahidapi.HidDevice;
+import purejavahidapi.HidDeviceInfo;
+import purejavahidapi.PureJavaHidApi;
+import purejavahidapi.TimestampedDirectInputReportListener;
+import purejavahidapi.shared.Histogram;
+import purejavahidapi.shared.VirtualThreads;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+/**
+ * Compares the per-device platform reader threads with the virtual thread mode.
+ * <p>
+ * The devices are made by the kernel from /dev/uhid, so they have hidraw nodes
+ * like real ones and are enumerated, opened and read by {@link HidDevice} as any
+ * device is. A few of them get an 8 byte report carrying its send time, the
+ * others stay idle the way most devices do. The read mode is a property of the
+ * backend, so each mode runs in a fresh JVM, the same one as this test with
+ * {@code purejavahidapi.linux.LinuxBackend.virtualThreads} set or not.
+ * <p>
+ * Prints the live thread count and the resident set size growth after the
+ * devices have been opened, and the latency from the send to the read and to
+ * the listener. Needs write access to /dev/uhid, usually root, 4 file handles
+ * per device in the platform thread mode, and JDK 21 or later for the virtual
+ * thread part, e.g.
+ * <pre>
+ * mvn test -Dtest=VirtualThreadBenchmark -Dvavi.test=ide -Dbenchmark.devices=200
+ * </pre>
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledOnOs(OS.LINUX)
+@EnabledIfSystemProperty(named = "vavi.test", matches = "ide")
+public class VirtualThreadBenchmark {
+
+    /** the number of devices */
+    static final int DEVICES = Integer.getInteger("benchmark.devices", 200);
+    /** the number of reports sent in total */
+    static final int REPORTS = Integer.getInteger("benchmark.reports", 20000);
+    /** every how many devices one is active */
+    static final int ACTIVE_EVERY = 50;
+    /** the ids of the uhid devices, pid.codes test ids */
+    static final int VENDOR_ID = 0x1209;
+    static final int PRODUCT_ID = 0x0001;
+
+    @Test
+    void platformThreads() throws Exception {
+        assumeTrue(Uhid.isAvailable(), "no write access to " + Uhid.DEVICE);
+        run("platform", false);
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        assumeTrue(Uhid.isAvailable(), "no write access to " + Uhid.DEVICE);
+        assumeTrue(VirtualThreads.isSupported(), "virtual threads need JDK 21 or later");
+        run("virtual", true);
+    }
+
+    /** runs the mode in a child JVM and prints what it printed */
+    static void run(String mode, boolean virtualThreads) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path")));
+        command.add("-Dpurejavahidapi.linux.LinuxBackend.virtualThreads=" + virtualThreads);
+        command.add("-Dbenchmark.devices=" + DEVICES);
+        command.add("-Dbenchmark.reports=" + REPORTS);
+        command.add(VirtualThreadBenchmark.class.getName());
+        command.add(mode);
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null)
+                System.out.println(line);
+        }
+        assertEquals(0, process.waitFor());
+    }
+
+    /** the child, creates the devices, opens them through the library and measures */
+    public static void main(String[] args) throws Exception {
+        String mode = args[0];
+        List<Uhid> uhids = new ArrayList<>();
+        List<HidDevice> devices = new ArrayList<>();
+        try {
+            for (int i = 0; i < DEVICES; i++)
+                uhids.add(new Uhid(VENDOR_ID, PRODUCT_ID, "benchmark " + i, "benchmark-" + i));
+            DeviceFilter filter = DeviceFilter.any().withVendorId(VENDOR_ID).withProductId(PRODUCT_ID);
+            List<HidDeviceInfo> infos = PureJavaHidApi.enumerateDevices(filter);
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (infos.size() < DEVICES && System.nanoTime() < deadline) {
+                Thread.sleep(100); // the hidraw nodes show up asynchronously
+                infos = PureJavaHidApi.enumerateDevices(filter);
+            }
+            if (infos.size() != DEVICES)
+                throw new IllegalStateException("found " + infos.size() + " of " + DEVICES + " devices");
+            Histogram toRead = new Histogram();
+            Histogram toListener = new Histogram();
+            AtomicInteger received = new AtomicInteger();
+            TimestampedDirectInputReportListener listener = (source, reportId, report, timestamp) -> {
+                long now = System.nanoTime();
+                long sent = Uhid.value(report);
+                synchronized (toRead) {
+                    toRead.record(timestamp - sent);
+                    toListener.record(now - sent);
+                }
+                received.incrementAndGet();
+            };
+
+            long rss = rssKiB();
+            int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+            for (HidDeviceInfo info : infos) {
+                HidDevice device = PureJavaHidApi.openDevice(info);
+                devices.add(device);
+                device.setDirectInputReportListener(listener);
+                device.open();
+            }
+            threads = ManagementFactory.getThreadMXBean().getThreadCount() - threads;
+            rss = rssKiB() - rss;
+
+            int warmup = REPORTS / 10;
+            for (int i = 0; i < warmup + REPORTS; i++) {
+                if (i == warmup) {
+                    synchronized (toRead) {
+                        toRead.reset();
+                        toListener.reset();
+                    }
+                }
+                int expected = received.get() + 1;
+                uhids.get((i * ACTIVE_EVERY) % DEVICES).send(System.nanoTime());
+                long timeout = System.nanoTime() + 1_000_000_000L;
+                while (received.get() < expected && System.nanoTime() < timeout)
+                    Thread.onSpinWait();
+            }
+            synchronized (toRead) {
+                System.out.printf("%-8s devices=%d threads+=%d rss+=%d KiB%n", mode, DEVICES, threads, rss);
+                System.out.printf("%-8s send to read %s%n", mode, toRead);
+                System.out.printf("%-8s send to listener %s%n", mode, toListener);
+            }
+        } finally {
+            for (HidDevice device : devices)
+                device.close();
+            for (Uhid uhid : uhids)
+                uhid.close();
+        }
+        System.exit(0);
+    }
+
+    /** @return the resident set size of this process, 0 if unknown */
+    static long rssKiB() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:"))
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        } catch (Exception e) {
+            // not linux
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * {@link Histogram}, the buckets and the percentiles.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class HistogramTest {
+
+    @Test
+    void testBuckets() {
+        // every value falls into the bucket whose upper end is the smallest one not below it
+        int previous = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = Histogram.bucketIndex(value);
+            assertTrue(index == previous || index == previous + 1, "index of " + value);
+            assertTrue(Histogram.highestValue(index) >= value, "upper end of " + value);
+            if (index > 0)
+                assertTrue(Histogram.highestValue(index - 1) < value, "previous upper end of " + value);
+            previous = index;
+        }
+        // small values are exact
+        for (int value = 0; value < 64; value++)
+            assertEquals(value, Histogram.highestValue(Histogram.bucketIndex(value)));
+    }
+
+    @Test
+    void testEmpty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertTrue(histogram.getMean() == 0);
+    }
+
+    @Test
+    void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++)
+            histogram.record(i * 1000L); // 1 us to 1 ms
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(1_000_000, histogram.getMax());
+        assertTrue(histogram.getMean() == 500_500_000 / 1000d);
+        assertWithin(500_000, histogram.getValueAtPercentile(50));
+        assertWithin(990_000, histogram.getValueAtPercentile(99));
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100)); // never above the max
+        assertWithin(1000, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    void testRandom() {
+        Random random = new Random(1);
+        Histogram histogram = new Histogram();
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20); // up to about 0.5 s
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[] {10, 50, 90, 99, 99.9}) {
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            assertWithin(expected, histogram.getValueAtPercentile(percentile));
+        }
+    }
+
+    @Test
+    void testOutOfRange() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        assertEquals(0, histogram.getMin()); // negative values count as 0
+        histogram.record(100_000_000_000L); // 100 s, past the last bucket
+        assertEquals(100_000_000_000L, histogram.getMax());
+        assertEquals(100_000_000_000L, histogram.getValueAtPercentile(100));
+        assertEquals(2, histogram.getCount());
+    }
+
+    @Test
+    void testSnapshotAndReset() {
+        Histogram histogram = new Histogram();
+        histogram.record(10);
+        histogram.record(20);
+        Histogram snapshot = histogram.snapshot();
+        histogram.reset();
+        histogram.record(30);
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(10, snapshot.getMin());
+        assertEquals(20, snapshot.getMax());
+        assertEquals(20, snapshot.getValueAtPercentile(100));
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(30, histogram.getMin());
+        assertEquals(30, histogram.getMax());
+
+        // copyInto overwrites every bucket of the target
+        Histogram target = histogram.copyInto(snapshot);
+        assertEquals(1, target.getCount());
+        assertEquals(30, target.getValueAtPercentile(1));
+    }
+
+    /** the bucket width makes a value known within 1/32 */
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected * 31 / 32 && actual <= expected * 33 / 32 + 1,
+                "expected about " + expected + " but was " + actual);
+    }
+}
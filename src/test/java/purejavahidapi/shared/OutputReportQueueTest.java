@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * {@link OutputReportQueue}, the order, the arm callback and the futures.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class OutputReportQueueTest {
+
+    /** @return a report of the given data bytes */
+    static ByteBuffer data(int... data) {
+        ByteBuffer buffer = ByteBuffer.allocate(data.length);
+        for (int b : data)
+            buffer.put((byte) b);
+        return buffer.flip();
+    }
+
+    /** @return the cause the future failed with */
+    static Throwable cause(CompletableFuture<?> future) {
+        assertTrue(future.isCompletedExceptionally());
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        return e.getCause();
+    }
+
+    @Test
+    void testOrder() throws Exception {
+        OutputReportQueue queue = new OutputReportQueue(4, 4, () -> {});
+        ByteBuffer first = data(10, 11);
+        CompletableFuture<Integer> f1 = queue.offer(1, first);
+        CompletableFuture<Integer> f2 = queue.offer(2, data(20));
+        assertEquals(0, first.position()); // not consumed
+
+        ByteBuffer report = queue.peek();
+        assertEquals(3, report.remaining()); // the report id and the data
+        assertEquals(1, report.get(0));
+        assertEquals(10, report.get(1));
+        assertEquals(11, report.get(2));
+        assertTrue(queue.complete(2)); // one more left
+        assertEquals(2, (int) f1.get());
+        assertFalse(f2.isDone());
+
+        report = queue.peek();
+        assertEquals(2, report.remaining());
+        assertEquals(2, report.get(0));
+        assertEquals(20, report.get(1));
+        assertFalse(queue.complete(-1)); // the writer stops
+        assertTrue(cause(f2) instanceof IOException);
+
+        assertNull(queue.peek());
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.complete(0)); // nothing to complete
+    }
+
+    @Test
+    void testWraparound() throws Exception {
+        OutputReportQueue queue = new OutputReportQueue(2, 1, () -> {});
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<Integer> future = queue.offer(i, data(i));
+            ByteBuffer report = queue.peek();
+            assertEquals(i, report.get(0));
+            assertEquals(i, report.get(1));
+            queue.complete(1);
+            assertEquals(1, (int) future.get());
+        }
+    }
+
+    @Test
+    void testArm() {
+        AtomicInteger armed = new AtomicInteger();
+        OutputReportQueue queue = new OutputReportQueue(4, 4, armed::incrementAndGet);
+        queue.offer(1, data(1));
+        queue.offer(2, data(2));
+        assertEquals(1, armed.get()); // only when it stops being empty
+        queue.complete(1);
+        queue.offer(3, data(3));
+        assertEquals(1, armed.get()); // the writer is still going
+        queue.complete(1);
+        queue.complete(1);
+        queue.offer(4, data(4));
+        assertEquals(2, armed.get());
+    }
+
+    @Test
+    void testFull() {
+        OutputReportQueue queue = new OutputReportQueue(2, 4, () -> {});
+        queue.offer(1, data(1));
+        queue.offer(2, data(2));
+        CompletableFuture<Integer> rejected = queue.offer(3, data(3));
+        assertTrue(cause(rejected) instanceof RejectedExecutionException);
+        queue.complete(1);
+        assertFalse(queue.offer(3, data(3)).isDone()); // room again
+    }
+
+    @Test
+    void testTooLong() {
+        OutputReportQueue queue = new OutputReportQueue(2, 2, () -> {});
+        assertTrue(cause(queue.offer(1, data(1, 2, 3))) instanceof IllegalArgumentException);
+        assertFalse(queue.offer(1, data(1, 2)).isDone()); // the longest one fits
+    }
+
+    @Test
+    void testTooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> new OutputReportQueue(0, 4, () -> {}));
+        // the slots would take more than an int of bytes
+        assertThrows(IllegalArgumentException.class, () -> new OutputReportQueue(1 << 16, 1 << 16, () -> {}));
+    }
+
+    @Test
+    void testClose() {
+        AtomicInteger armed = new AtomicInteger();
+        OutputReportQueue queue = new OutputReportQueue(4, 4, armed::incrementAndGet);
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        pending.add(queue.offer(1, data(1)));
+        pending.add(queue.offer(2, data(2)));
+        queue.close();
+        for (CompletableFuture<Integer> future : pending)
+            assertTrue(cause(future) instanceof IllegalStateException);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+
+        assertTrue(cause(queue.offer(3, data(3))) instanceof IllegalStateException);
+        assertEquals(1, armed.get()); // not armed for a closed queue
+    }
+}
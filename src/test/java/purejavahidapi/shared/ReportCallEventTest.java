@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import java.lang.management.ManagementFactory;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+/**
+ * {@link ReportCallEvent}, the report calls of the backends allocate an event
+ * only while a recording wants it.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class ReportCallEventTest {
+
+    @Test
+    void testDisabled() {
+        assertNull(ReportCallEvent.beginIfEnabled());
+
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 10 && allocated > 0; round++) { // the first rounds are the jit warming up
+            long before = bean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100000; i++) {
+                if (ReportCallEvent.beginIfEnabled() != null)
+                    throw new IllegalStateException("enabled");
+            }
+            allocated = bean.getThreadAllocatedBytes(threadId) - before;
+        }
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    void testEnabled() {
+        try (Recording recording = new Recording()) {
+            recording.enable("purejavahidapi.ReportCall");
+            recording.start();
+            ReportCallEvent event = ReportCallEvent.beginIfEnabled();
+            assertNotNull(event);
+            event.end();
+            recording.stop();
+        }
+        assertNull(ReportCallEvent.beginIfEnabled());
+    }
+}
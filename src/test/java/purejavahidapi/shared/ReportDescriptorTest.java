@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.shared;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * {@link ReportDescriptor}, the report lengths and the top level usage.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class ReportDescriptorTest {
+
+    /** @return the bytes of a descriptor written as ints */
+    static byte[] bytes(int... items) {
+        byte[] bytes = new byte[items.length];
+        for (int i = 0; i < items.length; i++)
+            bytes[i] = (byte) items[i];
+        return bytes;
+    }
+
+    /** the boot mouse of the HID specification, appendix B.2 */
+    static final byte[] MOUSE = bytes(
+            0x05, 0x01, // Usage Page (Generic Desktop)
+            0x09, 0x02, // Usage (Mouse)
+            0xa1, 0x01, // Collection (Application)
+            0x09, 0x01, //   Usage (Pointer)
+            0xa1, 0x00, //   Collection (Physical)
+            0x05, 0x09, //     Usage Page (Buttons)
+            0x19, 0x01, 0x29, 0x03, 0x15, 0x00, 0x25, 0x01,
+            0x95, 0x03, 0x75, 0x01, // Report Count (3), Report Size (1)
+            0x81, 0x02, //     Input (Data, Variable, Absolute)
+            0x95, 0x01, 0x75, 0x05, // Report Count (1), Report Size (5)
+            0x81, 0x01, //     Input (Constant), padding
+            0x05, 0x01, 0x09, 0x30, 0x09, 0x31, 0x15, 0x81, 0x25, 0x7f,
+            0x75, 0x08, 0x95, 0x02, // Report Size (8), Report Count (2)
+            0x81, 0x06, //     Input (Data, Variable, Relative)
+            0xc0,       //   End Collection
+            0xc0        // End Collection
+    );
+
+    @Test
+    void testUnnumbered() {
+        ReportDescriptor descriptor = ReportDescriptor.parse(MOUSE, MOUSE.length);
+        assertFalse(descriptor.usesNumberedReports());
+        assertEquals(3, descriptor.getReportLength(ReportDescriptor.INPUT, 0));
+        assertEquals(3, descriptor.getMaxReportLength(ReportDescriptor.INPUT));
+        assertEquals(0, descriptor.getReportLength(ReportDescriptor.OUTPUT, 0));
+        assertEquals(0, descriptor.getMaxReportLength(ReportDescriptor.FEATURE));
+        assertEquals(0x01, descriptor.getUsagePage());
+        assertEquals(0x02, descriptor.getUsage());
+    }
+
+    @Test
+    void testNumbered() {
+        byte[] d = bytes(
+                0x06, 0x00, 0xff, // Usage Page (Vendor 0xff00)
+                0x09, 0x01,       // Usage (1)
+                0xa1, 0x01,       // Collection (Application)
+                0x85, 0x01,       //   Report ID (1)
+                0x75, 0x08, 0x95, 0x04, 0x81, 0x02, // 4 bytes in
+                0x95, 0x02, 0x91, 0x02,             // 2 bytes out
+                0x85, 0x02,       //   Report ID (2)
+                0x75, 0x01, 0x95, 0x0c, 0x81, 0x02, // 12 bits in, rounded up
+                0x75, 0x08, 0x96, 0x00, 0x01, 0xb1, 0x02, // 256 bytes feature, 2 byte count
+                0xc0);
+        ReportDescriptor descriptor = ReportDescriptor.parse(d, d.length);
+        assertTrue(descriptor.usesNumberedReports());
+        assertEquals(4, descriptor.getReportLength(ReportDescriptor.INPUT, 1));
+        assertEquals(2, descriptor.getReportLength(ReportDescriptor.OUTPUT, 1));
+        assertEquals(2, descriptor.getReportLength(ReportDescriptor.INPUT, 2));
+        assertEquals(256, descriptor.getReportLength(ReportDescriptor.FEATURE, 2));
+        assertEquals(0, descriptor.getReportLength(ReportDescriptor.INPUT, 0));
+        assertEquals(4, descriptor.getMaxReportLength(ReportDescriptor.INPUT));
+        assertEquals(0xff00, descriptor.getUsagePage());
+        assertEquals(0x01, descriptor.getUsage());
+    }
+
+    @Test
+    void testPushPop() {
+        byte[] d = bytes(
+                0x05, 0x01, 0x09, 0x05, 0xa1, 0x01,
+                0x85, 0x01, 0x75, 0x08, 0x95, 0x02, // id 1, 2 x 8 bits
+                0xa4,                               // Push
+                0x85, 0x02, 0x75, 0x10, 0x95, 0x03, // id 2, 3 x 16 bits
+                0x81, 0x02,
+                0xb4,                               // Pop, back to id 1, 2 x 8 bits
+                0x81, 0x02,
+                0xb4,                               // Pop of an empty stack is ignored
+                0x81, 0x02,
+                0xc0);
+        ReportDescriptor descriptor = ReportDescriptor.parse(d, d.length);
+        assertEquals(6, descriptor.getReportLength(ReportDescriptor.INPUT, 2));
+        assertEquals(4, descriptor.getReportLength(ReportDescriptor.INPUT, 1));
+    }
+
+    @Test
+    void testExtendedUsage() {
+        byte[] d = bytes(
+                0x05, 0x01,                   // Usage Page (Generic Desktop), overridden
+                0x0b, 0x01, 0x00, 0x0c, 0x00, // Usage (Consumer Control), 4 byte extended usage
+                0xa1, 0x01, 0xc0);
+        ReportDescriptor descriptor = ReportDescriptor.parse(d, d.length);
+        assertEquals(0x0c, descriptor.getUsagePage());
+        assertEquals(0x01, descriptor.getUsage());
+    }
+
+    @Test
+    void testFirstApplicationCollection() {
+        byte[] d = bytes(
+                0x05, 0x01, 0x09, 0x06, 0xa1, 0x01, // keyboard
+                0x09, 0x01, 0xa1, 0x01, 0xc0,       // nested application, not top level
+                0xc0,
+                0x05, 0x0c, 0x09, 0x01, 0xa1, 0x01, 0xc0); // consumer control, not the first
+        ReportDescriptor descriptor = ReportDescriptor.parse(d, d.length);
+        assertEquals(0x01, descriptor.getUsagePage());
+        assertEquals(0x06, descriptor.getUsage());
+    }
+
+    @Test
+    void testMalformedTail() {
+        byte[] d = bytes(
+                0x75, 0x08, 0x95, 0x02, 0x81, 0x02, // 2 bytes in
+                0x96, 0x10);                        // 2 byte Report Count cut short
+        ReportDescriptor descriptor = ReportDescriptor.parse(d, d.length);
+        assertEquals(2, descriptor.getReportLength(ReportDescriptor.INPUT, 0));
+
+        // the length limits the bytes looked at
+        descriptor = ReportDescriptor.parse(d, 5);
+        assertEquals(0, descriptor.getReportLength(ReportDescriptor.INPUT, 0));
+    }
+
+    @Test
+    void testLongItem() {
+        byte[] d = bytes(
+                0xfe, 0x02, 0x10, 0x81, 0x02, // a long item whose data looks like an Input item
+                0x75, 0x08, 0x95, 0x01, 0x81, 0x02);
+        ReportDescriptor descriptor = ReportDescriptor.parse(d, d.length);
+        assertEquals(1, descriptor.getReportLength(ReportDescriptor.INPUT, 0));
+    }
+}
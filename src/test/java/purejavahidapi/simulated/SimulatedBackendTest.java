@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import purejavahidapi.DeviceFilter;
+import purejavahidapi.HidDevice;
+import purejavahidapi.HidDeviceInfo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * SimulatedBackendTest.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+public class SimulatedBackendTest {
+
+    /** a mouse, report id 1 with 3 bytes of input */
+    static final byte[] MOUSE = {
+            0x05, 0x01, 0x09, 0x02, (byte) 0xa1, 0x01, (byte) 0x85, 0x01,
+            0x75, 0x08, (byte) 0x95, 0x03, (byte) 0x81, 0x02, (byte) 0xc0
+    };
+
+    SimulatedBackend backend = new SimulatedBackend(1);
+
+    @AfterEach
+    void teardown() {
+        backend.cleanup();
+    }
+
+    @Test
+    void testEnumerate() throws Exception {
+        backend.plug(SimulatedDeviceSpec.of(0x1234, 0x5678).withStrings("vavi", "mouse", "0001").withReportDescriptor(MOUSE));
+        backend.plug(SimulatedDeviceSpec.of(0x1234, 0x9abc));
+
+        List<HidDeviceInfo> infos = backend.enumerateDevices();
+        assertEquals(2, infos.size());
+        HidDeviceInfo info = infos.get(0);
+        assertEquals(0x1234, info.getVendorId());
+        assertEquals(0x5678, info.getProductId());
+        assertEquals("mouse", info.getProductString());
+        assertEquals("0001", info.getSerialNumberString());
+        assertEquals(1, info.getUsagePage());
+        assertEquals(2, info.getUsageId());
+        assertEquals(0x9abc, infos.get(1).getProductId());
+    }
+
+    @Test
+    void testFilter() throws Exception {
+        backend.plug(SimulatedDeviceSpec.of(0x1234, 0x5678).withStrings("vavi", "mouse", "0001").withReportDescriptor(MOUSE));
+        backend.plug(SimulatedDeviceSpec.of(0x1234, 0x9abc).withStrings("vavi", "pad", "0002"));
+        backend.plug(SimulatedDeviceSpec.of(0x4321, 0x5678).withStrings("vavi", "mouse", "0003").withReportDescriptor(MOUSE));
+
+        assertEquals(3, backend.enumerateDevices(DeviceFilter.any()).size());
+        assertEquals(2, backend.enumerateDevices(DeviceFilter.any().withVendorId(0x1234)).size());
+        assertEquals(1, backend.enumerateDevices(DeviceFilter.any().withVendorId(0x1234).withProductId(0x5678)).size());
+        assertEquals(2, backend.enumerateDevices(DeviceFilter.any().withUsage(1, 2)).size());
+        assertEquals(2, backend.enumerateDevices(DeviceFilter.any().withUsagePage(1)).size());
+        assertEquals(0, backend.enumerateDevices(DeviceFilter.any().withUsage(1, 5)).size());
+        assertEquals("0002", backend.enumerateDevices(DeviceFilter.any().withSerialNumber("0002")).get(0).getSerialNumberString());
+        String path = backend.enumerateDevices().get(2).getPath();
+        assertEquals(path, backend.enumerateDevices(DeviceFilter.any().withPath(path)).get(0).getPath());
+        assertEquals(1, backend.enumerateDevices(DeviceFilter.any().withPath("*" + path.charAt(path.length() - 1))).size());
+        assertEquals(3, backend.enumerateDevices(DeviceFilter.any().withPath("sim*ted/??????")).size());
+        assertEquals(0, backend.enumerateDevices(DeviceFilter.any().withPath("simulated/?????")).size());
+        // the simulated backend does not know a bus
+        assertEquals(0, backend.enumerateDevices(DeviceFilter.any().withBusType(DeviceFilter.BUS_USB)).size());
+    }
+
+    @Test
+    void testFixedRate() throws Exception {
+        HidDeviceInfo info = backend.plug(SimulatedDeviceSpec.of(0x1234, 0x5678).withReportDescriptor(MOUSE)
+                .withInput(() -> InputGenerator.fixedRate(1000, new byte[] {1, 10, 20, 30})));
+        HidDevice device = backend.openDevice(info);
+        CountDownLatch received = new CountDownLatch(100);
+        byte[][] last = new byte[1][];
+        device.setInputReportListener((source, reportId, data, length) -> {
+            last[0] = Arrays.copyOf(data, length);
+            received.countDown();
+        });
+        device.open();
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        device.close();
+        assertArrayEquals(new byte[] {10, 20, 30}, last[0]);
+        assertEquals(3, device.getMaxInputReportLength());
+    }
+
+    @Test
+    void testBursty() throws Exception {
+        HidDeviceInfo info = backend.plug(SimulatedDeviceSpec.of(0x1234, 0x5678)
+                .withInput(() -> InputGenerator.bursty(10, 0, 50_000_000, new byte[] {0, 1})));
+        HidDevice device = backend.openDevice(info);
+        AtomicInteger received = new AtomicInteger();
+        device.setInputReportListener((source, reportId, data, length) -> received.incrementAndGet());
+        device.open();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.get() < 10 && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        device.close();
+        // the first burst, the next one is 50 ms away
+        assertEquals(10, received.get());
+    }
+
+    @Test
+    void testTrace() throws Exception {
+        Path recording = Files.createTempFile("simulated", ".hid");
+        Files.write(recording, List.of(
+                "# a recording of hid-recorder",
+                "N: Trace Mouse",
+                "I: 3 046d c077",
+                "R: 15 05 01 09 02 a1 01 85 01 75 08 95 03 81 02 c0",
+                "E: 000000.000000 4 01 00 01 00",
+                "E: 000000.001000 4 01 00 02 00",
+                "E: 000000.002000 4 01 00 03 00"));
+        try {
+            HidDeviceInfo info = backend.plug(SimulatedDeviceSpec.fromRecording(recording, false));
+            assertEquals(0x046d, info.getVendorId());
+            assertEquals(0xc077, info.getProductId());
+            assertEquals("Trace Mouse", info.getProductString());
+
+            HidDevice device = backend.openDevice(info);
+            CountDownLatch received = new CountDownLatch(3);
+            StringBuilder reports = new StringBuilder();
+            device.setInputReportListener((source, reportId, data, length) -> {
+                reports.append(reportId).append(':').append(data[1]).append(' ');
+                received.countDown();
+            });
+            device.open();
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+            device.close();
+            assertEquals("1:1 1:2 1:3 ", reports.toString());
+        } finally {
+            Files.delete(recording);
+        }
+    }
+
+    @Test
+    void testOutputAndFeatureReports() throws Exception {
+        HidDeviceInfo info = backend.plug(SimulatedDeviceSpec.of(0x1234, 0x5678).withFeatureReport(new byte[] {2, 7, 7}));
+        SimulatedDevice device = (SimulatedDevice) backend.openDevice(info);
+        device.open();
+
+        assertEquals(2, device.setOutputReport((byte) 1, new byte[] {5, 6}, 2));
+        assertEquals(3, device.setOutputReport((byte) 1, ByteBuffer.wrap(new byte[] {7, 8, 9})));
+        List<byte[]> outputs = device.getOutputReports();
+        assertEquals(2, outputs.size());
+        assertArrayEquals(new byte[] {1, 5, 6}, outputs.get(0));
+        assertArrayEquals(new byte[] {1, 7, 8, 9}, outputs.get(1));
+        assertEquals(2, (int) device.setOutputReportAsync(1, ByteBuffer.wrap(new byte[] {3, 4})).get(10, TimeUnit.SECONDS));
+        assertEquals(3, device.getOutputReports().size());
+
+        byte[] feature = new byte[8];
+        assertEquals(3, device.getFeatureReport(2, feature, feature.length));
+        assertArrayEquals(new byte[] {2, 7, 7}, Arrays.copyOf(feature, 3));
+        assertEquals(2, device.setFeatureReport((byte) 2, new byte[] {8, 9}, 2));
+        assertEquals(3, device.getFeatureReport(2, feature, feature.length));
+        assertArrayEquals(new byte[] {2, 8, 9}, Arrays.copyOf(feature, 3));
+        assertEquals(1, device.getFeatureReportsSet().size());
+        assertEquals(-1, device.getFeatureReport(3, feature, feature.length));
+        device.close();
+    }
+
+    @Test
+    void testUnplug() throws Exception {
+        HidDeviceInfo info = backend.plug(SimulatedDeviceSpec.of(0x1234, 0x5678)
+                .withInput(() -> InputGenerator.fixedRate(1000, new byte[] {0, 1})));
+        HidDevice device = backend.openDevice(info);
+        CountDownLatch removed = new CountDownLatch(1);
+        device.setDeviceRemovalListener(source -> removed.countDown());
+        device.open();
+
+        backend.unplug(info);
+        assertEquals(0, removed.getCount());
+        assertEquals(0, backend.enumerateDevices().size());
+        assertEquals(0, backend.getCounters().getOpenDeviceCount());
+    }
+
+    @Test
+    void testOpenTwice() throws Exception {
+        HidDeviceInfo info = backend.plug(SimulatedDeviceSpec.of(0x1234, 0x5678));
+        int mbeans = mbeans(info);
+        HidDevice first = backend.openDevice(info);
+        HidDevice second = backend.openDevice(info); // the same device id
+        first.open();
+        second.open();
+        assertEquals(2, backend.getOpenDevices().size());
+        assertEquals(2, backend.getCounters().getOpenDeviceCount());
+        assertEquals(mbeans + 2, mbeans(info));
+
+        first.close();
+        assertEquals(List.of(second), backend.getOpenDevices()); // not the one stored last
+        assertEquals(mbeans + 1, mbeans(info));
+
+        HidDevice third = backend.openDevice(info);
+        third.open();
+        AtomicInteger removed = new AtomicInteger();
+        second.setDeviceRemovalListener(source -> removed.incrementAndGet());
+        third.setDeviceRemovalListener(source -> removed.incrementAndGet());
+        backend.unplug(info); // closes every instance
+        assertEquals(2, removed.get());
+        assertEquals(0, backend.getOpenDevices().size());
+        assertEquals(3, backend.getCounters().getDevicesClosed());
+        assertEquals(mbeans, mbeans(info));
+    }
+
+    @Test
+    void testReadReportClosed() throws Exception {
+        HidDeviceInfo info = backend.plug(SimulatedDeviceSpec.of(0x1234, 0x5678)); // sends nothing
+        HidDevice device = backend.openDevice(info);
+        device.open();
+        AtomicInteger result = new AtomicInteger(0);
+        Thread reader = new Thread(() -> {
+            try {
+                result.set(device.readReport(ByteBuffer.allocate(8), 30, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                result.set(-2);
+            }
+        });
+        reader.start();
+        reader.join(200);
+        assertTrue(reader.isAlive());
+
+        device.close();
+        reader.join(5000);
+        assertEquals(-1, result.get()); // closed while waiting
+        // closed before the call
+        assertThrows(IllegalStateException.class, () -> device.readReport(ByteBuffer.allocate(8), 0, TimeUnit.SECONDS));
+        assertThrows(IllegalStateException.class, () -> device.pollReport(ByteBuffer.allocate(8)));
+    }
+
+    /** @return the number of device MBeans of the path */
+    static int mbeans(HidDeviceInfo info) throws Exception {
+        ObjectName pattern = new ObjectName("purejavahidapi:type=HidDevice,path=" + ObjectName.quote(info.getPath()) + ",*");
+        return ManagementFactory.getPlatformMBeanServer().queryNames(pattern, null).size();
+    }
+}
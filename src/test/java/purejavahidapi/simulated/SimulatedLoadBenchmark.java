@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package purejavahidapi.simulated;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import purejavahidapi.HidDevice;
+import purejavahidapi.HidDeviceInfo;
+import purejavahidapi.shared.Histogram;
+
+
+/**
+ * Runs many simulated devices at a fixed rate and prints the report rate that
+ * reached the listeners and how late the clock threads sent the reports, e.g.
+ * <pre>
+ * mvn test -Dtest=SimulatedLoadBenchmark -Dvavi.test=ide -Dbenchmark.devices=500 -Dbenchmark.hz=1000
+ * </pre>
+ * Put the listener under test into {@link #onReport} to see where it gives up.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026-10-18 nsano initial version <br>
+ */
+@EnabledIfSystemProperty(named = "vavi.test", matches = "ide")
+public class SimulatedLoadBenchmark {
+
+    /** the number of simulated devices */
+    static final int DEVICES = Integer.getInteger("benchmark.devices", 500);
+    /** the reports per second of every device */
+    static final int HZ = Integer.getInteger("benchmark.hz", 1000);
+    /** the number of clock threads */
+    static final int CLOCKS = Integer.getInteger("benchmark.clocks", 1);
+    /** how long to measure */
+    static final int SECONDS = Integer.getInteger("benchmark.seconds", 5);
+
+    final LongAdder m_Reports = new LongAdder();
+
+    /** the work done per report */
+    void onReport(HidDevice source, int reportId, ByteBuffer report) {
+        m_Reports.increment();
+    }
+
+    @Test
+    void load() throws Exception {
+        SimulatedBackend backend = new SimulatedBackend(CLOCKS);
+        byte[] report = new byte[9];
+        List<HidDevice> devices = new ArrayList<>();
+        for (int i = 0; i < DEVICES; i++) {
+            HidDeviceInfo info = backend.plug(SimulatedDeviceSpec.of(0x1234, i).withInput(() -> InputGenerator.fixedRate(HZ, report)));
+            HidDevice device = backend.openDevice(info);
+            device.setDirectInputReportListener(this::onReport);
+            device.open();
+            devices.add(device);
+        }
+        Thread.sleep(1000); // warm up
+        long reports = m_Reports.sum();
+        long start = System.nanoTime();
+        Thread.sleep(SECONDS * 1000L);
+        double rate = (m_Reports.sum() - reports) * 1e9 / (System.nanoTime() - start);
+        for (HidDevice device : devices)
+            device.close();
+        List<Histogram> lag = backend.getClockLag();
+        backend.cleanup();
+
+        System.out.printf("devices=%d hz=%d clocks=%d: %.0f reports/s of %d%n", DEVICES, HZ, CLOCKS, rate, DEVICES * HZ);
+        for (int i = 0; i < lag.size(); i++)
+            System.out.printf("clock %d lag %s%n", i, lag.get(i));
+    }
+}